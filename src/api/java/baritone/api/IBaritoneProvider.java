@@ -21,6 +21,7 @@ import baritone.api.cache.IWorldScanner;
 import baritone.api.command.ICommand;
 import baritone.api.command.ICommandSystem;
 import baritone.api.schematic.ISchematicSystem;
+import baritone.api.utils.ITaskLane;
 import net.minecraft.client.entity.EntityPlayerSP;
 
 import java.util.List;
@@ -88,4 +89,12 @@ public interface IBaritoneProvider {
      * @return The {@link ISchematicSystem} instance.
      */
     ISchematicSystem getSchematicSystem();
+
+    /**
+     * Returns the lanes that background work, such as path calculation, is scheduled on. These are shared by every
+     * {@link IBaritone} instance, and can be used to keep an eye on how backed up that work is.
+     *
+     * @return The task lanes
+     */
+    List<ITaskLane> getTaskLanes();
 }
@@ -418,6 +418,13 @@ public final class Settings {
      */
     public final Setting<Integer> mobAvoidanceRadius = new Setting<>(8);
 
+    /**
+     * While walking a path, keep an eye on mobs, and when one moves into the way of the next few movements, find a way
+     * around just that stretch of the path instead of waiting for something to go wrong and recalculating the whole
+     * thing. Only does anything with {@link #avoidance} on.
+     */
+    public final Setting<Boolean> mobAvoidanceRepair = new Setting<>(false);
+
     /**
      * When running a goto towards a container block (chest, ender chest, furnace, etc),
      * right click and open it once you arrive.
@@ -459,6 +466,18 @@ public final class Settings {
      */
     public final Setting<Integer> costVerificationLookahead = new Setting<>(5);
 
+    /**
+     * Scale the cost of each kind of movement by how long that kind of movement has actually been taking to execute,
+     * compared to what its cost said. Costs are only ever scaled up. Only kicks in for a kind of movement once
+     * {@link #costCalibrationMinSamples} of them have been executed.
+     */
+    public final Setting<Boolean> costCalibration = new Setting<>(false);
+
+    /**
+     * How many executed movements of a kind {@link #costCalibration} needs before it trusts them
+     */
+    public final Setting<Integer> costCalibrationMinSamples = new Setting<>(30);
+
     /**
      * Static cutoff factor. 0.9 means cut off the last 10% of all paths, regardless of chunk load state
      */
@@ -474,6 +493,15 @@ public final class Settings {
      */
     public final Setting<Integer> planningTickLookahead = new Setting<>(150);
 
+    /**
+     * How many segments to plan ahead of the one being executed. Each one is planned as soon as what's already planned
+     * has less than {@link #planningTickLookahead} ticks left per segment allowed, so that on long trips the
+     * calculation of the next segment is always done well before it's needed.
+     * <p>
+     * Planned segments that a change in the world has made impossible are thrown away before they are reached.
+     */
+    public final Setting<Integer> planAheadSegments = new Setting<>(1);
+
     /**
      * Default size of the Long2ObjectOpenHashMap used in pathing
      */
@@ -486,6 +514,27 @@ public final class Settings {
      */
     public final Setting<Float> pathingMapLoadFactor = new Setting<>(0.75f);
 
+    /**
+     * The maximum number of nodes that a single path calculation may keep in memory. -1 for no limit.
+     * <p>
+     * Once it's reached, the most expensive half of the open set is forgotten and explored nodes far away from the
+     * frontier are dropped. If that doesn't free enough, the calculation ends early with the best path found so far,
+     * instead of taking up hundreds of megabytes on a slowPath or a long failure timeout.
+     */
+    public final Setting<Integer> pathingMaxNodes = new Setting<>(-1);
+
+    /**
+     * How many completed paths to remember, so that pathing from the same start to the same goal again can skip the
+     * calculation entirely, as long as none of the chunks along the way have changed since. 0 to disable.
+     */
+    public final Setting<Integer> pathCacheSize = new Setting<>(16);
+
+    /**
+     * When several bots are running in the same game, the most path calculations one of them can have queued or running
+     * at once. Bots take turns getting their calculations started either way.
+     */
+    public final Setting<Integer> pathingQuotaPerBot = new Setting<>(2);
+
     /**
      * How far are you allowed to fall onto solid ground (without a water bucket)?
      * 3 won't deal any damage. But if you just want to get down the mountain quickly and you have
@@ -551,6 +600,24 @@ public final class Settings {
      */
     public final Setting<Long> planAheadFailureTimeoutMS = new Setting<>(5000L);
 
+    /**
+     * Treat the primary timeouts as a guideline rather than a rule. A search that has stopped getting any closer to the
+     * goal for a quarter of the primary timeout ends early, and one that is still getting closer carries on past the
+     * primary timeout, up to the failure timeout.
+     */
+    public final Setting<Boolean> adaptivePathTimeout = new Setting<>(false);
+
+    /**
+     * Publish rolling statistics over the most recent path calculations as a JMX bean, {@code baritone:type=PathStats}
+     */
+    public final Setting<Boolean> pathStatsJmx = new Setting<>(false);
+
+    /**
+     * Time every listener's handling of the tick, player update and render events, and every process tick, so that
+     * {@code #profile} can show what's slow. Costs nothing while off.
+     */
+    public final Setting<Boolean> eventProfiler = new Setting<>(false);
+
     /**
      * For debugging, consider nodes much much slower
      */
@@ -945,6 +1012,13 @@ public final class Settings {
      */
     public final Setting<Boolean> goalBreakFromAbove = new Setting<>(false);
 
+    /**
+     * Schematic files bigger than this many bytes are streamed into a temporary memory mapped file, and only the parts
+     * of the schematic near the player are kept in memory. This makes it possible to build schematics that are bigger
+     * than the heap.
+     */
+    public final Setting<Long> schematicStreamingThreshold = new Setting<>(16L * 1024 * 1024);
+
     /**
      * Build in map art mode, which makes baritone only care about the top block in each column
      */
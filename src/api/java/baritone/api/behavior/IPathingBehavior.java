@@ -21,6 +21,7 @@ import baritone.api.pathing.calc.IPath;
 import baritone.api.pathing.calc.IPathFinder;
 import baritone.api.pathing.goals.Goal;
 import baritone.api.pathing.path.IPathExecutor;
+import baritone.api.utils.PathCalculationResult;
 
 import java.util.Optional;
 
@@ -118,6 +119,14 @@ public interface IPathingBehavior extends IBehavior {
      */
     Optional<? extends IPathFinder> getInProgress();
 
+    /**
+     * Returns the result of the most recently finished path calculation, so that listeners of the path calculated
+     * events can find out more about it, such as how much memory it took and its {@link PathCalculationResult#getStats() stats}.
+     *
+     * @return The result of the last path calculation
+     */
+    Optional<PathCalculationResult> getLastCalculationResult();
+
     /**
      * @return The current path executor
      */
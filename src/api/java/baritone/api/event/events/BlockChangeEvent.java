@@ -0,0 +1,61 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.api.event.events;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.Tuple;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.List;
+
+/**
+ * Called when the server tells us that one or more blocks in a chunk have changed, after the changes have been applied
+ * to the world.
+ */
+public final class BlockChangeEvent {
+
+    /**
+     * The chunk that all of the changed blocks are in
+     */
+    private final ChunkPos chunk;
+
+    /**
+     * The changed blocks, and their new states
+     */
+    private final List<Tuple<BlockPos, IBlockState>> blocks;
+
+    public BlockChangeEvent(ChunkPos chunk, List<Tuple<BlockPos, IBlockState>> blocks) {
+        this.chunk = chunk;
+        this.blocks = blocks;
+    }
+
+    /**
+     * @return The chunk that all of the changed blocks are in
+     */
+    public final ChunkPos getChunkPos() {
+        return this.chunk;
+    }
+
+    /**
+     * @return The changed blocks, and their new states
+     */
+    public final List<Tuple<BlockPos, IBlockState>> getBlocks() {
+        return this.blocks;
+    }
+}
@@ -63,6 +63,9 @@ public interface AbstractGameEventListener extends IGameEventListener {
     @Override
     default void onPlayerSprintState(SprintStateEvent event) {}
 
+    @Override
+    default void onBlockChange(BlockChangeEvent event) {}
+
     @Override
     default void onBlockInteract(BlockInteractEvent event) {}
 
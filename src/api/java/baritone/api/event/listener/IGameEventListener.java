@@ -23,9 +23,12 @@ import net.minecraft.client.Minecraft;
 import net.minecraft.client.entity.EntityPlayerSP;
 import net.minecraft.client.gui.GuiGameOver;
 import net.minecraft.client.multiplayer.WorldClient;
+import net.minecraft.client.network.NetHandlerPlayClient;
 import net.minecraft.client.settings.GameSettings;
 import net.minecraft.entity.Entity;
 import net.minecraft.network.Packet;
+import net.minecraft.network.play.server.SPacketBlockChange;
+import net.minecraft.network.play.server.SPacketMultiBlockChange;
 
 /**
  * @author Brady
@@ -124,6 +127,15 @@ public interface IGameEventListener {
      */
     void onPlayerSprintState(SprintStateEvent event);
 
+    /**
+     * Called when the server changes one or more blocks in a loaded chunk
+     *
+     * @param event The event
+     * @see NetHandlerPlayClient#handleBlockChange(SPacketBlockChange)
+     * @see NetHandlerPlayClient#handleMultiBlockChange(SPacketMultiBlockChange)
+     */
+    void onBlockChange(BlockChangeEvent event);
+
     /**
      * Called when the local player interacts with a block, whether it is breaking or opening/placing.
      *
@@ -42,6 +42,16 @@ public class GoalAxis implements Goal {
         return flatAxisDistance * BaritoneAPI.getSettings().costHeuristic.value + GoalYLevel.calculate(BaritoneAPI.getSettings().axisHeight.value, y);
     }
 
+    @Override
+    public boolean equals(Object o) {
+        return o != null && o.getClass() == GoalAxis.class;
+    }
+
+    @Override
+    public int hashCode() {
+        return 201385781;
+    }
+
     @Override
     public String toString() {
         return "GoalAxis";
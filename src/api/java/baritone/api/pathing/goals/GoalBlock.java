@@ -17,6 +17,7 @@
 
 package baritone.api.pathing.goals;
 
+import baritone.api.utils.BetterBlockPos;
 import baritone.api.utils.SettingsUtil;
 import baritone.api.utils.interfaces.IGoalRenderPos;
 import net.minecraft.util.math.BlockPos;
@@ -66,6 +67,23 @@ public class GoalBlock implements Goal, IGoalRenderPos {
         return calculate(xDiff, yDiff, zDiff);
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        GoalBlock goal = (GoalBlock) o;
+        return x == goal.x && y == goal.y && z == goal.z;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) BetterBlockPos.longHash(x, y, z) * 905165533;
+    }
+
     @Override
     public String toString() {
         return String.format(
@@ -23,6 +23,7 @@ import it.unimi.dsi.fastutil.doubles.DoubleIterator;
 import net.minecraft.util.math.BlockPos;
 
 import java.util.Arrays;
+import java.util.Objects;
 
 /**
  * Useful for automated combat (retreating specifically)
@@ -124,6 +125,23 @@ public class GoalRunAway implements Goal {
         return maxInside;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        GoalRunAway goal = (GoalRunAway) o;
+        return distanceSq == goal.distanceSq && Arrays.equals(from, goal.from) && Objects.equals(maintainY, goal.maintainY);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(from) * 31 + distanceSq + Objects.hashCode(maintainY);
+    }
+
     @Override
     public String toString() {
         if (maintainY != null) {
@@ -17,6 +17,7 @@
 
 package baritone.api.pathing.goals;
 
+import baritone.api.utils.BetterBlockPos;
 import baritone.api.utils.SettingsUtil;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.math.BlockPos;
@@ -69,6 +70,23 @@ public class GoalStrictDirection implements Goal {
         return Double.NEGATIVE_INFINITY;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        GoalStrictDirection goal = (GoalStrictDirection) o;
+        return x == goal.x && y == goal.y && z == goal.z && dx == goal.dx && dz == goal.dz;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) BetterBlockPos.longHash(x, y, z) * 31 + dx * 3 + dz;
+    }
+
     @Override
     public String toString() {
         return String.format(
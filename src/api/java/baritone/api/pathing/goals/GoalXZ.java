@@ -64,6 +64,23 @@ public class GoalXZ implements Goal {
         return calculate(xDiff, zDiff);
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        GoalXZ goal = (GoalXZ) o;
+        return x == goal.x && z == goal.z;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) BetterBlockPos.longHash(x, 0, z) * 1791873246;
+    }
+
     @Override
     public String toString() {
         return String.format(
@@ -17,38 +17,65 @@
 
 package baritone.api.schematic;
 
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.block.state.IBlockState;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class CompositeSchematic extends AbstractSchematic {
 
+    /**
+     * Entries that would be registered in more cells than this go in a list that every lookup checks instead, so one
+     * large fill among many small entries doesn't blow up the grid.
+     */
+    private static final int MAX_CELLS_PER_ENTRY = 64;
+
     private final List<CompositeSchematicEntry> schematics;
-    private CompositeSchematicEntry[] schematicArr;
-
-    private void recalcArr() {
-        schematicArr = schematics.toArray(new CompositeSchematicEntry[0]);
-        for (CompositeSchematicEntry entry : schematicArr) {
-            this.x = Math.max(x, entry.x + entry.schematic.widthX());
-            this.y = Math.max(y, entry.y + entry.schematic.heightY());
-            this.z = Math.max(z, entry.z + entry.schematic.lengthZ());
-        }
-    }
+
+    /**
+     * Built on the first lookup after entries were added, rather than on every {@link #put}.
+     */
+    private volatile Index index;
 
     public CompositeSchematic(int x, int y, int z) {
         super(x, y, z);
         schematics = new ArrayList<>();
-        recalcArr();
     }
 
     public void put(ISchematic extra, int x, int y, int z) {
         schematics.add(new CompositeSchematicEntry(extra, x, y, z));
-        recalcArr();
+        this.x = Math.max(this.x, x + extra.widthX());
+        this.y = Math.max(this.y, y + extra.heightY());
+        this.z = Math.max(this.z, z + extra.lengthZ());
+        index = null;
+    }
+
+    private Index index() {
+        Index index = this.index;
+        if (index != null) {
+            return index;
+        }
+        synchronized (this) {
+            if (this.index == null) {
+                this.index = new Index(schematics.toArray(new CompositeSchematicEntry[0]));
+            }
+            return this.index;
+        }
     }
 
     private CompositeSchematicEntry getSchematic(int x, int y, int z, IBlockState currentState) {
-        for (CompositeSchematicEntry entry : schematicArr) {
+        Index index = index();
+        int[] cell = index.cells.get(cellKey(x >> index.cellShift, z >> index.cellShift));
+        int[] large = index.large;
+        int cellLength = cell == null ? 0 : cell.length;
+        // both lists are in insertion order, so merge them to check the entries in the order they were added
+        for (int i = 0, j = 0; i < cellLength || j < large.length; ) {
+            int next = j >= large.length || (i < cellLength && cell[i] < large[j]) ? cell[i++] : large[j++];
+            CompositeSchematicEntry entry = index.entries[next];
             if (x >= entry.x && y >= entry.y && z >= entry.z &&
                     entry.schematic.inSchematic(x - entry.x, y - entry.y, z - entry.z, currentState)) {
                 return entry;
@@ -74,8 +101,65 @@ public class CompositeSchematic extends AbstractSchematic {
 
     @Override
     public void reset() {
-        for (CompositeSchematicEntry entry : schematicArr) {
+        for (CompositeSchematicEntry entry : schematics) {
             entry.schematic.reset();
         }
     }
+
+    private static long cellKey(int cellX, int cellZ) {
+        return (long) cellX << 32 | (cellZ & 0xFFFFFFFFL);
+    }
+
+    private static long cellCount(CompositeSchematicEntry entry, int cellShift) {
+        long cellsX = ((entry.x + entry.schematic.widthX() - 1) >> cellShift) - (entry.x >> cellShift) + 1;
+        long cellsZ = ((entry.z + entry.schematic.lengthZ() - 1) >> cellShift) - (entry.z >> cellShift) + 1;
+        return cellsX * cellsZ;
+    }
+
+    /**
+     * A grid over the XZ plane listing, for each cell, the indices of the entries whose bounding boxes overlap it, in
+     * the order they were added. Entries too large for the grid are listed in {@link #large} instead.
+     */
+    private static final class Index {
+
+        private final CompositeSchematicEntry[] entries;
+        private final Long2ObjectMap<int[]> cells;
+        private final int[] large;
+        private final int cellShift;
+
+        private Index(CompositeSchematicEntry[] entries) {
+            this.entries = entries;
+            // size the cells after the median entry, so that a few large entries don't make the cells of all the
+            // small ones huge; those large entries then go in their own list
+            int[] sizes = new int[entries.length];
+            for (int i = 0; i < entries.length; i++) {
+                sizes[i] = Math.max(1, Math.max(entries[i].schematic.widthX(), entries[i].schematic.lengthZ()));
+            }
+            Arrays.sort(sizes);
+            int medianSize = sizes.length == 0 ? 1 : sizes[sizes.length / 2];
+            this.cellShift = Math.max(4, 32 - Integer.numberOfLeadingZeros(medianSize - 1));
+            Long2ObjectOpenHashMap<IntArrayList> cells = new Long2ObjectOpenHashMap<>();
+            IntArrayList large = new IntArrayList();
+            for (int i = 0; i < entries.length; i++) {
+                CompositeSchematicEntry entry = entries[i];
+                if (entry.schematic.widthX() <= 0 || entry.schematic.lengthZ() <= 0) {
+                    continue;
+                }
+                if (cellCount(entry, cellShift) > MAX_CELLS_PER_ENTRY) {
+                    large.add(i);
+                    continue;
+                }
+                for (int cellX = entry.x >> cellShift; cellX <= (entry.x + entry.schematic.widthX() - 1) >> cellShift; cellX++) {
+                    for (int cellZ = entry.z >> cellShift; cellZ <= (entry.z + entry.schematic.lengthZ() - 1) >> cellShift; cellZ++) {
+                        cells.computeIfAbsent(cellKey(cellX, cellZ), k -> new IntArrayList()).add(i);
+                    }
+                }
+            }
+            this.cells = new Long2ObjectOpenHashMap<>(cells.size());
+            for (Long2ObjectMap.Entry<IntArrayList> cell : cells.long2ObjectEntrySet()) {
+                this.cells.put(cell.getLongKey(), cell.getValue().toIntArray());
+            }
+            this.large = large.toIntArray();
+        }
+    }
 }
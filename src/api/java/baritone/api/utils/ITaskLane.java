@@ -0,0 +1,65 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.api.utils;
+
+/**
+ * One of the lanes that Baritone's background work is scheduled on, such as path calculation or scanning the world.
+ * Each lane has its own threads, so that work in one lane can never hold up another.
+ */
+public interface ITaskLane {
+
+    /**
+     * @return The name of this lane
+     */
+    String getName();
+
+    /**
+     * @return How many tasks this lane runs at once at most, {@link Integer#MAX_VALUE} if there is no limit
+     */
+    int getMaxConcurrency();
+
+    /**
+     * @return How many tasks are waiting to run
+     */
+    int getQueued();
+
+    /**
+     * @return How many tasks are running right now
+     */
+    int getRunning();
+
+    /**
+     * @return How many tasks have finished running, successfully or not
+     */
+    long getCompleted();
+
+    /**
+     * @return How many tasks were dropped without running, because a newer task superseded them
+     */
+    long getSuperseded();
+
+    /**
+     * @return The average time that tasks have waited in the queue before starting, in milliseconds
+     */
+    double getAverageWaitMillis();
+
+    /**
+     * @return The longest time that any task has waited in the queue before starting, in milliseconds
+     */
+    long getMaxWaitMillis();
+}
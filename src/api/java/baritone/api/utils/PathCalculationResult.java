@@ -26,15 +26,27 @@ public class PathCalculationResult {
 
     private final IPath path;
     private final Type type;
+    private final long peakMemory;
+    private final PathCalculationStats stats;
 
     public PathCalculationResult(Type type) {
         this(type, null);
     }
 
     public PathCalculationResult(Type type, IPath path) {
+        this(type, path, -1);
+    }
+
+    public PathCalculationResult(Type type, IPath path, long peakMemory) {
+        this(type, path, peakMemory, null);
+    }
+
+    public PathCalculationResult(Type type, IPath path, long peakMemory, PathCalculationStats stats) {
         Objects.requireNonNull(type);
         this.path = path;
         this.type = type;
+        this.peakMemory = peakMemory;
+        this.stats = stats;
     }
 
     public final Optional<IPath> getPath() {
@@ -45,6 +57,20 @@ public class PathCalculationResult {
         return this.type;
     }
 
+    /**
+     * @return An estimate of the most memory the calculation used at once in bytes, or -1 if unknown
+     */
+    public final long getPeakMemory() {
+        return this.peakMemory;
+    }
+
+    /**
+     * @return What the calculation did and how long it took, if known
+     */
+    public final Optional<PathCalculationStats> getStats() {
+        return Optional.ofNullable(this.stats);
+    }
+
     public enum Type {
         SUCCESS_TO_GOAL,
         SUCCESS_SEGMENT,
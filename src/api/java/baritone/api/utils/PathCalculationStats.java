@@ -0,0 +1,163 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.api.utils;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * What a path calculation did and how long it took, for collecting numbers across many calculations
+ */
+public final class PathCalculationStats {
+
+    private final int nodesExpanded;
+    private final int movementsEvaluated;
+    private final Map<String, Integer> movementsEvaluatedByType;
+    private final int chunkBoundaryRejections;
+    private final int chunkCacheHits;
+    private final int chunkCacheMisses;
+    private final boolean reused;
+    private final int peakMapSize;
+    private final int openSetSize;
+    private final long wallTimeMillis;
+    private final double coefficient;
+
+    public PathCalculationStats(int nodesExpanded, int movementsEvaluated, Map<String, Integer> movementsEvaluatedByType, int chunkBoundaryRejections, int chunkCacheHits, int chunkCacheMisses, boolean reused, int peakMapSize, int openSetSize, long wallTimeMillis, double coefficient) {
+        this.nodesExpanded = nodesExpanded;
+        this.movementsEvaluated = movementsEvaluated;
+        this.movementsEvaluatedByType = Collections.unmodifiableMap(new LinkedHashMap<>(movementsEvaluatedByType));
+        this.chunkBoundaryRejections = chunkBoundaryRejections;
+        this.chunkCacheHits = chunkCacheHits;
+        this.chunkCacheMisses = chunkCacheMisses;
+        this.reused = reused;
+        this.peakMapSize = peakMapSize;
+        this.openSetSize = openSetSize;
+        this.wallTimeMillis = wallTimeMillis;
+        this.coefficient = coefficient;
+    }
+
+    /**
+     * @param wallTimeMillis How long it took to look up the path
+     * @return The stats of a calculation that was skipped because an earlier path could be reused
+     */
+    public static PathCalculationStats reused(long wallTimeMillis) {
+        return new PathCalculationStats(0, 0, Collections.emptyMap(), 0, 0, 0, true, 0, 0, wallTimeMillis, Double.NaN);
+    }
+
+    /**
+     * @return How many nodes were taken off the open set and had their neighbors considered
+     */
+    public int getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    /**
+     * @return How many movement costs were calculated
+     */
+    public int getMovementsEvaluated() {
+        return movementsEvaluated;
+    }
+
+    /**
+     * @return How many movement costs were calculated, by the name of the kind of movement
+     */
+    public Map<String, Integer> getMovementsEvaluatedByType() {
+        return movementsEvaluatedByType;
+    }
+
+    /**
+     * @return How many movements weren't considered at all because they'd have left the loaded chunks
+     */
+    public int getChunkBoundaryRejections() {
+        return chunkBoundaryRejections;
+    }
+
+    /**
+     * @return How many block lookups were in the same chunk as the one before, and so didn't need a chunk lookup
+     */
+    public int getChunkCacheHits() {
+        return chunkCacheHits;
+    }
+
+    /**
+     * @return How many block lookups had to look up their chunk
+     */
+    public int getChunkCacheMisses() {
+        return chunkCacheMisses;
+    }
+
+    /**
+     * @return Whether a path calculated earlier was reused instead of searching at all
+     */
+    public boolean isReused() {
+        return reused;
+    }
+
+    /**
+     * @return The most nodes the search had in memory at once
+     */
+    public int getPeakMapSize() {
+        return peakMapSize;
+    }
+
+    /**
+     * @return How many nodes were still in the open set when the search ended
+     */
+    public int getOpenSetSize() {
+        return openSetSize;
+    }
+
+    /**
+     * @return How long the search ran for, in milliseconds
+     */
+    public long getWallTimeMillis() {
+        return wallTimeMillis;
+    }
+
+    /**
+     * @return The nodes expanded per second
+     */
+    public double getNodesPerSecond() {
+        return wallTimeMillis == 0 ? 0 : nodesExpanded * 1000D / wallTimeMillis;
+    }
+
+    /**
+     * @return The cost coefficient of the best path so far that was used, or {@link Double#NaN} if the search reached
+     * its goal, or didn't return a path at all
+     */
+    public double getCoefficient() {
+        return coefficient;
+    }
+
+    @Override
+    public String toString() {
+        return "PathCalculationStats{" +
+                "nodesExpanded=" + nodesExpanded +
+                ", movementsEvaluated=" + movementsEvaluated +
+                ", chunkBoundaryRejections=" + chunkBoundaryRejections +
+                ", chunkCacheHits=" + chunkCacheHits +
+                ", chunkCacheMisses=" + chunkCacheMisses +
+                ", reused=" + reused +
+                ", peakMapSize=" + peakMapSize +
+                ", openSetSize=" + openSetSize +
+                ", wallTimeMillis=" + wallTimeMillis +
+                ", coefficient=" + coefficient +
+                '}';
+    }
+}
@@ -20,6 +20,7 @@ package baritone.launch.mixins;
 import baritone.Baritone;
 import baritone.api.BaritoneAPI;
 import baritone.api.IBaritone;
+import baritone.api.event.events.BlockChangeEvent;
 import baritone.api.event.events.ChunkEvent;
 import baritone.api.event.events.type.EventState;
 import baritone.cache.CachedChunk;
@@ -29,12 +30,17 @@ import net.minecraft.network.play.server.SPacketBlockChange;
 import net.minecraft.network.play.server.SPacketChunkData;
 import net.minecraft.network.play.server.SPacketCombatEvent;
 import net.minecraft.network.play.server.SPacketMultiBlockChange;
+import net.minecraft.util.Tuple;
 import net.minecraft.util.math.ChunkPos;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Collectors;
+
 /**
  * @author Brady
  * @since 8/3/2018
@@ -90,6 +96,16 @@ public class MixinNetHandlerPlayClient {
             at = @At("RETURN")
     )
     private void postHandleBlockChange(SPacketBlockChange packetIn, CallbackInfo ci) {
+        BlockChangeEvent event = new BlockChangeEvent(
+                new ChunkPos(packetIn.getBlockPosition()),
+                Collections.singletonList(new Tuple<>(packetIn.getBlockPosition(), packetIn.getBlockState()))
+        );
+        for (IBaritone ibaritone : BaritoneAPI.getProvider().getAllBaritones()) {
+            EntityPlayerSP player = ibaritone.getPlayerContext().player();
+            if (player != null && player.connection == (NetHandlerPlayClient) (Object) this) {
+                ibaritone.getGameEventHandler().onBlockChange(event);
+            }
+        }
         if (!Baritone.settings().repackOnAnyBlockChange.value) {
             return;
         }
@@ -116,10 +132,22 @@ public class MixinNetHandlerPlayClient {
             at = @At("RETURN")
     )
     private void postHandleMultiBlockChange(SPacketMultiBlockChange packetIn, CallbackInfo ci) {
-        if (!Baritone.settings().repackOnAnyBlockChange.value) {
+        if (packetIn.getChangedBlocks().length == 0) {
             return;
         }
-        if (packetIn.getChangedBlocks().length == 0) {
+        BlockChangeEvent event = new BlockChangeEvent(
+                new ChunkPos(packetIn.getChangedBlocks()[0].getPos()),
+                Arrays.stream(packetIn.getChangedBlocks())
+                        .map(update -> new Tuple<>(update.getPos(), update.getBlockState()))
+                        .collect(Collectors.toList())
+        );
+        for (IBaritone ibaritone : BaritoneAPI.getProvider().getAllBaritones()) {
+            EntityPlayerSP player = ibaritone.getPlayerContext().player();
+            if (player != null && player.connection == (NetHandlerPlayClient) (Object) this) {
+                ibaritone.getGameEventHandler().onBlockChange(event);
+            }
+        }
+        if (!Baritone.settings().repackOnAnyBlockChange.value) {
             return;
         }
         https://docs.oracle.com/javase/specs/jls/se7/html/jls-14.html#jls-14.15
@@ -26,6 +26,7 @@ import baritone.api.utils.IPlayerContext;
 import baritone.behavior.*;
 import baritone.cache.WorldProvider;
 import baritone.command.manager.CommandManager;
+import baritone.event.EventProfiler;
 import baritone.event.GameEventHandler;
 import baritone.process.*;
 import baritone.selection.SelectionManager;
@@ -33,6 +34,9 @@ import baritone.utils.BlockStateInterface;
 import baritone.utils.GuiClick;
 import baritone.utils.InputOverrideHandler;
 import baritone.utils.PathingControlManager;
+import baritone.utils.ReachabilityCache;
+import baritone.utils.TaskScheduler;
+import baritone.utils.pathing.MobTracker;
 import baritone.utils.player.PrimaryPlayerContext;
 import net.minecraft.client.Minecraft;
 
@@ -40,9 +44,6 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.util.concurrent.Executor;
-import java.util.concurrent.SynchronousQueue;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
 
 /**
  * @author Brady
@@ -50,11 +51,11 @@ import java.util.concurrent.TimeUnit;
  */
 public class Baritone implements IBaritone {
 
-    private static ThreadPoolExecutor threadPool;
+    private static TaskScheduler scheduler;
     private static File dir;
 
     static {
-        threadPool = new ThreadPoolExecutor(4, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS, new SynchronousQueue<>());
+        scheduler = new TaskScheduler();
 
         dir = new File(Minecraft.getMinecraft().gameDir, "baritone");
         if (!Files.exists(dir.toPath())) {
@@ -65,6 +66,7 @@ public class Baritone implements IBaritone {
     }
 
     private GameEventHandler gameEventHandler;
+    private EventProfiler eventProfiler;
 
     private PathingBehavior pathingBehavior;
     private LookBehavior lookBehavior;
@@ -87,14 +89,19 @@ public class Baritone implements IBaritone {
 
     private IPlayerContext playerContext;
     private WorldProvider worldProvider;
+    private ReachabilityCache reachabilityCache;
+    private MobTracker mobTracker;
 
     public BlockStateInterface bsi;
 
     Baritone() {
         this.gameEventHandler = new GameEventHandler(this);
+        this.eventProfiler = new EventProfiler();
 
         // Define this before behaviors try and get it, or else it will be null and the builds will fail!
         this.playerContext = PrimaryPlayerContext.INSTANCE;
+        this.reachabilityCache = new ReachabilityCache(this);
+        this.mobTracker = new MobTracker(this);
 
         {
             // the Behavior constructor calls baritone.registerBehavior(this) so this populates the behaviors arraylist
@@ -198,11 +205,23 @@ public class Baritone implements IBaritone {
         return this.worldProvider;
     }
 
+    public ReachabilityCache getReachabilityCache() {
+        return this.reachabilityCache;
+    }
+
+    public MobTracker getMobTracker() {
+        return this.mobTracker;
+    }
+
     @Override
     public IEventBus getGameEventHandler() {
         return this.gameEventHandler;
     }
 
+    public EventProfiler getEventProfiler() {
+        return this.eventProfiler;
+    }
+
     @Override
     public CommandManager getCommandManager() {
         return this.commandManager;
@@ -226,7 +245,17 @@ public class Baritone implements IBaritone {
         return dir;
     }
 
+    public static TaskScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * @return An executor for background work that doesn't fit one of the {@link TaskScheduler.Lane}s better. Prefer
+     * submitting to {@link #getScheduler()} directly. Everything submitted here runs on the
+     * {@link TaskScheduler.Lane#SCANNING} lane, so at most two such tasks run at once, and they take turns with world
+     * scans. Anything that blocks or runs for a long time holds those up.
+     */
     public static Executor getExecutor() {
-        return threadPool;
+        return scheduler.executor(TaskScheduler.Lane.SCANNING);
     }
 }
@@ -22,6 +22,7 @@ import baritone.api.IBaritoneProvider;
 import baritone.api.cache.IWorldScanner;
 import baritone.api.command.ICommandSystem;
 import baritone.api.schematic.ISchematicSystem;
+import baritone.api.utils.ITaskLane;
 import baritone.cache.WorldScanner;
 import baritone.command.CommandSystem;
 import baritone.command.ExampleBaritoneControl;
@@ -71,4 +72,9 @@ public final class BaritoneProvider implements IBaritoneProvider {
     public ISchematicSystem getSchematicSystem() {
         return SchematicSystem.INSTANCE;
     }
+
+    @Override
+    public List<ITaskLane> getTaskLanes() {
+        return Baritone.getScheduler().getLanes();
+    }
 }
@@ -27,27 +27,34 @@ import baritone.api.process.PathingCommand;
 import baritone.api.utils.BetterBlockPos;
 import baritone.api.utils.Helper;
 import baritone.api.utils.PathCalculationResult;
+import baritone.api.utils.PathCalculationStats;
 import baritone.api.utils.interfaces.IGoalRenderPos;
 import baritone.pathing.calc.AStarPathFinder;
 import baritone.pathing.calc.AbstractNodeCostSearch;
+import baritone.pathing.calc.PathCache;
+import baritone.pathing.calc.PathStats;
 import baritone.pathing.movement.CalculationContext;
+import baritone.pathing.movement.CostCalibration;
 import baritone.pathing.movement.MovementHelper;
 import baritone.pathing.path.PathExecutor;
 import baritone.utils.PathRenderer;
 import baritone.utils.PathingCommandContext;
+import baritone.utils.TaskScheduler;
 import baritone.utils.pathing.Favoring;
 import net.minecraft.util.math.BlockPos;
 
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.*;
 import java.util.concurrent.LinkedBlockingQueue;
 
 public final class PathingBehavior extends Behavior implements IPathingBehavior, Helper {
 
     private PathExecutor current;
     private PathExecutor next;
+    /**
+     * Segments planned after {@link #next}, each one starting where the one before it ends. Up to
+     * {@link baritone.api.Settings#planAheadSegments} segments, counting next, are planned ahead.
+     */
+    private final ArrayDeque<PathExecutor> later = new ArrayDeque<>();
 
     private Goal goal;
     private CalculationContext context;
@@ -64,6 +71,7 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
     private boolean calcFailedLastTick;
 
     private volatile AbstractNodeCostSearch inProgress;
+    private volatile PathCalculationResult lastCalculationResult;
     private final Object pathCalcLock = new Object();
 
     private final Object pathPlanLock = new Object();
@@ -74,10 +82,26 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
 
     private final LinkedBlockingQueue<PathEvent> toDispatch = new LinkedBlockingQueue<>();
 
+    private final PathStats pathStats = new PathStats();
+
+    private final CostCalibration costCalibration = new CostCalibration();
+
     public PathingBehavior(Baritone baritone) {
         super(baritone);
     }
 
+    public CostCalibration getCostCalibration() {
+        return costCalibration;
+    }
+
+    /**
+     * @return Statistics over this bot's most recent path calculations, as opposed to {@link PathStats#INSTANCE} which
+     * covers every bot
+     */
+    public PathStats getPathStats() {
+        return pathStats;
+    }
+
     private void queuePathEvent(PathEvent event) {
         toDispatch.add(event);
     }
@@ -137,7 +161,7 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
                     // are we calculating the right thing though? 🤔
                     BetterBlockPos calcFrom = inProgress.getStart();
                     Optional<IPath> currentBest = inProgress.bestPathSoFar();
-                    if ((current == null || !current.getPath().getDest().equals(calcFrom)) // if current ends in inProgress's start, then we're ok
+                    if (!planEndsAt(calcFrom) // if current, or a segment planned after it, ends in inProgress's start, then we're ok
                             && !calcFrom.equals(ctx.playerFeet()) && !calcFrom.equals(expectedSegmentStart) // if current starts in our playerFeet or pathStart, then we're ok
                             && (!currentBest.isPresent() || (!currentBest.get().positions().contains(ctx.playerFeet()) && !currentBest.get().positions().contains(expectedSegmentStart))) // if
                     ) {
@@ -156,6 +180,7 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
                     logDebug("All done. At " + goal);
                     queuePathEvent(PathEvent.AT_GOAL);
                     next = null;
+                    later.clear();
                     if (Baritone.settings().disconnectOnArrival.value) {
                         ctx.world().sendQuittingDisconnectingPacket();
                     }
@@ -171,12 +196,13 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
                     // so need to discard it sadly.
                     queuePathEvent(PathEvent.DISCARD_NEXT);
                     next = null;
+                    later.clear();
                 }
                 if (next != null) {
                     logDebug("Continuing on to planned next path");
                     queuePathEvent(PathEvent.CONTINUING_ONTO_PLANNED_NEXT);
                     current = next;
-                    next = null;
+                    next = later.poll();
                     current.onTick(); // don't waste a tick doing nothing, get started right away
                     return;
                 }
@@ -193,12 +219,16 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
                 return;
             }
             // at this point, we know current is in progress
+            revalidatePlan();
+            if (Baritone.settings().avoidance.value && Baritone.settings().mobAvoidanceRepair.value) {
+                current = current.tryRepair();
+            }
             if (safeToCancel && next != null && next.snipsnapifpossible()) {
                 // a movement just ended; jump directly onto the next path
                 logDebug("Splicing into planned next path early...");
                 queuePathEvent(PathEvent.SPLICING_ONTO_NEXT_EARLY);
                 current = next;
-                next = null;
+                next = later.poll();
                 current.onTick();
                 return;
             }
@@ -206,30 +236,100 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
                 current = current.trySplice(next);
             }
             if (next != null && current.getPath().getDest().equals(next.getPath().getDest())) {
-                next = null;
+                next = later.poll(); // spliced on, the one after it is next in line to be
             }
             synchronized (pathCalcLock) {
                 if (inProgress != null) {
                     // if we aren't calculating right now
                     return;
                 }
-                if (next != null) {
-                    // and we have no plan for what to do next
+                int segments = Baritone.settings().planAheadSegments.value;
+                if (plannedSegments() >= segments) {
+                    // and we haven't planned as far ahead as we're allowed to
                     return;
                 }
-                if (goal == null || goal.isInGoal(current.getPath().getDest())) {
-                    // and this path doesn't get us all the way there
+                PathExecutor last = lastPlanned();
+                if (goal == null || goal.isInGoal(last.getPath().getDest())) {
+                    // and the plan so far doesn't get us all the way there
                     return;
                 }
-                if (ticksRemainingInSegment(false).get() < Baritone.settings().planningTickLookahead.value) {
-                    // and this path has 7.5 seconds or less left
+                if (plannedTicksRemaining() < Baritone.settings().planningTickLookahead.value * segments) {
+                    // and the plan so far has 7.5 seconds (per segment we're allowed to plan) or less left
                     // don't include the current movement so a very long last movement (e.g. descend) doesn't trip it up
                     // if we actually included current, it wouldn't start planning ahead until the last movement was done, if the last movement took more than 7.5 seconds on its own
                     logDebug("Path almost over. Planning ahead...");
                     queuePathEvent(PathEvent.NEXT_SEGMENT_CALC_STARTED);
-                    findPathInNewThread(current.getPath().getDest(), false, context);
+                    findPathInNewThread(last.getPath().getDest(), false, context);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return How many segments are planned after current
+     */
+    private int plannedSegments() {
+        return (next == null ? 0 : 1) + later.size();
+    }
+
+    /**
+     * @return The segment furthest along the plan, current if nothing is planned after it
+     */
+    private PathExecutor lastPlanned() {
+        if (!later.isEmpty()) {
+            return later.peekLast();
+        }
+        return next != null ? next : current;
+    }
+
+    private boolean planEndsAt(BetterBlockPos pos) {
+        if (current == null) {
+            return false;
+        }
+        if (current.getPath().getDest().equals(pos) || (next != null && next.getPath().getDest().equals(pos))) {
+            return true;
+        }
+        for (PathExecutor segment : later) {
+            if (segment.getPath().getDest().equals(pos)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private double plannedTicksRemaining() {
+        double ticks = ticksRemainingInSegment(false).get();
+        if (next != null) {
+            ticks += next.getPath().ticksRemainingFrom(0);
+        }
+        for (PathExecutor segment : later) {
+            ticks += segment.getPath().ticksRemainingFrom(0);
+        }
+        return ticks;
+    }
+
+    /**
+     * Throws away planned segments that something in the world has since made impossible, along with everything planned
+     * after them since it would no longer connect
+     */
+    private void revalidatePlan() {
+        if (next != null && !next.revalidate(context)) {
+            logDebug("Discarding planned next path since the world has changed under it");
+            queuePathEvent(PathEvent.DISCARD_NEXT);
+            next = null;
+            later.clear();
+            return;
+        }
+        int valid = 0;
+        for (PathExecutor segment : later) {
+            if (!segment.revalidate(context)) {
+                logDebug("Discarding " + (later.size() - valid) + " planned segments since the world has changed under them");
+                while (later.size() > valid) {
+                    later.pollLast();
                 }
+                return;
             }
+            valid++;
         }
     }
 
@@ -307,6 +407,11 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
         return Optional.ofNullable(inProgress);
     }
 
+    @Override
+    public Optional<PathCalculationResult> getLastCalculationResult() {
+        return Optional.ofNullable(lastCalculationResult);
+    }
+
     public boolean isSafeToCancel() {
         return current == null || safeToCancel;
     }
@@ -345,6 +450,7 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
             }
             current = null;
             next = null;
+            later.clear();
         }
         cancelRequested = true;
         // do everything BUT clear keys
@@ -358,6 +464,7 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
             if (current != null) {
                 current = null;
                 next = null;
+                later.clear();
                 baritone.getInputOverrideHandler().clearAllKeys();
                 baritone.getInputOverrideHandler().getBlockBreakHelper().stopBreakingBlock();
             }
@@ -489,19 +596,44 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
             primaryTimeout = Baritone.settings().planAheadPrimaryTimeoutMS.value;
             failureTimeout = Baritone.settings().planAheadFailureTimeoutMS.value;
         }
-        AbstractNodeCostSearch pathfinder = createPathfinder(start, goal, current == null ? null : current.getPath(), context);
+        Favoring favoring = new Favoring(context.getBaritone().getPlayerContext(), current == null ? null : lastPlanned().getPath(), context);
+        AbstractNodeCostSearch pathfinder = createPathfinder(start, goal, favoring, context);
         if (!Objects.equals(pathfinder.getGoal(), goal)) { // will return the exact same object if simplification didn't happen
             logDebug("Simplifying " + goal.getClass() + " to GoalXZ due to distance");
         }
+        // only reuse paths that didn't depend on anything but the world itself, not on a previous segment or nearby mobs
+        boolean reusable = current == null && favoring.isEmpty() && PathCache.canCache(context);
+        long chunkVersion = context.worldData == null ? 0 : context.worldData.chunkVersions.current();
         inProgress = pathfinder;
-        Baritone.getExecutor().execute(() -> {
+        // while standing still waiting for a first path, nothing else matters more
+        int priority = current == null ? TaskScheduler.PRIORITY_HIGH : TaskScheduler.PRIORITY_LOW;
+        // take turns with any other bots, so that one replanning over and over can't starve the rest
+        Baritone.getScheduler().executeFair(TaskScheduler.Lane.PATHING, baritone, Baritone.settings().pathingQuotaPerBot.value, priority, () -> {
             if (talkAboutIt) {
                 logDebug("Starting to search for path from " + start + " to " + goal);
             }
 
-            PathCalculationResult calcResult = pathfinder.calculate(primaryTimeout, failureTimeout);
+            PathCalculationResult calcResult = null;
+            if (reusable) {
+                long lookupStart = System.currentTimeMillis();
+                calcResult = context.worldData.pathCache.get(pathfinder.getStart(), pathfinder.getGoal(), context)
+                        .map(path -> new PathCalculationResult(PathCalculationResult.Type.SUCCESS_TO_GOAL, path, 0, PathCalculationStats.reused(System.currentTimeMillis() - lookupStart)))
+                        .orElse(null);
+            }
+            if (calcResult == null) {
+                calcResult = pathfinder.calculate(primaryTimeout, failureTimeout);
+                if (reusable && calcResult.getType() == PathCalculationResult.Type.SUCCESS_TO_GOAL) {
+                    context.worldData.pathCache.put(pathfinder.getStart(), pathfinder.getGoal(), context, calcResult.getPath().get(), chunkVersion);
+                }
+            }
+            calcResult.getStats().ifPresent(stats -> {
+                PathStats.INSTANCE.record(stats);
+                pathStats.record(stats);
+            });
+            lastCalculationResult = calcResult;
             synchronized (pathPlanLock) {
                 Optional<PathExecutor> executor = calcResult.getPath().map(p -> new PathExecutor(PathingBehavior.this, p));
+                executor.ifPresent(e -> e.setVerifiedVersion(chunkVersion));
                 if (current == null) {
                     if (executor.isPresent()) {
                         if (executor.get().getPath().positions().contains(expectedSegmentStart)) {
@@ -518,11 +650,15 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
                         }
                     }
                 } else {
-                    if (next == null) {
+                    if (plannedSegments() < Baritone.settings().planAheadSegments.value) {
                         if (executor.isPresent()) {
-                            if (executor.get().getPath().getSrc().equals(current.getPath().getDest())) {
+                            if (executor.get().getPath().getSrc().equals(lastPlanned().getPath().getDest())) {
                                 queuePathEvent(PathEvent.NEXT_SEGMENT_CALC_FINISHED);
-                                next = executor.get();
+                                if (next == null) {
+                                    next = executor.get();
+                                } else {
+                                    later.add(executor.get());
+                                }
                             } else {
                                 logDebug("Warning: discarding orphan next segment with incorrect start");
                             }
@@ -541,6 +677,7 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
                     } else {
                         logDebug("Found path segment from " + start + " towards " + goal + ". " + current.getPath().getNumNodesConsidered() + " nodes considered");
                     }
+                    logDebug("Peak search memory: " + calcResult.getPeakMemory() / 1024 + " KiB");
                 }
                 synchronized (pathCalcLock) {
                     inProgress = null;
@@ -549,7 +686,7 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
         });
     }
 
-    private static AbstractNodeCostSearch createPathfinder(BlockPos start, Goal goal, IPath previous, CalculationContext context) {
+    private static AbstractNodeCostSearch createPathfinder(BlockPos start, Goal goal, Favoring favoring, CalculationContext context) {
         Goal transformed = goal;
         if (Baritone.settings().simplifyUnloadedYCoord.value && goal instanceof IGoalRenderPos) {
             BlockPos pos = ((IGoalRenderPos) goal).getGoalPos();
@@ -557,7 +694,6 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
                 transformed = new GoalXZ(pos.getX(), pos.getZ());
             }
         }
-        Favoring favoring = new Favoring(context.getBaritone().getPlayerContext(), previous, context);
         return new AStarPathFinder(start.getX(), start.getY(), start.getZ(), transformed, favoring, context);
     }
 
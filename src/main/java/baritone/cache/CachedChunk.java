@@ -20,16 +20,14 @@ package baritone.cache;
 import baritone.api.utils.BlockUtils;
 import baritone.utils.pathing.PathingBlockType;
 import com.google.common.collect.ImmutableSet;
-import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.init.Blocks;
 import net.minecraft.util.math.BlockPos;
 
-import java.util.ArrayList;
-import java.util.BitSet;
-import java.util.List;
-import java.util.Map;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.*;
 
 /**
  * @author Brady
@@ -104,6 +102,21 @@ public final class CachedChunk {
      */
     public static final int SIZE_IN_BYTES = SIZE / 8;
 
+    /**
+     * The size of the chunk data in longs
+     */
+    public static final int SIZE_IN_LONGS = SIZE / 64;
+
+    /**
+     * The size of the data of one 16x16x16 section in longs. Equal to 1 KiB.
+     */
+    private static final int SECTION_SIZE_IN_LONGS = SIZE_IN_LONGS / 16;
+
+    /**
+     * Every pair of bits set to the lowest pair of bits of a long, see {@link #isUniform(long)}
+     */
+    private static final long UNIFORM_PATTERN = 0x5555555555555555L;
+
     /**
      * The chunk x coordinate
      */
@@ -115,57 +128,89 @@ public final class CachedChunk {
     public final int z;
 
     /**
-     * The actual raw data of this packed chunk.
+     * The actual raw data of this packed chunk, split up into 16x16x16 sections.
      * <p>
-     * Each block is expressed as 2 bits giving a total of 16 KiB
+     * Each block is expressed as 2 bits, giving 1 KiB per section. Sections that are entirely one
+     * {@link PathingBlockType} (which is most of them, solid stone underground and air in the sky) are {@code null},
+     * and their type is in {@link #uniform} instead.
      */
-    private final BitSet data;
+    private final long[][] sections;
 
-    private final Int2ObjectOpenHashMap<String> special;
+    /**
+     * The 2 bit type of every uniform section
+     */
+    private final byte[] uniform;
 
     /**
-     * The block names of each surface level block for generating an overview
+     * The positions of the special blocks, as {@code y << 8 | z << 4 | x}, sorted
      */
-    private final IBlockState[] overview;
+    private final int[] specialPositions;
 
-    private final int[] heightMap;
+    /**
+     * The block ids of the special blocks, in the same order as {@link #specialPositions}
+     */
+    private final int[] specialBlocks;
 
-    private final Map<String, List<BlockPos>> specialBlockLocations;
+    /**
+     * The state ids of each surface level block for generating an overview
+     */
+    private final char[] overview;
+
+    /**
+     * The y level of the highest non air block in each column, as an unsigned byte
+     */
+    private final byte[] heightMap;
 
     public final long cacheTimestamp;
 
-    CachedChunk(int x, int z, BitSet data, IBlockState[] overview, Map<String, List<BlockPos>> specialBlockLocations, long cacheTimestamp) {
+    CachedChunk(int x, int z, long[] data, IBlockState[] overview, Map<String, List<BlockPos>> specialBlockLocations, long cacheTimestamp) {
         validateSize(data);
 
         this.x = x;
         this.z = z;
-        this.data = data;
-        this.overview = overview;
-        this.heightMap = new int[256];
-        this.specialBlockLocations = specialBlockLocations;
+        this.sections = new long[16][];
+        this.uniform = new byte[16];
+        this.overview = new char[256];
+        this.heightMap = new byte[256];
         this.cacheTimestamp = cacheTimestamp;
-        if (specialBlockLocations.isEmpty()) {
-            this.special = null;
-        } else {
-            this.special = new Int2ObjectOpenHashMap<>();
-            setSpecial();
+        for (int section = 0; section < 16; section++) {
+            int from = section * SECTION_SIZE_IN_LONGS;
+            long first = data[from];
+            boolean isUniform = isUniform(first);
+            for (int i = 1; isUniform && i < SECTION_SIZE_IN_LONGS; i++) {
+                isUniform = data[from + i] == first;
+            }
+            if (isUniform) {
+                uniform[section] = (byte) (first & 3);
+            } else {
+                sections[section] = Arrays.copyOfRange(data, from, from + SECTION_SIZE_IN_LONGS);
+            }
         }
-        calculateHeightMap();
-    }
-
-    private final void setSpecial() {
+        for (int i = 0; i < 256; i++) {
+            this.overview[i] = (char) Block.getStateId(overview[i]);
+        }
+        long[] special = new long[specialBlockLocations.values().stream().mapToInt(List::size).sum()];
+        int i = 0;
         for (Map.Entry<String, List<BlockPos>> entry : specialBlockLocations.entrySet()) {
+            long blockId = Block.getIdFromBlock(BlockUtils.stringToBlockRequired(entry.getKey()));
             for (BlockPos pos : entry.getValue()) {
-                special.put(getPositionIndex(pos.getX(), pos.getY(), pos.getZ()), entry.getKey());
+                special[i++] = (long) packPosition(pos.getX(), pos.getY(), pos.getZ()) << 32 | blockId;
             }
         }
+        Arrays.sort(special);
+        this.specialPositions = new int[special.length];
+        this.specialBlocks = new int[special.length];
+        for (i = 0; i < special.length; i++) {
+            specialPositions[i] = (int) (special[i] >>> 32);
+            specialBlocks[i] = (int) special[i];
+        }
+        calculateHeightMap();
     }
 
     public final IBlockState getBlock(int x, int y, int z, int dimension) {
-        int index = getPositionIndex(x, y, z);
-        PathingBlockType type = getType(index);
+        PathingBlockType type = getType(x, y, z);
         int internalPos = z << 4 | x;
-        if (heightMap[internalPos] == y && type != PathingBlockType.AVOID) {
+        if ((heightMap[internalPos] & 0xff) == y && type != PathingBlockType.AVOID) {
             // if the top block in a column is water, we cache it as AVOID but we don't want to just return default state water (which is not flowing) beacuse then it would try to path through it
 
             // we have this exact block, it's a surface block
@@ -173,12 +218,12 @@ public final class CachedChunk {
             if (!Minecraft.getMinecraft().world.getBlockState(new BlockPos(x + this.x * 16, y, z + this.z * 16)).getBlock().equals(state.getBlock())) {
                 throw new IllegalStateException("failed " + Minecraft.getMinecraft().world.getBlockState(new BlockPos(x + this.x * 16, y, z + this.z * 16)).getBlock() + " " + state.getBlock() + " " + (x + this.x * 16) + " " + y + " " + (z + this.z * 16));
             }*/
-            return overview[internalPos];
+            return getOverviewState(internalPos);
         }
-        if (special != null) {
-            String str = special.get(index);
-            if (str != null) {
-                return BlockUtils.stringToBlockRequired(str).getDefaultState();
+        if (specialPositions.length != 0) {
+            int i = Arrays.binarySearch(specialPositions, packPosition(x, y, z));
+            if (i >= 0) {
+                return Block.getBlockById(specialBlocks[i]).getDefaultState();
             }
         }
 
@@ -197,8 +242,21 @@ public final class CachedChunk {
         return ChunkPacker.pathingTypeToBlock(type, dimension);
     }
 
-    private PathingBlockType getType(int index) {
-        return PathingBlockType.fromBits(data.get(index), data.get(index + 1));
+    private PathingBlockType getType(int x, int y, int z) {
+        int bits = getBits(x, y, z);
+        return PathingBlockType.fromBits((bits & 1) != 0, (bits & 2) != 0);
+    }
+
+    /**
+     * @return The 2 bits of the specified position, the bit at {@link #getPositionIndex} being the lowest one
+     */
+    private int getBits(int x, int y, int z) {
+        long[] section = sections[y >> 4];
+        if (section == null) {
+            return uniform[y >> 4];
+        }
+        int index = getPositionIndex(x, y & 15, z);
+        return (int) (section[index >> 6] >>> (index & 63)) & 3;
     }
 
     private void calculateHeightMap() {
@@ -206,10 +264,14 @@ public final class CachedChunk {
             for (int x = 0; x < 16; x++) {
                 int index = z << 4 | x;
                 heightMap[index] = 0;
-                for (int y = 256; y >= 0; y--) {
-                    int i = getPositionIndex(x, y, z);
-                    if (data.get(i) || data.get(i + 1)) {
-                        heightMap[index] = y;
+                for (int y = 255; y >= 0; y--) {
+                    if (sections[y >> 4] == null && uniform[y >> 4] == 0) {
+                        // skip over the entire air section at once
+                        y &= ~15;
+                        continue;
+                    }
+                    if (getBits(x, y, z) != 0) {
+                        heightMap[index] = (byte) y;
                         break;
                     }
                 }
@@ -217,30 +279,97 @@ public final class CachedChunk {
         }
     }
 
-    public final IBlockState[] getOverview() {
-        return overview;
+    /**
+     * @param index The column, as {@code z << 4 | x}
+     * @return The surface level block of that column
+     */
+    public final IBlockState getOverviewState(int index) {
+        return Block.getStateById(overview[index]);
     }
 
+    /**
+     * @return The special blocks in this chunk, relative to the chunk, by block name
+     */
     public final Map<String, List<BlockPos>> getRelativeBlocks() {
-        return specialBlockLocations;
+        Map<String, List<BlockPos>> res = new HashMap<>();
+        for (int i = 0; i < specialPositions.length; i++) {
+            int pos = specialPositions[i];
+            res.computeIfAbsent(BlockUtils.blockToString(Block.getBlockById(specialBlocks[i])), b -> new ArrayList<>())
+                    .add(new BlockPos(pos & 15, pos >>> 8, (pos >>> 4) & 15));
+        }
+        return res;
     }
 
     public final ArrayList<BlockPos> getAbsoluteBlocks(String blockType) {
-        if (specialBlockLocations.get(blockType) == null) {
+        Block block = BlockUtils.stringToBlockNullable(blockType);
+        if (block == null) {
             return null;
         }
-        ArrayList<BlockPos> res = new ArrayList<>();
-        for (BlockPos pos : specialBlockLocations.get(blockType)) {
-            res.add(new BlockPos(pos.getX() + x * 16, pos.getY(), pos.getZ() + z * 16));
+        int blockId = Block.getIdFromBlock(block);
+        ArrayList<BlockPos> res = null;
+        for (int i = 0; i < specialPositions.length; i++) {
+            if (specialBlocks[i] != blockId) {
+                continue;
+            }
+            if (res == null) {
+                res = new ArrayList<>();
+            }
+            int pos = specialPositions[i];
+            res.add(new BlockPos((pos & 15) + x * 16, pos >>> 8, ((pos >>> 4) & 15) + z * 16));
         }
         return res;
     }
 
     /**
-     * @return Returns the raw packed chunk data as a byte array
+     * @return Returns the raw packed chunk data as a byte array, uniform sections expanded
      */
     public final byte[] toByteArray() {
-        return this.data.toByteArray();
+        ByteBuffer buffer = ByteBuffer.allocate(SIZE_IN_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (int section = 0; section < 16; section++) {
+            if (sections[section] == null) {
+                long word = uniform[section] * UNIFORM_PATTERN;
+                for (int i = 0; i < SECTION_SIZE_IN_LONGS; i++) {
+                    buffer.putLong(word);
+                }
+            } else {
+                for (long word : sections[section]) {
+                    buffer.putLong(word);
+                }
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Reads raw packed chunk data written by {@link #toByteArray()}
+     *
+     * @param bytes The raw data
+     * @return The raw data as longs
+     */
+    public static long[] fromByteArray(byte[] bytes) {
+        long[] data = new long[SIZE_IN_LONGS];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(data, 0, bytes.length / 8);
+        return data;
+    }
+
+    /**
+     * A rough estimate of how much memory this chunk takes up, to keep an eye on how compact the cache is
+     *
+     * @return The estimated size in bytes
+     */
+    public final int sizeInBytes() {
+        int size = 64 // this object
+                + 16 + 16 * 4 // sections
+                + 16 + 16 // uniform
+                + 2 * (16 + specialPositions.length * 4) // special
+                + 16 + 256 * 2 // overview
+                + 16 + 256; // heightMap
+        for (long[] section : sections) {
+            if (section != null) {
+                size += 16 + SECTION_SIZE_IN_LONGS * 8;
+            }
+        }
+        return size;
     }
 
     /**
@@ -255,17 +384,28 @@ public final class CachedChunk {
         return (x << 1) | (z << 5) | (y << 9);
     }
 
+    private static int packPosition(int x, int y, int z) {
+        return y << 8 | z << 4 | x;
+    }
+
+    /**
+     * @param word A long of raw data
+     * @return Whether every 2 bit block in it is of the same type
+     */
+    private static boolean isUniform(long word) {
+        return (word & 3) * UNIFORM_PATTERN == word;
+    }
+
     /**
-     * Validates the size of an input {@link BitSet} containing the raw
-     * packed chunk data. Sizes that exceed {@link CachedChunk#SIZE} are
-     * considered invalid, and thus, an exception will be thrown.
+     * Validates the size of an input array containing the raw packed chunk data. Sizes other than
+     * {@link CachedChunk#SIZE_IN_LONGS} are considered invalid, and thus, an exception will be thrown.
      *
      * @param data The raw data
-     * @throws IllegalArgumentException if the bitset size exceeds the maximum size
+     * @throws IllegalArgumentException if the array is not of the right size
      */
-    private static void validateSize(BitSet data) {
-        if (data.size() > SIZE) {
-            throw new IllegalArgumentException("BitSet of invalid length provided");
+    private static void validateSize(long[] data) {
+        if (data.length != SIZE_IN_LONGS) {
+            throw new IllegalArgumentException("Chunk data of invalid length provided");
         }
     }
 }
@@ -139,10 +139,7 @@ public final class CachedRegion implements ICachedRegion {
                             out.write(CHUNK_NOT_PRESENT);
                         } else {
                             out.write(CHUNK_PRESENT);
-                            byte[] chunkBytes = chunk.toByteArray();
-                            out.write(chunkBytes);
-                            // Messy, but fills the empty 0s that should be trailing to fill up the space.
-                            out.write(new byte[CachedChunk.SIZE_IN_BYTES - chunkBytes.length]);
+                            out.write(chunk.toByteArray());
                         }
                     }
                 }
@@ -150,7 +147,7 @@ public final class CachedRegion implements ICachedRegion {
                     for (int z = 0; z < 32; z++) {
                         if (chunks[x][z] != null) {
                             for (int i = 0; i < 256; i++) {
-                                out.writeUTF(BlockUtils.blockToString(chunks[x][z].getOverview()[i].getBlock()));
+                                out.writeUTF(BlockUtils.blockToString(chunks[x][z].getOverviewState(i).getBlock()));
                             }
                         }
                     }
@@ -214,7 +211,7 @@ public final class CachedRegion implements ICachedRegion {
                     throw new IOException("Bad magic value " + magic);
                 }
                 boolean[][] present = new boolean[32][32];
-                BitSet[][] bitSets = new BitSet[32][32];
+                long[][][] data = new long[32][32][];
                 Map<String, List<BlockPos>>[][] location = new Map[32][32];
                 IBlockState[][][] overview = new IBlockState[32][32][];
                 long[][] cacheTimestamp = new long[32][32];
@@ -225,7 +222,7 @@ public final class CachedRegion implements ICachedRegion {
                             case CHUNK_PRESENT:
                                 byte[] bytes = new byte[CachedChunk.SIZE_IN_BYTES];
                                 in.readFully(bytes);
-                                bitSets[x][z] = BitSet.valueOf(bytes);
+                                data[x][z] = CachedChunk.fromByteArray(bytes);
                                 location[x][z] = new HashMap<>();
                                 overview[x][z] = new IBlockState[256];
                                 present[x][z] = true;
@@ -290,7 +287,7 @@ public final class CachedRegion implements ICachedRegion {
                             int regionZ = this.z;
                             int chunkX = x + 32 * regionX;
                             int chunkZ = z + 32 * regionZ;
-                            this.chunks[x][z] = new CachedChunk(chunkX, chunkZ, bitSets[x][z], overview[x][z], location[x][z], cacheTimestamp[x][z]);
+                            this.chunks[x][z] = new CachedChunk(chunkX, chunkZ, data[x][z], overview[x][z], location[x][z], cacheTimestamp[x][z]);
                         }
                     }
                 }
@@ -321,6 +318,23 @@ public final class CachedRegion implements ICachedRegion {
         }
     }
 
+    /**
+     * @return How many chunks are cached in this region, and how many bytes they take up in total, in that order
+     */
+    public synchronized final long[] memoryUsage() {
+        long count = 0;
+        long bytes = 0;
+        for (int x = 0; x < 32; x++) {
+            for (int z = 0; z < 32; z++) {
+                if (this.chunks[x][z] != null) {
+                    count++;
+                    bytes += this.chunks[x][z].sizeInBytes();
+                }
+            }
+        }
+        return new long[]{count, bytes};
+    }
+
     public synchronized final CachedChunk mostRecentlyModified() {
         CachedChunk recent = null;
         for (int x = 0; x < 32; x++) {
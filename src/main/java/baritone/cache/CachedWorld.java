@@ -23,6 +23,7 @@ import baritone.api.IBaritone;
 import baritone.api.cache.ICachedWorld;
 import baritone.api.cache.IWorldData;
 import baritone.api.utils.Helper;
+import baritone.utils.TaskScheduler;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.util.math.BlockPos;
@@ -35,8 +36,10 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Brady
@@ -50,9 +53,27 @@ public final class CachedWorld implements ICachedWorld, Helper {
     private static final int REGION_MAX = 30_000_000 / 512 + 1;
 
     /**
-     * A map of all of the cached regions.
+     * The number of locks that region creation is striped across
      */
-    private Long2ObjectMap<CachedRegion> cachedRegions = new Long2ObjectOpenHashMap<>();
+    private static final int REGION_LOCK_STRIPES = 64;
+
+    /**
+     * A map of all of the cached regions. This map is never modified once published, inserting or removing a region
+     * swaps in a modified copy instead (see {@link #publish}). That way looking up a region, which the pathing thread
+     * does constantly, never has to take a lock.
+     */
+    private volatile Long2ObjectMap<CachedRegion> cachedRegions = new Long2ObjectOpenHashMap<>();
+
+    /**
+     * Creating and loading a region from disk is serialized per region (well, per stripe of regions) rather than for
+     * the entire world
+     */
+    private final Object[] regionLocks = new Object[REGION_LOCK_STRIPES];
+
+    /**
+     * Regions that are queued to be loaded from disk by {@link #loadFromDiskLater}, by region ID
+     */
+    private final Set<Long> loadingRegions = ConcurrentHashMap.newKeySet();
 
     /**
      * The directory that the cached region files are saved to
@@ -82,22 +103,15 @@ public final class CachedWorld implements ICachedWorld, Helper {
         }
         this.directory = directory.toString();
         this.dimension = dimension;
+        for (int i = 0; i < regionLocks.length; i++) {
+            regionLocks[i] = new Object();
+        }
         System.out.println("Cached world directory: " + directory);
-        Baritone.getExecutor().execute(new PackerThread());
-        Baritone.getExecutor().execute(() -> {
-            try {
-                Thread.sleep(30000);
-                while (true) {
-                    // since a region only saves if it's been modified since its last save
-                    // saving every 10 minutes means that once it's time to exit
-                    // we'll only have a couple regions to save
-                    save();
-                    Thread.sleep(600000);
-                }
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-        });
+        Baritone.getScheduler().execute(TaskScheduler.Lane.PACKING, new PackerThread());
+        // since a region only saves if it's been modified since its last save
+        // saving every 10 minutes means that once it's time to exit
+        // we'll only have a couple regions to save
+        Baritone.getScheduler().scheduleAtFixedRate(TaskScheduler.Lane.CACHE_IO, this::save, 30, 600, TimeUnit.SECONDS);
     }
 
     @Override
@@ -177,12 +191,32 @@ public final class CachedWorld implements ICachedWorld, Helper {
         long now = System.nanoTime() / 1000000L;
         System.out.println("World save took " + (now - start) + "ms");
         prune();
+        System.out.println(memoryReport());
+    }
+
+    /**
+     * @return A summary of how many chunks are cached in RAM and how much memory they take up
+     */
+    public final String memoryReport() {
+        long chunks = 0;
+        long bytes = 0;
+        for (CachedRegion region : allRegions()) {
+            if (region != null) {
+                long[] usage = region.memoryUsage();
+                chunks += usage[0];
+                bytes += usage[1];
+            }
+        }
+        if (chunks == 0) {
+            return "No chunks cached in RAM";
+        }
+        return chunks + " chunks cached in RAM, taking up " + bytes / 1024 + " KiB, " + bytes / chunks + " bytes per chunk on average";
     }
 
     /**
      * Delete regions that are too far from the player
      */
-    private synchronized void prune() {
+    private void prune() {
         if (!Baritone.settings().pruneRegionsFromRAM.value) {
             return;
         }
@@ -198,7 +232,7 @@ public final class CachedWorld implements ICachedWorld, Helper {
                 if (!Baritone.settings().censorCoordinates.value) {
                     logDebug("Deleting cached region " + region.getX() + "," + region.getZ() + " from ram");
                 }
-                cachedRegions.remove(getRegionID(region.getX(), region.getZ()));
+                publish(getRegionID(region.getX(), region.getZ()), null);
             }
         }
     }
@@ -232,7 +266,7 @@ public final class CachedWorld implements ICachedWorld, Helper {
         return new BlockPos((mostRecentlyModified.x << 4) + 8, 0, (mostRecentlyModified.z << 4) + 8);
     }
 
-    private synchronized List<CachedRegion> allRegions() {
+    private List<CachedRegion> allRegions() {
         return new ArrayList<>(this.cachedRegions.values());
     }
 
@@ -249,7 +283,7 @@ public final class CachedWorld implements ICachedWorld, Helper {
     }
 
     @Override
-    public final synchronized CachedRegion getRegion(int regionX, int regionZ) {
+    public final CachedRegion getRegion(int regionX, int regionZ) {
         return cachedRegions.get(getRegionID(regionX, regionZ));
     }
 
@@ -261,18 +295,67 @@ public final class CachedWorld implements ICachedWorld, Helper {
      * @param regionZ The region Z coordinate
      * @return The region located at the specified coordinates
      */
-    private synchronized CachedRegion getOrCreateRegion(int regionX, int regionZ) {
-        return cachedRegions.computeIfAbsent(getRegionID(regionX, regionZ), id -> {
-            CachedRegion newRegion = new CachedRegion(regionX, regionZ, dimension);
-            newRegion.load(this.directory);
-            return newRegion;
-        });
+    private CachedRegion getOrCreateRegion(int regionX, int regionZ) {
+        long id = getRegionID(regionX, regionZ);
+        CachedRegion region = cachedRegions.get(id);
+        if (region != null) {
+            return region;
+        }
+        synchronized (regionLocks[(int) (id ^ (id >>> 32)) & (REGION_LOCK_STRIPES - 1)]) {
+            // someone else might have created it while we were waiting on the lock
+            region = cachedRegions.get(id);
+            if (region == null) {
+                region = new CachedRegion(regionX, regionZ, dimension);
+                region.load(this.directory);
+                publish(id, region);
+            }
+            return region;
+        }
+    }
+
+    /**
+     * Swaps in a copy of the region map with the specified region inserted or removed. Regions are only ever created
+     * or pruned a handful of times per minute, and there are only a few dozen of them in RAM at once, so this is far
+     * cheaper than making every lookup synchronize.
+     *
+     * @param id     The region ID
+     * @param region The region to insert, or {@code null} to remove it
+     */
+    private synchronized void publish(long id, CachedRegion region) {
+        Long2ObjectMap<CachedRegion> copy = new Long2ObjectOpenHashMap<>(cachedRegions);
+        if (region == null) {
+            copy.remove(id);
+        } else {
+            copy.put(id, region);
+        }
+        cachedRegions = copy;
     }
 
     public void tryLoadFromDisk(int regionX, int regionZ) {
         getOrCreateRegion(regionX, regionZ);
     }
 
+    /**
+     * Loads a region from disk in the background, unless it's already loaded or already queued to be. Asking again
+     * every tick while it loads doesn't pile up more loads.
+     *
+     * @param regionX The region X coordinate
+     * @param regionZ The region Z coordinate
+     */
+    public void loadFromDiskLater(int regionX, int regionZ) {
+        long id = getRegionID(regionX, regionZ);
+        if (cachedRegions.containsKey(id) || !loadingRegions.add(id)) {
+            return;
+        }
+        Baritone.getScheduler().execute(TaskScheduler.Lane.CACHE_IO, () -> {
+            try {
+                getOrCreateRegion(regionX, regionZ);
+            } finally {
+                loadingRegions.remove(id);
+            }
+        });
+    }
+
     /**
      * Returns the region ID based on the region coordinates. 0 will be
      * returned if the specified region coordinates are out of bounds.
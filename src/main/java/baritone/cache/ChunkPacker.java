@@ -42,7 +42,7 @@ public final class ChunkPacker {
         //long start = System.nanoTime() / 1000000L;
 
         Map<String, List<BlockPos>> specialBlocks = new HashMap<>();
-        BitSet bitSet = new BitSet(CachedChunk.SIZE);
+        long[] data = new long[CachedChunk.SIZE_IN_LONGS];
         try {
             ExtendedBlockStorage[] chunkInternalStorageArray = chunk.getBlockStorageArray();
             for (int y0 = 0; y0 < 16; y0++) {
@@ -53,9 +53,9 @@ public final class ChunkPacker {
                     // the first 4 extended blocks storages will be full
                     // and the remaining 12 will be null
 
-                    // since the index into the bitset is calculated from the x y and z
+                    // since the index into the data is calculated from the x y and z
                     // and doesn't function as an append, we can entirely skip the scanning
-                    // since a bitset is initialized to all zero, and air is saved as zeros
+                    // since a long array is initialized to all zero, and air is saved as zeros
                     continue;
                 }
                 BlockStateContainer bsc = extendedblockstorage.getData();
@@ -69,8 +69,12 @@ public final class ChunkPacker {
                             int index = CachedChunk.getPositionIndex(x, y, z);
                             IBlockState state = bsc.get(x, y1, z);
                             boolean[] bits = getPathingBlockType(state, chunk, x, y, z).getBits();
-                            bitSet.set(index, bits[0]);
-                            bitSet.set(index + 1, bits[1]);
+                            if (bits[0]) {
+                                data[index >> 6] |= 1L << (index & 63);
+                            }
+                            if (bits[1]) {
+                                data[index >> 6] |= 2L << (index & 63);
+                            }
                             Block block = state.getBlock();
                             if (CachedChunk.BLOCKS_TO_KEEP_TRACK_OF.contains(block)) {
                                 String name = BlockUtils.blockToString(block);
@@ -93,7 +97,7 @@ public final class ChunkPacker {
             for (int x = 0; x < 16; x++) {
                 for (int y = 255; y >= 0; y--) {
                     int index = CachedChunk.getPositionIndex(x, y, z);
-                    if (bitSet.get(index) || bitSet.get(index + 1)) {
+                    if ((data[index >> 6] >>> (index & 63) & 3) != 0) {
                         blocks[z << 4 | x] = chunk.getBlockState(x, y, z);
                         continue https;
                     }
@@ -102,7 +106,7 @@ public final class ChunkPacker {
             }
         }
         // @formatter:on
-        return new CachedChunk(chunk.x, chunk.z, bitSet, blocks, specialBlocks, System.currentTimeMillis());
+        return new CachedChunk(chunk.x, chunk.z, data, blocks, specialBlocks, System.currentTimeMillis());
     }
 
 
@@ -0,0 +1,161 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.cache;
+
+import baritone.utils.accessor.IBlockStateContainer;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+
+/**
+ * An immutable copy of the blocks in a loaded chunk, that can be read from any thread while the client thread carries
+ * on changing the real chunk. Sections that haven't changed are shared with the previous snapshot of the same chunk.
+ *
+ * @see ChunkSnapshots
+ */
+public final class ChunkSnapshot {
+
+    private static final IBlockState AIR = Blocks.AIR.getDefaultState();
+
+    public final int x;
+    public final int z;
+
+    /**
+     * The chunk this is a copy of, to tell whether it has since been replaced by a different one. Weak, so that a
+     * snapshot never keeps a chunk, and through it its world, alive.
+     */
+    private final WeakReference<Chunk> source;
+
+    private final Section[] sections;
+
+    private ChunkSnapshot(Chunk source, Section[] sections) {
+        this.x = source.x;
+        this.z = source.z;
+        this.source = new WeakReference<>(source);
+        this.sections = sections;
+    }
+
+    /**
+     * @return Whether this is a copy of that exact chunk object
+     */
+    boolean isCopyOf(Chunk chunk) {
+        return source.get() == chunk;
+    }
+
+    public IBlockState getBlockState(int x, int y, int z) {
+        Section section = sections[y >> 4];
+        if (section == null) {
+            return AIR;
+        }
+        return section.get((y & 15) << 8 | (z & 15) << 4 | (x & 15));
+    }
+
+    /**
+     * Must be called on the client thread.
+     *
+     * @param chunk    The chunk to copy
+     * @param previous The previous snapshot of this same chunk object, or null
+     * @param changed  Bitmask of the sections that have changed since the previous snapshot
+     * @param scratch  Scratch space that is reused between calls, see {@link Section#capture}
+     */
+    static ChunkSnapshot capture(Chunk chunk, ChunkSnapshot previous, int changed, int[][] scratch) {
+        ExtendedBlockStorage[] storage = chunk.getBlockStorageArray();
+        Section[] sections = new Section[16];
+        for (int i = 0; i < 16; i++) {
+            if (previous != null && (changed & 1 << i) == 0) {
+                sections[i] = previous.sections[i];
+            } else {
+                sections[i] = Section.capture(storage[i], scratch);
+            }
+        }
+        return new ChunkSnapshot(chunk, sections);
+    }
+
+    private static final class Section {
+
+        private final IBlockState[] palette;
+
+        /**
+         * Indices into the palette, in the same order as {@link net.minecraft.world.chunk.BlockStateContainer}. Only
+         * one of these is set, bytes being enough for almost every section.
+         */
+        private final byte[] small;
+        private final char[] large;
+
+        private Section(IBlockState[] palette, byte[] small, char[] large) {
+            this.palette = palette;
+            this.small = small;
+            this.large = large;
+        }
+
+        IBlockState get(int index) {
+            return palette[small != null ? small[index] & 0xFF : large[index]];
+        }
+
+        /**
+         * @param scratch Holds a single array that maps the indices of the container's palette to ours. It's grown as
+         *                needed and is always left filled with -1.
+         */
+        static Section capture(ExtendedBlockStorage storage, int[][] scratch) {
+            if (storage == null || storage.isEmpty()) {
+                return null;
+            }
+            IBlockStateContainer container = (IBlockStateContainer) storage.getData();
+            int[] ids = container.storageArray();
+            int[] remap = scratch[0];
+            IBlockState[] palette = new IBlockState[16];
+            int size = 0;
+            for (int id : ids) {
+                if (id >= remap.length) {
+                    int oldLength = remap.length;
+                    remap = Arrays.copyOf(remap, Math.max(id + 1, oldLength * 2));
+                    Arrays.fill(remap, oldLength, remap.length, -1);
+                    scratch[0] = remap;
+                }
+                if (remap[id] == -1) {
+                    if (size == palette.length) {
+                        palette = Arrays.copyOf(palette, size * 2);
+                    }
+                    remap[id] = size;
+                    palette[size++] = container.getAtPalette(id);
+                }
+            }
+            byte[] small = null;
+            char[] large = null;
+            if (size <= 256) {
+                small = new byte[ids.length];
+                for (int i = 0; i < ids.length; i++) {
+                    small[i] = (byte) remap[ids[i]];
+                }
+            } else {
+                large = new char[ids.length];
+                for (int i = 0; i < ids.length; i++) {
+                    large[i] = (char) remap[ids[i]];
+                }
+            }
+            for (int id : ids) {
+                remap[id] = -1;
+            }
+            return new Section(Arrays.copyOf(palette, size), small, large);
+        }
+    }
+}
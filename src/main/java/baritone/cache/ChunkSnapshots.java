@@ -0,0 +1,135 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.cache;
+
+import baritone.api.event.events.BlockChangeEvent;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.Tuple;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Hands out consistent, immutable views of the loaded chunks for use off the client thread.
+ * <p>
+ * Each snapshot shares every chunk, and every section within a chunk, that hasn't changed since the previous one, so
+ * taking a snapshot only copies the sections that block changes and chunk loads have touched since then. If nothing
+ * has changed at all, the previous snapshot is handed out again as is.
+ * <p>
+ * Every bot in the same {@link WorldData} shares this, but bots can be in different client worlds of it, so everything
+ * is kept per client world. Client worlds are only weakly referenced, and snapshots don't hold on to the chunks they
+ * were copied from, so nothing here keeps a world alive after it's been left.
+ */
+public final class ChunkSnapshots {
+
+    private final Map<World, State> states = new WeakHashMap<>();
+
+    private final int[][] scratch = {new int[0]};
+
+    private static final class State {
+
+        private Long2ObjectMap<ChunkSnapshot> latest = Long2ObjectMaps.emptyMap();
+
+        /**
+         * Chunk to bitmask of the sections that have changed since the latest snapshot
+         */
+        private final Long2IntOpenHashMap changed = new Long2IntOpenHashMap();
+
+        /**
+         * Whether any chunk has been loaded or unloaded since the latest snapshot
+         */
+        private boolean loadedChanged = true;
+    }
+
+    private State state(World world) {
+        return states.computeIfAbsent(world, w -> new State());
+    }
+
+    public synchronized void onBlockChange(World world, BlockChangeEvent event) {
+        long chunk = ChunkPos.asLong(event.getChunkPos().x, event.getChunkPos().z);
+        int sections = 0;
+        for (Tuple<BlockPos, IBlockState> block : event.getBlocks()) {
+            int y = block.getFirst().getY();
+            if (y >= 0 && y < 256) {
+                sections |= 1 << (y >> 4);
+            }
+        }
+        State state = state(world);
+        state.changed.put(chunk, state.changed.get(chunk) | sections);
+    }
+
+    /**
+     * Called when a chunk has been loaded, unloaded or replaced with one sent by the server
+     */
+    public synchronized void onChunkChange(World world, int chunkX, int chunkZ) {
+        State state = state(world);
+        state.changed.put(ChunkPos.asLong(chunkX, chunkZ), 0xFFFF);
+        state.loadedChanged = true;
+    }
+
+    /**
+     * Forgets everything, for when the last bot has left this world
+     */
+    public synchronized void clear() {
+        states.clear();
+    }
+
+    /**
+     * Must be called on the client thread.
+     *
+     * @param world  The client world the chunks are loaded in
+     * @param loaded The chunks currently loaded in that world
+     * @return A read only map from {@link ChunkPos#asLong} to a snapshot of every loaded chunk
+     */
+    public synchronized Long2ObjectMap<ChunkSnapshot> snapshot(World world, Long2ObjectMap<Chunk> loaded) {
+        State state = state(world);
+        if (!state.loadedChanged && state.changed.isEmpty() && loaded.size() == state.latest.size()) {
+            return state.latest;
+        }
+        Long2ObjectOpenHashMap<ChunkSnapshot> snapshot = new Long2ObjectOpenHashMap<>(loaded.size());
+        for (Long2ObjectMap.Entry<Chunk> entry : loaded.long2ObjectEntrySet()) {
+            Chunk chunk = entry.getValue();
+            if (!chunk.isLoaded()) {
+                continue;
+            }
+            long key = entry.getLongKey();
+            ChunkSnapshot previous = state.latest.get(key);
+            if (previous != null && !previous.isCopyOf(chunk)) {
+                previous = null; // a different chunk object entirely, nothing can be shared
+            }
+            int sections = state.changed.get(key);
+            if (previous != null && sections == 0) {
+                snapshot.put(key, previous);
+            } else {
+                snapshot.put(key, ChunkSnapshot.capture(chunk, previous, sections, scratch));
+            }
+        }
+        state.changed.clear();
+        state.loadedChanged = false;
+        state.latest = Long2ObjectMaps.unmodifiable(snapshot);
+        return state.latest;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.cache;
+
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import net.minecraft.util.math.ChunkPos;
+
+/**
+ * Keeps track of when each chunk last changed, so that anything calculated from the world can cheaply tell whether
+ * it's still up to date.
+ * <p>
+ * Rather than a counter per chunk, there's one counter for the whole world that's incremented on every change, and
+ * each chunk remembers the value of that counter when it last changed. Something calculated at {@link #current()}
+ * is then still valid as long as none of the chunks it depends on have a version newer than that.
+ */
+public final class ChunkVersions {
+
+    private final Long2LongOpenHashMap versions = new Long2LongOpenHashMap();
+
+    private long counter;
+
+    /**
+     * @return The latest version of any chunk in this world
+     */
+    public synchronized long current() {
+        return counter;
+    }
+
+    /**
+     * Marks a chunk as changed
+     *
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     */
+    public synchronized void bump(int chunkX, int chunkZ) {
+        versions.put(ChunkPos.asLong(chunkX, chunkZ), ++counter);
+    }
+
+    /**
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     * @return The version of the chunk at the time of its last change, or 0 if it hasn't changed since we got here
+     */
+    public synchronized long get(int chunkX, int chunkZ) {
+        return versions.get(ChunkPos.asLong(chunkX, chunkZ));
+    }
+}
@@ -21,6 +21,8 @@ import baritone.Baritone;
 import baritone.api.cache.ICachedWorld;
 import baritone.api.cache.IWaypointCollection;
 import baritone.api.cache.IWorldData;
+import baritone.pathing.calc.PathCache;
+import baritone.utils.TaskScheduler;
 
 import java.io.IOException;
 import java.nio.file.Path;
@@ -33,6 +35,9 @@ import java.nio.file.Path;
 public class WorldData implements IWorldData {
 
     public final CachedWorld cache;
+    public final ChunkVersions chunkVersions;
+    public final ChunkSnapshots chunkSnapshots;
+    public final PathCache pathCache;
     private final WaypointCollection waypoints;
     //public final MapData map;
     public final Path directory;
@@ -41,12 +46,32 @@ public class WorldData implements IWorldData {
     WorldData(Path directory, int dimension) {
         this.directory = directory;
         this.cache = new CachedWorld(directory.resolve("cache"), dimension);
+        this.chunkVersions = new ChunkVersions();
+        this.chunkSnapshots = new ChunkSnapshots();
+        this.pathCache = new PathCache();
         this.waypoints = new WaypointCollection(directory.resolve("waypoints"));
         this.dimension = dimension;
     }
 
+    /**
+     * How many bots are currently in this world
+     */
+    private int users;
+
+    synchronized void acquire() {
+        users++;
+    }
+
+    /**
+     * @return Whether that was the last bot in this world
+     */
+    synchronized boolean release() {
+        return --users <= 0;
+    }
+
     public void onClose() {
-        Baritone.getExecutor().execute(() -> {
+        chunkSnapshots.clear(); // don't hold on to anything from the client world we just left
+        Baritone.getScheduler().execute(TaskScheduler.Lane.CACHE_IO, TaskScheduler.PRIORITY_HIGH, () -> {
             System.out.println("Started saving the world in a new thread");
             cache.save();
         });
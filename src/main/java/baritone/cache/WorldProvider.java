@@ -109,6 +109,7 @@ public class WorldProvider implements IWorldProvider, Helper {
         System.out.println("Baritone world data dir: " + dir);
         synchronized (worldCache) {
             this.currentWorld = worldCache.computeIfAbsent(dir, d -> new WorldData(d, dimension));
+            this.currentWorld.acquire();
         }
     }
 
@@ -118,7 +119,14 @@ public class WorldProvider implements IWorldProvider, Helper {
         if (world == null) {
             return;
         }
-        world.onClose();
+        boolean last;
+        synchronized (worldCache) {
+            last = world.release();
+        }
+        if (last) {
+            // only save once every bot sharing this world has left it
+            world.onClose();
+        }
     }
 
     public final void ifWorldLoaded(Consumer<WorldData> currentWorldConsumer) {
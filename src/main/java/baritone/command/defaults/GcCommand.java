@@ -21,6 +21,7 @@ import baritone.api.IBaritone;
 import baritone.api.command.Command;
 import baritone.api.command.argument.IArgConsumer;
 import baritone.api.command.exception.CommandException;
+import baritone.cache.CachedWorld;
 
 import java.util.Arrays;
 import java.util.List;
@@ -37,6 +38,9 @@ public class GcCommand extends Command {
         args.requireMax(0);
         System.gc();
         logDirect("ok called System.gc()");
+        if (ctx.worldData() != null) {
+            logDirect(((CachedWorld) ctx.worldData().getCachedWorld()).memoryReport());
+        }
     }
 
     @Override
@@ -52,7 +56,7 @@ public class GcCommand extends Command {
     @Override
     public List<String> getLongDesc() {
         return Arrays.asList(
-                "Calls System.gc().",
+                "Calls System.gc(), and reports how much memory the chunk cache takes up.",
                 "",
                 "Usage:",
                 "> gc"
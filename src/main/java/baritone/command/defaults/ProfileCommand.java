@@ -0,0 +1,97 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.command.defaults;
+
+import baritone.Baritone;
+import baritone.api.IBaritone;
+import baritone.api.command.Command;
+import baritone.api.command.argument.IArgConsumer;
+import baritone.api.command.exception.CommandException;
+import baritone.api.command.helpers.TabCompleteHelper;
+import baritone.event.EventProfiler;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class ProfileCommand extends Command {
+
+    public ProfileCommand(IBaritone baritone) {
+        super(baritone, "profile");
+    }
+
+    @Override
+    public void execute(String label, IArgConsumer args) throws CommandException {
+        args.requireMax(1);
+        EventProfiler profiler = ((Baritone) baritone).getEventProfiler();
+        if (args.hasAny() && args.peekString().equalsIgnoreCase("reset")) {
+            profiler.reset();
+            logDirect("Profiler reset");
+            return;
+        }
+        int count = args.hasAny() ? args.getAs(Integer.class) : 10;
+        if (!Baritone.settings().eventProfiler.value) {
+            logDirect("The profiler is off, turn it on with the eventProfiler setting");
+        }
+        List<EventProfiler.Histogram> worst = profiler.worst(count);
+        if (worst.isEmpty()) {
+            logDirect("Nothing recorded yet");
+            return;
+        }
+        for (EventProfiler.Histogram histogram : worst) {
+            logDirect(String.format(
+                    "%s %s: p50 %.2fms, p99 %.2fms, max %.2fms",
+                    histogram.event,
+                    histogram.name,
+                    histogram.percentile(0.5) / 1e6,
+                    histogram.percentile(0.99) / 1e6,
+                    histogram.max() / 1e6
+            ));
+        }
+    }
+
+    @Override
+    public Stream<String> tabComplete(String label, IArgConsumer args) throws CommandException {
+        if (args.hasExactlyOne()) {
+            return new TabCompleteHelper()
+                    .append("reset")
+                    .filterPrefix(args.getString())
+                    .stream();
+        }
+        return Stream.empty();
+    }
+
+    @Override
+    public String getShortDesc() {
+        return "Show what's taking the longest every tick and frame";
+    }
+
+    @Override
+    public List<String> getLongDesc() {
+        return Arrays.asList(
+                "With the eventProfiler setting on, the time every listener takes to handle each tick, player update and render pass is recorded, as is the time every process takes to tick.",
+                "",
+                "This shows the ones with the worst 99th percentile times over their recent samples.",
+                "",
+                "Usage:",
+                "> profile - Show the 10 worst",
+                "> profile <count> - Show the given number of worst",
+                "> profile reset - Forget everything recorded so far"
+        );
+    }
+}
@@ -39,7 +39,6 @@ import baritone.api.utils.BlockOptionalMetaLookup;
 import baritone.utils.IRenderer;
 import baritone.utils.BlockStateInterface;
 import baritone.utils.schematic.StaticSchematic;
-import net.minecraft.block.state.IBlockState;
 import net.minecraft.init.Blocks;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.math.AxisAlignedBB;
@@ -185,20 +184,14 @@ public class SelCommand extends Command {
             for (ISelection selection : selections) {
                 Vec3i size = selection.size();
                 BetterBlockPos min = selection.min();
-                IBlockState[][][] blockstates = new IBlockState[size.getX()][size.getZ()][size.getY()];
+                StaticSchematic schematic = new StaticSchematic(size.getX(), size.getY(), size.getZ());
                 for (int x = 0; x < size.getX(); x++) {
                     for (int y = 0; y < size.getY(); y++) {
                         for (int z = 0; z < size.getZ(); z++) {
-                            blockstates[x][z][y] = bsi.get0(min.x + x, min.y + y, min.z + z);
+                            schematic.setDirect(x, y, z, bsi.get0(min.x + x, min.y + y, min.z + z));
                         }
                     }
                 }
-                ISchematic schematic = new StaticSchematic(){{
-                    states = blockstates;
-                    x = size.getX();
-                    y = size.getY();
-                    z = size.getZ();
-                }};
                 composite.put(schematic, min.x - origin.x, min.y - origin.y, min.z - origin.z);
             }
             clipboard = composite;
@@ -0,0 +1,130 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.event;
+
+import java.util.*;
+
+/**
+ * Records how long each listener takes to handle the events that happen every tick or every frame, and how long each
+ * process takes to tick, so that the cause of a frame hitch can be tracked down. Only recorded while
+ * {@link baritone.api.Settings#eventProfiler} is on, and only used from the main thread.
+ */
+public final class EventProfiler {
+
+    public enum Event {
+        TICK,
+        PLAYER_UPDATE,
+        RENDER_PASS,
+        PROCESS_TICK
+    }
+
+    private final EnumMap<Event, IdentityHashMap<Object, Histogram>> histograms = new EnumMap<>(Event.class);
+
+    public EventProfiler() {
+        for (Event event : Event.values()) {
+            histograms.put(event, new IdentityHashMap<>());
+        }
+    }
+
+    /**
+     * @param event  The event that was handled
+     * @param source The listener or process that handled it
+     * @param nanos  How long it took
+     */
+    public void record(Event event, Object source, long nanos) {
+        histograms.get(event).computeIfAbsent(source, s -> new Histogram(event, nameOf(s))).add(nanos);
+    }
+
+    public void reset() {
+        histograms.values().forEach(Map::clear);
+    }
+
+    /**
+     * @param count How many to return at most
+     * @return The listeners and processes with the worst 99th percentile times, worst first
+     */
+    public List<Histogram> worst(int count) {
+        List<Histogram> all = new ArrayList<>();
+        histograms.values().forEach(map -> all.addAll(map.values()));
+        all.sort(Comparator.comparingLong((Histogram h) -> h.percentile(0.99)).reversed());
+        return all.subList(0, Math.min(count, all.size()));
+    }
+
+    private static String nameOf(Object source) {
+        Class<?> clazz = source.getClass();
+        String name = clazz.getSimpleName();
+        if (name.isEmpty()) { // anonymous class, e.g. PathingControlManager$1
+            name = clazz.getName().substring(clazz.getName().lastIndexOf('.') + 1);
+        }
+        return name;
+    }
+
+    /**
+     * The most recent times one listener or process took to handle one event
+     */
+    public static final class Histogram {
+
+        /**
+         * How many of the most recent samples are kept
+         */
+        static final int SIZE = 1024;
+
+        public final Event event;
+        public final String name;
+        private final long[] samples = new long[SIZE];
+        private long count;
+
+        Histogram(Event event, String name) {
+            this.event = event;
+            this.name = name;
+        }
+
+        void add(long nanos) {
+            samples[(int) (count++ % SIZE)] = nanos;
+        }
+
+        /**
+         * @return How many samples have ever been recorded
+         */
+        public long count() {
+            return count;
+        }
+
+        /**
+         * @param fraction Between 0 and 1, so 0.5 is the median
+         * @return The given percentile of the recent samples in nanoseconds, or 0 if there are none
+         */
+        public long percentile(double fraction) {
+            int size = (int) Math.min(count, SIZE);
+            if (size == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(fraction * size) - 1; // nearest rank
+            return sorted[Math.max(0, Math.min(size - 1, index))];
+        }
+
+        /**
+         * @return The longest of the recent samples in nanoseconds
+         */
+        public long max() {
+            return percentile(1);
+        }
+    }
+}
@@ -28,8 +28,7 @@ import baritone.utils.BlockStateInterface;
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.Chunk;
 
-import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 /**
  * @author Brady
@@ -39,7 +38,7 @@ public final class GameEventHandler implements IEventBus, Helper {
 
     private final Baritone baritone;
 
-    private final List<IGameEventListener> listeners = new CopyOnWriteArrayList<>();
+    private final ListenerTable listeners = new ListenerTable();
 
     public GameEventHandler(Baritone baritone) {
         this.baritone = baritone;
@@ -56,22 +55,38 @@ public final class GameEventHandler implements IEventBus, Helper {
         } else {
             baritone.bsi = null;
         }
-        listeners.forEach(l -> l.onTick(event));
+        if (Baritone.settings().eventProfiler.value) {
+            profile(ListenerTable.Type.TICK, EventProfiler.Event.TICK, l -> l.onTick(event));
+            return;
+        }
+        for (IGameEventListener l : listeners.get(ListenerTable.Type.TICK)) {
+            l.onTick(event);
+        }
     }
 
     @Override
     public final void onPlayerUpdate(PlayerUpdateEvent event) {
-        listeners.forEach(l -> l.onPlayerUpdate(event));
+        if (Baritone.settings().eventProfiler.value) {
+            profile(ListenerTable.Type.PLAYER_UPDATE, EventProfiler.Event.PLAYER_UPDATE, l -> l.onPlayerUpdate(event));
+            return;
+        }
+        for (IGameEventListener l : listeners.get(ListenerTable.Type.PLAYER_UPDATE)) {
+            l.onPlayerUpdate(event);
+        }
     }
 
     @Override
     public final void onSendChatMessage(ChatEvent event) {
-        listeners.forEach(l -> l.onSendChatMessage(event));
+        for (IGameEventListener l : listeners.get(ListenerTable.Type.SEND_CHAT_MESSAGE)) {
+            l.onSendChatMessage(event);
+        }
     }
 
     @Override
     public void onPreTabComplete(TabCompleteEvent event) {
-        listeners.forEach(l -> l.onPreTabComplete(event));
+        for (IGameEventListener l : listeners.get(ListenerTable.Type.PRE_TAB_COMPLETE)) {
+            l.onPreTabComplete(event);
+        }
     }
 
     @Override
@@ -98,13 +113,29 @@ public final class GameEventHandler implements IEventBus, Helper {
             });
         }
 
+        if (isPostPopulate) {
+            baritone.getWorldProvider().ifWorldLoaded(worldData -> worldData.chunkVersions.bump(event.getX(), event.getZ()));
+        }
+
+        if (state == EventState.POST) {
+            baritone.getWorldProvider().ifWorldLoaded(worldData -> worldData.chunkSnapshots.onChunkChange(world, event.getX(), event.getZ()));
+        }
+
 
-        listeners.forEach(l -> l.onChunkEvent(event));
+        for (IGameEventListener l : listeners.get(ListenerTable.Type.CHUNK_EVENT)) {
+            l.onChunkEvent(event);
+        }
     }
 
     @Override
     public final void onRenderPass(RenderEvent event) {
-        listeners.forEach(l -> l.onRenderPass(event));
+        if (Baritone.settings().eventProfiler.value) {
+            profile(ListenerTable.Type.RENDER_PASS, EventProfiler.Event.RENDER_PASS, l -> l.onRenderPass(event));
+            return;
+        }
+        for (IGameEventListener l : listeners.get(ListenerTable.Type.RENDER_PASS)) {
+            l.onRenderPass(event);
+        }
     }
 
     @Override
@@ -118,46 +149,85 @@ public final class GameEventHandler implements IEventBus, Helper {
             }
         }
 
-        listeners.forEach(l -> l.onWorldEvent(event));
+        for (IGameEventListener l : listeners.get(ListenerTable.Type.WORLD_EVENT)) {
+            l.onWorldEvent(event);
+        }
     }
 
     @Override
     public final void onSendPacket(PacketEvent event) {
-        listeners.forEach(l -> l.onSendPacket(event));
+        for (IGameEventListener l : listeners.get(ListenerTable.Type.SEND_PACKET)) {
+            l.onSendPacket(event);
+        }
     }
 
     @Override
     public final void onReceivePacket(PacketEvent event) {
-        listeners.forEach(l -> l.onReceivePacket(event));
+        for (IGameEventListener l : listeners.get(ListenerTable.Type.RECEIVE_PACKET)) {
+            l.onReceivePacket(event);
+        }
     }
 
     @Override
     public void onPlayerRotationMove(RotationMoveEvent event) {
-        listeners.forEach(l -> l.onPlayerRotationMove(event));
+        for (IGameEventListener l : listeners.get(ListenerTable.Type.PLAYER_ROTATION_MOVE)) {
+            l.onPlayerRotationMove(event);
+        }
     }
 
     @Override
     public void onPlayerSprintState(SprintStateEvent event) {
-        listeners.forEach(l -> l.onPlayerSprintState(event));
+        for (IGameEventListener l : listeners.get(ListenerTable.Type.PLAYER_SPRINT_STATE)) {
+            l.onPlayerSprintState(event);
+        }
+    }
+
+    @Override
+    public void onBlockChange(BlockChangeEvent event) {
+        baritone.getWorldProvider().ifWorldLoaded(worldData -> {
+            worldData.chunkVersions.bump(event.getChunkPos().x, event.getChunkPos().z);
+            worldData.chunkSnapshots.onBlockChange(baritone.getPlayerContext().world(), event);
+        });
+        for (IGameEventListener l : listeners.get(ListenerTable.Type.BLOCK_CHANGE)) {
+            l.onBlockChange(event);
+        }
     }
 
     @Override
     public void onBlockInteract(BlockInteractEvent event) {
-        listeners.forEach(l -> l.onBlockInteract(event));
+        for (IGameEventListener l : listeners.get(ListenerTable.Type.BLOCK_INTERACT)) {
+            l.onBlockInteract(event);
+        }
     }
 
     @Override
     public void onPlayerDeath() {
-        listeners.forEach(IGameEventListener::onPlayerDeath);
+        for (IGameEventListener l : listeners.get(ListenerTable.Type.PLAYER_DEATH)) {
+            l.onPlayerDeath();
+        }
     }
 
     @Override
     public void onPathEvent(PathEvent event) {
-        listeners.forEach(l -> l.onPathEvent(event));
+        for (IGameEventListener l : listeners.get(ListenerTable.Type.PATH_EVENT)) {
+            l.onPathEvent(event);
+        }
+    }
+
+    /**
+     * Passes an event that happens every tick or every frame to every listener that handles it, timing each one
+     */
+    private void profile(ListenerTable.Type type, EventProfiler.Event event, Consumer<IGameEventListener> handler) {
+        EventProfiler profiler = baritone.getEventProfiler();
+        for (IGameEventListener listener : listeners.get(type)) {
+            long start = System.nanoTime();
+            handler.accept(listener);
+            profiler.record(event, listener, System.nanoTime() - start);
+        }
     }
 
     @Override
     public final void registerEventListener(IGameEventListener listener) {
-        this.listeners.add(listener);
+        this.listeners.register(listener);
     }
 }
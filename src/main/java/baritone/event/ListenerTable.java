@@ -0,0 +1,106 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.event;
+
+import baritone.api.event.events.*;
+import baritone.api.event.listener.AbstractGameEventListener;
+import baritone.api.event.listener.IGameEventListener;
+
+import java.util.Arrays;
+
+/**
+ * The registered listeners, split up by which events they actually handle. Most listeners only override a few of the
+ * {@link AbstractGameEventListener} methods, so the events that fire every frame or every packet only go to the
+ * listeners that care about them instead of running through every empty default method.
+ */
+final class ListenerTable {
+
+    enum Type {
+        TICK("onTick", TickEvent.class),
+        PLAYER_UPDATE("onPlayerUpdate", PlayerUpdateEvent.class),
+        SEND_CHAT_MESSAGE("onSendChatMessage", ChatEvent.class),
+        PRE_TAB_COMPLETE("onPreTabComplete", TabCompleteEvent.class),
+        CHUNK_EVENT("onChunkEvent", ChunkEvent.class),
+        RENDER_PASS("onRenderPass", RenderEvent.class),
+        WORLD_EVENT("onWorldEvent", WorldEvent.class),
+        SEND_PACKET("onSendPacket", PacketEvent.class),
+        RECEIVE_PACKET("onReceivePacket", PacketEvent.class),
+        PLAYER_ROTATION_MOVE("onPlayerRotationMove", RotationMoveEvent.class),
+        PLAYER_SPRINT_STATE("onPlayerSprintState", SprintStateEvent.class),
+        BLOCK_CHANGE("onBlockChange", BlockChangeEvent.class),
+        BLOCK_INTERACT("onBlockInteract", BlockInteractEvent.class),
+        PLAYER_DEATH("onPlayerDeath"),
+        PATH_EVENT("onPathEvent", PathEvent.class);
+
+        private final String method;
+        private final Class<?>[] parameters;
+
+        Type(String method, Class<?>... parameters) {
+            this.method = method;
+            this.parameters = parameters;
+        }
+    }
+
+    private static final Type[] TYPES = Type.values();
+
+    private static final IGameEventListener[] NONE = new IGameEventListener[0];
+
+    /**
+     * Indexed by {@link Type} ordinal. Never modified, only replaced, so dispatch can iterate without any locking.
+     */
+    private volatile IGameEventListener[][] table;
+
+    ListenerTable() {
+        IGameEventListener[][] table = new IGameEventListener[TYPES.length][];
+        Arrays.fill(table, NONE);
+        this.table = table;
+    }
+
+    synchronized void register(IGameEventListener listener) {
+        IGameEventListener[][] table = this.table.clone();
+        for (Type type : TYPES) {
+            if (handles(listener.getClass(), type)) {
+                IGameEventListener[] listeners = Arrays.copyOf(table[type.ordinal()], table[type.ordinal()].length + 1);
+                listeners[listeners.length - 1] = listener;
+                table[type.ordinal()] = listeners;
+            }
+        }
+        this.table = table;
+    }
+
+    /**
+     * @return The listeners that handle the given type of event, in the order they were registered. Must not be
+     * modified.
+     */
+    IGameEventListener[] get(Type type) {
+        return table[type.ordinal()];
+    }
+
+    /**
+     * @return Whether the given listener class has its own implementation of the method for the given type of event,
+     * rather than the empty default one
+     */
+    static boolean handles(Class<?> listener, Type type) {
+        try {
+            Class<?> declaring = listener.getMethod(type.method, type.parameters).getDeclaringClass();
+            return declaring != AbstractGameEventListener.class && declaring != IGameEventListener.class;
+        } catch (NoSuchMethodException | SecurityException e) {
+            return true; // can't tell, so don't risk missing any events
+        }
+    }
+}
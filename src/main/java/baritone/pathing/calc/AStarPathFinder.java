@@ -24,6 +24,7 @@ import baritone.api.pathing.movement.ActionCosts;
 import baritone.api.utils.BetterBlockPos;
 import baritone.pathing.calc.openset.BinaryHeapOpenSet;
 import baritone.pathing.movement.CalculationContext;
+import baritone.pathing.movement.CostCalibration;
 import baritone.pathing.movement.Moves;
 import baritone.utils.pathing.BetterWorldBorder;
 import baritone.utils.pathing.Favoring;
@@ -66,24 +67,37 @@ public final class AStarPathFinder extends AbstractNodeCostSearch {
         if (slowPath) {
             logDebug("slowPath is on, path timeout will be " + Baritone.settings().slowPathTimeoutMS.value + "ms instead of " + primaryTimeout + "ms");
         }
-        long primaryTimeoutTime = startTime + (slowPath ? Baritone.settings().slowPathTimeoutMS.value : primaryTimeout);
-        long failureTimeoutTime = startTime + (slowPath ? Baritone.settings().slowPathTimeoutMS.value : failureTimeout);
+        TimeoutGovernor governor = new TimeoutGovernor(startTime, slowPath ? Baritone.settings().slowPathTimeoutMS.value : primaryTimeout, slowPath ? Baritone.settings().slowPathTimeoutMS.value : failureTimeout);
         boolean failing = true;
         int numNodes = 0;
         int numMovementsConsidered = 0;
         int numEmptyChunk = 0;
+        int numChunkBoundaryRejections = 0;
         boolean isFavoring = !favoring.isEmpty();
-        int timeCheckInterval = 1 << 6;
+        int timeCheckInterval = governor.checkInterval();
         int pathingMaxChunkBorderFetch = Baritone.settings().pathingMaxChunkBorderFetch.value; // grab all settings beforehand so that changing settings during pathing doesn't cause a crash or unpredictable behavior
         double minimumImprovement = Baritone.settings().minimumImprovementRepropagation.value ? MIN_IMPROVEMENT : 0;
+        int maxNodes = Baritone.settings().pathingMaxNodes.value;
         Moves[] allMoves = Moves.values();
+        int[] movementsByType = new int[allMoves.length];
         while (!openSet.isEmpty() && numEmptyChunk < pathingMaxChunkBorderFetch && !cancelRequested) {
-            if ((numNodes & (timeCheckInterval - 1)) == 0) { // only call this once every 64 nodes (about half a millisecond)
+            if ((numNodes & (timeCheckInterval - 1)) == 0) { // only call this about every half a millisecond
                 long now = System.currentTimeMillis(); // since nanoTime is slow on windows (takes many microseconds)
-                if (now - failureTimeoutTime >= 0 || (!failing && now - primaryTimeoutTime >= 0)) {
+                double bestHeuristic = Double.MAX_VALUE;
+                for (PathNode node : bestSoFar) {
+                    bestHeuristic = Math.min(bestHeuristic, node.estimatedCostToGoal);
+                }
+                if (governor.shouldStop(now, failing, bestHeuristic)) {
                     break;
                 }
             }
+            if (maxNodes > 0 && mapSize() >= maxNodes && !shedNodes(openSet, maxNodes)) {
+                logDebug("Node budget of " + maxNodes + " exhausted, settling for the best path so far");
+                break;
+            }
+            if (openSet.isEmpty()) {
+                break;
+            }
             if (slowPath) {
                 try {
                     Thread.sleep(Baritone.settings().slowPathTimeDelayMS.value);
@@ -93,7 +107,11 @@ public final class AStarPathFinder extends AbstractNodeCostSearch {
             mostRecentConsidered = currentNode;
             numNodes++;
             if (goal.isInGoal(currentNode.x, currentNode.y, currentNode.z)) {
+                if (!slowPath) {
+                    governor.finish(System.currentTimeMillis(), numNodes);
+                }
                 logDebug("Took " + (System.currentTimeMillis() - startTime) + "ms, " + numMovementsConsidered + " movements considered");
+                recordStats(numNodes, numMovementsConsidered, movementsByType, numChunkBoundaryRejections, openSet.size());
                 return Optional.of(new Path(startNode, currentNode, numNodes, goal, calcContext));
             }
             for (Moves moves : allMoves) {
@@ -101,6 +119,7 @@ public final class AStarPathFinder extends AbstractNodeCostSearch {
                 int newZ = currentNode.z + moves.zOffset;
                 if ((newX >> 4 != currentNode.x >> 4 || newZ >> 4 != currentNode.z >> 4) && !calcContext.isLoaded(newX, newZ)) {
                     // only need to check if the destination is a loaded chunk if it's in a different chunk than the start of the movement
+                    numChunkBoundaryRejections++;
                     if (!moves.dynamicXZ) { // only increment the counter if the movement would have gone out of bounds guaranteed
                         numEmptyChunk++;
                     }
@@ -115,6 +134,7 @@ public final class AStarPathFinder extends AbstractNodeCostSearch {
                 res.reset();
                 moves.apply(calcContext, currentNode.x, currentNode.y, currentNode.z, res);
                 numMovementsConsidered++;
+                movementsByType[moves.ordinal()]++;
                 double actionCost = res.cost;
                 if (actionCost >= ActionCosts.COST_INF) {
                     continue;
@@ -133,9 +153,12 @@ public final class AStarPathFinder extends AbstractNodeCostSearch {
                     throw new IllegalStateException(moves + " " + res.y + " " + (currentNode.y + moves.yOffset));
                 }
                 long hashCode = BetterBlockPos.longHash(res.x, res.y, res.z);
+                if (calcContext.costMultipliers != null) {
+                    actionCost *= calcContext.costMultipliers[CostCalibration.Kind.of(moves, currentNode.y, res.y).ordinal()];
+                }
                 if (isFavoring) {
                     // see issue #18
-                    actionCost *= favoring.calculate(hashCode);
+                    actionCost *= favoring.calculate(res.x, res.y, res.z, hashCode);
                 }
                 PathNode neighbor = getNodeAtPosition(res.x, res.y, res.z, hashCode);
                 double tentativeCost = currentNode.cost + actionCost;
@@ -161,13 +184,13 @@ public final class AStarPathFinder extends AbstractNodeCostSearch {
                 }
             }
         }
+        if (!slowPath) {
+            governor.finish(System.currentTimeMillis(), numNodes);
+        }
+        recordStats(numNodes, numMovementsConsidered, movementsByType, numChunkBoundaryRejections, openSet.size());
         if (cancelRequested) {
             return Optional.empty();
         }
-        System.out.println(numMovementsConsidered + " movements considered");
-        System.out.println("Open set size: " + openSet.size());
-        System.out.println("PathNode map size: " + mapSize());
-        System.out.println((int) (numNodes * 1.0 / ((System.currentTimeMillis() - startTime) / 1000F)) + " nodes per second");
         Optional<IPath> result = bestSoFar(true, numNodes);
         if (result.isPresent()) {
             logDebug("Took " + (System.currentTimeMillis() - startTime) + "ms, " + numMovementsConsidered + " movements considered");
@@ -24,9 +24,15 @@ import baritone.api.pathing.goals.Goal;
 import baritone.api.utils.BetterBlockPos;
 import baritone.api.utils.Helper;
 import baritone.api.utils.PathCalculationResult;
+import baritone.api.utils.PathCalculationStats;
+import baritone.pathing.calc.openset.BinaryHeapOpenSet;
 import baritone.pathing.movement.CalculationContext;
+import baritone.pathing.movement.Moves;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -49,6 +55,11 @@ public abstract class AbstractNodeCostSearch implements IPathFinder, Helper {
      */
     private final Long2ObjectOpenHashMap<PathNode> map;
 
+    /**
+     * The largest size {@link #map} has reached during this calculation
+     */
+    private int peakMapSize;
+
     protected PathNode startNode;
 
     protected PathNode mostRecentConsidered;
@@ -59,6 +70,23 @@ public abstract class AbstractNodeCostSearch implements IPathFinder, Helper {
 
     protected boolean cancelRequested;
 
+    /**
+     * Counters reported by {@link #calculate0} for {@link PathCalculationStats}
+     */
+    private int statNodes;
+    private int statMovements;
+    private int[] statMovementsByType;
+    private int statChunkBoundaryRejections;
+    private int statOpenSetSize;
+    private long statWallTime;
+    private int statChunkCacheHits;
+    private int statChunkCacheMisses;
+
+    /**
+     * The coefficient of the best path so far that was returned, if any
+     */
+    private double coefficientUsed = Double.NaN;
+
     /**
      * This is really complicated and hard to explain. I wrote a comment in the old version of MineBot but it was so
      * long it was easier as a Google Doc (because I could insert charts).
@@ -81,6 +109,18 @@ public abstract class AbstractNodeCostSearch implements IPathFinder, Helper {
      */
     protected static final double MIN_IMPROVEMENT = 0.01;
 
+    /**
+     * When shedding nodes, explored nodes closer than this to the node currently being expanded are kept, since the
+     * frontier would most likely just run into them again right away
+     */
+    protected static final int SHED_KEEP_RADIUS = 16;
+
+    /**
+     * Rough estimate of the memory taken up by one node: the {@link PathNode} itself, plus its slot in the map and in
+     * the open set
+     */
+    protected static final int BYTES_PER_NODE = 80;
+
     AbstractNodeCostSearch(int startX, int startY, int startZ, Goal goal, CalculationContext context) {
         this.startX = startX;
         this.startY = startY;
@@ -101,12 +141,19 @@ public abstract class AbstractNodeCostSearch implements IPathFinder, Helper {
         }
         cancelRequested = false;
         try {
-            IPath path = calculate0(primaryTimeout, failureTimeout).map(IPath::postProcess).orElse(null);
+            int chunkCacheHits = context.bsi.getChunkCacheHits();
+            int chunkCacheMisses = context.bsi.getChunkCacheMisses();
+            long start = System.currentTimeMillis();
+            Optional<IPath> result = calculate0(primaryTimeout, failureTimeout);
+            statWallTime = System.currentTimeMillis() - start;
+            statChunkCacheHits = context.bsi.getChunkCacheHits() - chunkCacheHits;
+            statChunkCacheMisses = context.bsi.getChunkCacheMisses() - chunkCacheMisses;
+            IPath path = result.map(IPath::postProcess).orElse(null);
             if (cancelRequested) {
-                return new PathCalculationResult(PathCalculationResult.Type.CANCELLATION);
+                return result(PathCalculationResult.Type.CANCELLATION, null);
             }
             if (path == null) {
-                return new PathCalculationResult(PathCalculationResult.Type.FAILURE);
+                return result(PathCalculationResult.Type.FAILURE, null);
             }
             int previousLength = path.length();
             path = path.cutoffAtLoadedChunks(context.bsi);
@@ -122,20 +169,53 @@ public abstract class AbstractNodeCostSearch implements IPathFinder, Helper {
                 Helper.HELPER.logDebug("Static cutoff " + previousLength + " to " + path.length());
             }
             if (goal.isInGoal(path.getDest())) {
-                return new PathCalculationResult(PathCalculationResult.Type.SUCCESS_TO_GOAL, path);
+                return result(PathCalculationResult.Type.SUCCESS_TO_GOAL, path);
             } else {
-                return new PathCalculationResult(PathCalculationResult.Type.SUCCESS_SEGMENT, path);
+                return result(PathCalculationResult.Type.SUCCESS_SEGMENT, path);
             }
         } catch (Exception e) {
             Helper.HELPER.logDirect("Pathing exception: " + e);
             e.printStackTrace();
-            return new PathCalculationResult(PathCalculationResult.Type.EXCEPTION);
+            return result(PathCalculationResult.Type.EXCEPTION, null);
         } finally {
             // this is run regardless of what exception may or may not be raised by calculate0
             isFinished = true;
         }
     }
 
+    private PathCalculationResult result(PathCalculationResult.Type type, IPath path) {
+        return new PathCalculationResult(type, path, getPeakMemory(), getStats());
+    }
+
+    /**
+     * Called by {@link #calculate0} right before it returns, with its counters
+     *
+     * @param numNodes                The nodes expanded
+     * @param numMovementsConsidered  The movement costs calculated
+     * @param movementsByType         The movement costs calculated, by {@link Moves} ordinal
+     * @param chunkBoundaryRejections The movements skipped because they'd have left the loaded chunks
+     * @param openSetSize             The size of the open set at the end of the search
+     */
+    protected void recordStats(int numNodes, int numMovementsConsidered, int[] movementsByType, int chunkBoundaryRejections, int openSetSize) {
+        this.statNodes = numNodes;
+        this.statMovements = numMovementsConsidered;
+        this.statMovementsByType = movementsByType;
+        this.statChunkBoundaryRejections = chunkBoundaryRejections;
+        this.statOpenSetSize = openSetSize;
+    }
+
+    private PathCalculationStats getStats() {
+        Map<String, Integer> byType = new LinkedHashMap<>();
+        if (statMovementsByType != null) {
+            for (Moves moves : Moves.values()) {
+                if (statMovementsByType[moves.ordinal()] > 0) {
+                    byType.put(moves.name(), statMovementsByType[moves.ordinal()]);
+                }
+            }
+        }
+        return new PathCalculationStats(statNodes, statMovements, byType, statChunkBoundaryRejections, statChunkCacheHits, statChunkCacheMisses, false, Math.max(peakMapSize, map.size()), statOpenSetSize, statWallTime, coefficientUsed);
+    }
+
     protected abstract Optional<IPath> calculate0(long primaryTimeout, long failureTimeout);
 
     /**
@@ -175,6 +255,50 @@ public abstract class AbstractNodeCostSearch implements IPathFinder, Helper {
         return node;
     }
 
+    /**
+     * Frees up nodes once the node budget has been reached, loosely following SMA*. The most expensive half of the open
+     * set is forgotten entirely, then explored nodes that aren't an ancestor of anything still open, aren't part of a
+     * best path so far, and are far away from the node currently being expanded are dropped from the map. If any of
+     * them are reached again later, they're simply recreated and reexplored.
+     *
+     * @param openSet  The open set of the search
+     * @param maxNodes The node budget
+     * @return Whether enough nodes could be freed for the search to keep going
+     */
+    protected boolean shedNodes(BinaryHeapOpenSet openSet, int maxNodes) {
+        peakMapSize = Math.max(peakMapSize, map.size());
+        for (PathNode node : openSet.retainLowest(Math.max(1, openSet.size() / 2))) {
+            map.remove(BetterBlockPos.longHash(node.x, node.y, node.z));
+        }
+        LongOpenHashSet keep = new LongOpenHashSet();
+        for (PathNode node : map.values()) {
+            if (node.isOpen()) {
+                keepAncestors(node, keep);
+            }
+        }
+        for (PathNode node : bestSoFar) {
+            keepAncestors(node, keep);
+        }
+        PathNode frontier = mostRecentConsidered == null ? startNode : mostRecentConsidered;
+        map.values().removeIf(node -> {
+            if (node.isOpen() || keep.contains(BetterBlockPos.longHash(node.x, node.y, node.z))) {
+                return false;
+            }
+            int xDiff = node.x - frontier.x;
+            int yDiff = node.y - frontier.y;
+            int zDiff = node.z - frontier.z;
+            return xDiff * xDiff + yDiff * yDiff + zDiff * zDiff > SHED_KEEP_RADIUS * SHED_KEEP_RADIUS;
+        });
+        // if less than a quarter could be freed, we'd just be shedding over and over again
+        return map.size() < maxNodes * 3 / 4;
+    }
+
+    private static void keepAncestors(PathNode node, LongOpenHashSet keep) {
+        while (node != null && keep.add(BetterBlockPos.longHash(node.x, node.y, node.z))) {
+            node = node.previous;
+        }
+    }
+
     @Override
     public Optional<IPath> pathToMostRecentNodeConsidered() {
         return Optional.ofNullable(mostRecentConsidered).map(node -> new Path(startNode, node, 0, goal, context));
@@ -200,13 +324,12 @@ public abstract class AbstractNodeCostSearch implements IPathFinder, Helper {
             }
             if (dist > MIN_DIST_PATH * MIN_DIST_PATH) { // square the comparison since distFromStartSq is squared
                 if (logInfo) {
+                    coefficientUsed = COEFFICIENTS[i];
                     if (COEFFICIENTS[i] >= 3) {
-                        System.out.println("Warning: cost coefficient is greater than three! Probably means that");
-                        System.out.println("the path I found is pretty terrible (like sneak-bridging for dozens of blocks)");
-                        System.out.println("But I'm going to do it anyway, because yolo");
+                        // probably means the path is pretty terrible (like sneak-bridging for dozens of blocks), but we're doing it anyway
+                        logDebug("Warning: cost coefficient is greater than three!");
                     }
-                    System.out.println("Path goes for " + Math.sqrt(dist) + " blocks");
-                    logDebug("A* cost coefficient " + COEFFICIENTS[i]);
+                    logDebug("A* cost coefficient " + COEFFICIENTS[i] + ", path goes for " + (int) Math.sqrt(dist) + " blocks");
                 }
                 return Optional.of(new Path(startNode, bestSoFar[i], numNodes, goal, context));
             }
@@ -238,4 +361,11 @@ public abstract class AbstractNodeCostSearch implements IPathFinder, Helper {
     protected int mapSize() {
         return map.size();
     }
+
+    /**
+     * @return An estimate of the most memory this search has used at once, in bytes
+     */
+    public long getPeakMemory() {
+        return (long) Math.max(peakMapSize, map.size()) * BYTES_PER_NODE;
+    }
 }
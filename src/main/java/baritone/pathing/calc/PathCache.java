@@ -0,0 +1,176 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.Baritone;
+import baritone.api.pathing.calc.IPath;
+import baritone.api.pathing.goals.Goal;
+import baritone.api.pathing.movement.ActionCosts;
+import baritone.api.pathing.movement.IMovement;
+import baritone.api.utils.BetterBlockPos;
+import baritone.api.utils.Helper;
+import baritone.cache.ChunkVersions;
+import baritone.pathing.movement.CalculationContext;
+import baritone.pathing.movement.Movement;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.*;
+
+/**
+ * Remembers completed paths, so that pathing between the same places over and over again only has to calculate the
+ * path once.
+ * <p>
+ * A path is keyed by its start, its goal and the {@link CalculationContext#fingerprint()} it was calculated with. It's
+ * only reused if none of the chunks it goes through have changed since it was calculated, according to
+ * {@link ChunkVersions}. There's one per {@link baritone.cache.WorldData}, so every bot in the same world shares it.
+ */
+public final class PathCache implements Helper {
+
+    private final Map<List<Object>, Entry> entries = new LinkedHashMap<List<Object>, Entry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<Object>, Entry> eldest) {
+            return size() > Baritone.settings().pathCacheSize.value;
+        }
+    };
+
+    /**
+     * @param context The context a path would be calculated with
+     * @return Whether paths calculated with this context can be remembered and reused
+     */
+    public static boolean canCache(CalculationContext context) {
+        return Baritone.settings().pathCacheSize.value > 0 && context.worldData != null && context.fingerprint() != null;
+    }
+
+    /**
+     * Looks up a previously calculated path, and if it's still up to date, recreates it with fresh movements.
+     *
+     * @param start   The start of the path
+     * @param goal    The goal of the path
+     * @param context The context the path would be calculated with
+     * @return The path, if there is one that can be reused
+     */
+    public synchronized Optional<IPath> get(BetterBlockPos start, Goal goal, CalculationContext context) {
+        List<Object> key = key(start, goal, context);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        ChunkVersions versions = context.worldData.chunkVersions;
+        for (long chunk : entry.chunks) {
+            if (versions.get((int) chunk, (int) (chunk >> 32)) > entry.version) {
+                entries.remove(key);
+                return Optional.empty();
+            }
+        }
+        // movements have state while they're executing, so they can't be shared with the path we remembered
+        PathNode first = null;
+        PathNode last = null;
+        for (int i = 0; i < entry.positions.length; i++) {
+            BetterBlockPos pos = entry.positions[i];
+            PathNode node = new PathNode(pos.x, pos.y, pos.z, goal);
+            node.cost = entry.costs[i];
+            node.previous = last;
+            if (first == null) {
+                first = node;
+            }
+            last = node;
+        }
+        IPath path;
+        try {
+            path = new Path(first, last, 0, goal, context).postProcess();
+        } catch (Exception e) {
+            logDebug("Couldn't recreate a remembered path: " + e);
+            path = null;
+        }
+        if (path == null || path.length() != entry.positions.length || !stillPossible(path, context)) {
+            // a movement that was possible when the path was calculated no longer is
+            entries.remove(key);
+            return Optional.empty();
+        }
+        logDebug("Reusing a path calculated earlier from " + start + " to " + goal);
+        return Optional.of(path);
+    }
+
+    /**
+     * Recreating the path doesn't catch everything, since {@link Path} keeps movements that have become impossible as
+     * long as the node costs it was given say otherwise
+     */
+    private static boolean stillPossible(IPath path, CalculationContext context) {
+        for (IMovement movement : path.movements()) {
+            if (((Movement) movement).calculateCost(context) >= ActionCosts.COST_INF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Remembers a path that was just calculated
+     *
+     * @param start   The start of the path
+     * @param goal    The goal of the path
+     * @param context The context the path was calculated with
+     * @param path    The path
+     * @param version The {@link ChunkVersions#current()} from before the calculation started
+     */
+    public synchronized void put(BetterBlockPos start, Goal goal, CalculationContext context, IPath path, long version) {
+        entries.put(key(start, goal, context), new Entry(path, version));
+    }
+
+    private static List<Object> key(BetterBlockPos start, Goal goal, CalculationContext context) {
+        return Arrays.asList(start, goal, context.fingerprint());
+    }
+
+    private static final class Entry {
+
+        private final BetterBlockPos[] positions;
+
+        /**
+         * The cost of getting to each position from the start
+         */
+        private final double[] costs;
+
+        /**
+         * Every chunk the path goes through, plus the neighboring ones when it's right by the edge, since movements
+         * look at the blocks around them too
+         */
+        private final long[] chunks;
+
+        private final long version;
+
+        private Entry(IPath path, long version) {
+            this.positions = path.positions().toArray(new BetterBlockPos[0]);
+            this.costs = new double[positions.length];
+            List<IMovement> movements = path.movements();
+            for (int i = 0; i < movements.size(); i++) {
+                costs[i + 1] = costs[i] + movements.get(i).getCost();
+            }
+            LongOpenHashSet chunks = new LongOpenHashSet();
+            for (BetterBlockPos pos : positions) {
+                for (int dx = -1; dx <= 1; dx += 2) {
+                    for (int dz = -1; dz <= 1; dz += 2) {
+                        chunks.add(ChunkPos.asLong((pos.x + dx) >> 4, (pos.z + dz) >> 4));
+                    }
+                }
+            }
+            this.chunks = chunks.toLongArray();
+            this.version = version;
+        }
+    }
+}
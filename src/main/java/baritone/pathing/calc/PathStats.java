@@ -0,0 +1,191 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.Baritone;
+import baritone.api.utils.PathCalculationStats;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Rolling statistics over the most recent path calculations. {@link #INSTANCE} covers every bot and is published over
+ * JMX when {@link baritone.api.Settings#pathStatsJmx} is on, and each bot keeps its own as well.
+ */
+public final class PathStats implements PathStatsMXBean {
+
+    public static final PathStats INSTANCE = new PathStats();
+
+    /**
+     * How many of the most recent calculations the statistics cover
+     */
+    private static final int WINDOW = 256;
+
+    private final ArrayDeque<PathCalculationStats> window = new ArrayDeque<>();
+    private long total;
+    private boolean registered;
+
+    public PathStats() {}
+
+    public void record(PathCalculationStats stats) {
+        synchronized (this) {
+            total++;
+            window.addLast(stats);
+            if (window.size() > WINDOW) {
+                window.removeFirst();
+            }
+        }
+        if (this == INSTANCE && !registered && Baritone.settings().pathStatsJmx.value) {
+            register();
+        }
+    }
+
+    private synchronized void register() {
+        if (registered) {
+            return;
+        }
+        registered = true; // don't try again if it fails
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName("baritone:type=PathStats"));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public synchronized long getTotalCalculations() {
+        return total;
+    }
+
+    @Override
+    public synchronized int getWindowSize() {
+        return window.size();
+    }
+
+    @Override
+    public synchronized int getReusedPaths() {
+        int reused = 0;
+        for (PathCalculationStats stats : window) {
+            if (stats.isReused()) {
+                reused++;
+            }
+        }
+        return reused;
+    }
+
+    @Override
+    public synchronized double getAverageWallTimeMillis() {
+        long sum = 0;
+        for (PathCalculationStats stats : window) {
+            sum += stats.getWallTimeMillis();
+        }
+        return window.isEmpty() ? 0 : (double) sum / window.size();
+    }
+
+    @Override
+    public synchronized long getMaxWallTimeMillis() {
+        long max = 0;
+        for (PathCalculationStats stats : window) {
+            max = Math.max(max, stats.getWallTimeMillis());
+        }
+        return max;
+    }
+
+    @Override
+    public synchronized double getAverageNodesExpanded() {
+        long sum = 0;
+        for (PathCalculationStats stats : window) {
+            sum += stats.getNodesExpanded();
+        }
+        return window.isEmpty() ? 0 : (double) sum / window.size();
+    }
+
+    @Override
+    public synchronized double getNodesPerSecond() {
+        long nodes = 0;
+        long time = 0;
+        for (PathCalculationStats stats : window) {
+            nodes += stats.getNodesExpanded();
+            time += stats.getWallTimeMillis();
+        }
+        return time == 0 ? 0 : nodes * 1000D / time;
+    }
+
+    @Override
+    public synchronized double getAveragePeakMapSize() {
+        long sum = 0;
+        for (PathCalculationStats stats : window) {
+            sum += stats.getPeakMapSize();
+        }
+        return window.isEmpty() ? 0 : (double) sum / window.size();
+    }
+
+    @Override
+    public synchronized int getMaxPeakMapSize() {
+        int max = 0;
+        for (PathCalculationStats stats : window) {
+            max = Math.max(max, stats.getPeakMapSize());
+        }
+        return max;
+    }
+
+    @Override
+    public synchronized long getChunkBoundaryRejections() {
+        long sum = 0;
+        for (PathCalculationStats stats : window) {
+            sum += stats.getChunkBoundaryRejections();
+        }
+        return sum;
+    }
+
+    @Override
+    public synchronized double getChunkCacheHitRate() {
+        long hits = 0;
+        long lookups = 0;
+        for (PathCalculationStats stats : window) {
+            hits += stats.getChunkCacheHits();
+            lookups += stats.getChunkCacheHits() + stats.getChunkCacheMisses();
+        }
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public synchronized double getAverageCoefficient() {
+        double sum = 0;
+        int count = 0;
+        for (PathCalculationStats stats : window) {
+            if (!Double.isNaN(stats.getCoefficient())) {
+                sum += stats.getCoefficient();
+                count++;
+            }
+        }
+        return count == 0 ? 0 : sum / count;
+    }
+
+    @Override
+    public synchronized Map<String, Long> getMovementsEvaluatedByType() {
+        Map<String, Long> result = new TreeMap<>();
+        for (PathCalculationStats stats : window) {
+            stats.getMovementsEvaluatedByType().forEach((type, count) -> result.merge(type, (long) count, Long::sum));
+        }
+        return result;
+    }
+}
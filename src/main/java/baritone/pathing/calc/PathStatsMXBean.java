@@ -0,0 +1,52 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import java.util.Map;
+
+/**
+ * The management interface of {@link PathStats}
+ */
+public interface PathStatsMXBean {
+
+    long getTotalCalculations();
+
+    int getWindowSize();
+
+    int getReusedPaths();
+
+    double getAverageWallTimeMillis();
+
+    long getMaxWallTimeMillis();
+
+    double getAverageNodesExpanded();
+
+    double getNodesPerSecond();
+
+    double getAveragePeakMapSize();
+
+    int getMaxPeakMapSize();
+
+    long getChunkBoundaryRejections();
+
+    double getChunkCacheHitRate();
+
+    double getAverageCoefficient();
+
+    Map<String, Long> getMovementsEvaluatedByType();
+}
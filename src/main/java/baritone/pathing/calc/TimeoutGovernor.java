@@ -0,0 +1,147 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.Baritone;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Decides when a path search has gone on for long enough.
+ * <p>
+ * Without {@link baritone.api.Settings#adaptivePathTimeout} this is just the primary and failure timeouts. With it, the
+ * search stops before the primary timeout once it has stopped getting any closer to the goal, and carries on past it
+ * (up to the failure timeout) for as long as it keeps getting closer.
+ * <p>
+ * Either way, how many nodes per millisecond this machine manages is remembered across searches and sessions, so that
+ * the clock can be checked about every half a millisecond no matter how fast or slow the machine is.
+ */
+public final class TimeoutGovernor {
+
+    private static final String THROUGHPUT_FILE = "throughput.txt";
+    private static final long SAVE_INTERVAL_MS = 60000;
+
+    /**
+     * Getting closer to the goal by less than this doesn't count as progress
+     */
+    private static final double MIN_PROGRESS = 1;
+
+    private static double nodesPerMs = -1;
+    private static long lastSave;
+
+    private final boolean adaptive;
+    private final long startTime;
+    private final long primaryTimeout;
+    private final long primaryTimeoutTime;
+    private final long failureTimeoutTime;
+
+    private double best = Double.MAX_VALUE;
+    private long lastProgress;
+
+    public TimeoutGovernor(long startTime, long primaryTimeout, long failureTimeout) {
+        this.adaptive = Baritone.settings().adaptivePathTimeout.value;
+        this.startTime = startTime;
+        this.primaryTimeout = primaryTimeout;
+        this.primaryTimeoutTime = startTime + primaryTimeout;
+        this.failureTimeoutTime = startTime + failureTimeout;
+        this.lastProgress = startTime;
+    }
+
+    /**
+     * @return How many nodes to expand between calls to {@link #shouldStop}, always a power of two
+     */
+    public int checkInterval() {
+        double throughput = throughput();
+        if (throughput <= 0) {
+            return 1 << 6; // about half a millisecond on a typical desktop
+        }
+        int nodes = (int) Math.max(16, Math.min(1024, throughput / 2));
+        return Integer.highestOneBit(nodes);
+    }
+
+    /**
+     * @param now           The current time
+     * @param failing       Whether nothing far enough from the start to count as a path has been found yet
+     * @param bestHeuristic The lowest estimated cost to the goal of any node so far
+     * @return Whether to stop searching
+     */
+    public boolean shouldStop(long now, boolean failing, double bestHeuristic) {
+        if (now - failureTimeoutTime >= 0) {
+            return true;
+        }
+        if (!adaptive) {
+            return !failing && now - primaryTimeoutTime >= 0;
+        }
+        if (best - bestHeuristic >= MIN_PROGRESS) {
+            best = bestHeuristic;
+            lastProgress = now;
+        }
+        if (failing) {
+            return false; // nothing usable yet, the failure timeout is all there is
+        }
+        long sinceProgress = now - lastProgress;
+        if (now - startTime >= primaryTimeout / 4 && sinceProgress >= primaryTimeout / 4) {
+            return true; // plateaued, more time isn't going to find anything better
+        }
+        if (now - primaryTimeoutTime >= 0) {
+            return sinceProgress >= primaryTimeout / 8; // keep going as long as it's still getting somewhere
+        }
+        return false;
+    }
+
+    /**
+     * Called once the search is over, to learn from how fast it went
+     */
+    public void finish(long now, int numNodes) {
+        long elapsed = now - startTime;
+        if (elapsed < 100 || numNodes <= 0) {
+            return; // too short to say much
+        }
+        double measured = numNodes / (double) elapsed;
+        synchronized (TimeoutGovernor.class) {
+            double previous = throughput();
+            nodesPerMs = previous <= 0 ? measured : previous * 0.8 + measured * 0.2;
+            if (now - lastSave >= SAVE_INTERVAL_MS) {
+                lastSave = now;
+                save(nodesPerMs);
+            }
+        }
+    }
+
+    private static synchronized double throughput() {
+        if (nodesPerMs == -1) {
+            nodesPerMs = 0;
+            try {
+                File file = new File(Baritone.getDir(), THROUGHPUT_FILE);
+                if (file.exists()) {
+                    nodesPerMs = Double.parseDouble(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).trim());
+                }
+            } catch (IOException | NumberFormatException ignored) {}
+        }
+        return nodesPerMs;
+    }
+
+    private static void save(double throughput) {
+        try {
+            Files.write(new File(Baritone.getDir(), THROUGHPUT_FILE).toPath(), Double.toString(throughput).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException ignored) {}
+    }
+}
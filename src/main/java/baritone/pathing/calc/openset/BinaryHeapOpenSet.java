@@ -20,6 +20,7 @@ package baritone.pathing.calc.openset;
 import baritone.pathing.calc.PathNode;
 
 import java.util.Arrays;
+import java.util.Comparator;
 
 /**
  * A binary heap implementation of an open set. This is the one used in the AStarPathFinder.
@@ -89,6 +90,31 @@ public final class BinaryHeapOpenSet implements IOpenSet {
         return size == 0;
     }
 
+    /**
+     * Keeps only the {@code amount} lowest cost nodes in the heap, and removes all the others.
+     *
+     * @param amount How many nodes to keep
+     * @return The nodes that were removed
+     */
+    public final PathNode[] retainLowest(int amount) {
+        if (amount >= size) {
+            return new PathNode[0];
+        }
+        PathNode[] sorted = Arrays.copyOfRange(array, 1, size + 1);
+        Arrays.sort(sorted, Comparator.comparingDouble(node -> node.combinedCost));
+        // an array sorted in ascending order is already a valid binary heap, no sifting required
+        Arrays.fill(array, 1, size + 1, null);
+        for (int i = 0; i < amount; i++) {
+            array[i + 1] = sorted[i];
+            sorted[i].heapPosition = i + 1;
+        }
+        for (int i = amount; i < sorted.length; i++) {
+            sorted[i].heapPosition = -1;
+        }
+        size = amount;
+        return Arrays.copyOfRange(sorted, amount, sorted.length);
+    }
+
     @Override
     public final PathNode removeLowest() {
         if (size == 0) {
@@ -20,10 +20,12 @@ package baritone.pathing.movement;
 import baritone.Baritone;
 import baritone.api.IBaritone;
 import baritone.api.pathing.movement.ActionCosts;
+import baritone.behavior.PathingBehavior;
 import baritone.cache.WorldData;
 import baritone.utils.BlockStateInterface;
 import baritone.utils.ToolSet;
 import baritone.utils.pathing.BetterWorldBorder;
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
 import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.client.entity.EntityPlayerSP;
@@ -35,6 +37,7 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static baritone.api.pathing.movement.ActionCosts.COST_INF;
@@ -75,6 +78,16 @@ public class CalculationContext {
     public double jumpPenalty;
     public final double walkOnWaterOnePenalty;
     public final BetterWorldBorder worldBorder;
+    /**
+     * What to scale the cost of each {@link CostCalibration.Kind} of movement by, null if {@link baritone.api.Settings#costCalibration} is off
+     */
+    public final double[] costMultipliers;
+    /**
+     * The {@link baritone.cache.ChunkVersions} version of the world as of when {@link #bsi} took its view of it, 0
+     * without world data. Anything in the world that changed after this can't be seen through this context if it's
+     * {@link #safeForThreadedUse}.
+     */
+    public final long chunkVersion;
 
     public CalculationContext(IBaritone baritone) {
         this(baritone, false);
@@ -86,6 +99,7 @@ public class CalculationContext {
         EntityPlayerSP player = baritone.getPlayerContext().player();
         this.world = baritone.getPlayerContext().world();
         this.worldData = (WorldData) baritone.getWorldProvider().getCurrentWorld();
+        this.chunkVersion = worldData == null ? 0 : worldData.chunkVersions.current();
         this.bsi = new BlockStateInterface(world, worldData, forUseOnAnotherThread);
         this.toolSet = new ToolSet(player);
         this.hasThrowaway = Baritone.settings().allowPlace.value && ((Baritone) baritone).getInventoryBehavior().hasGenericThrowaway();
@@ -118,12 +132,66 @@ public class CalculationContext {
         // because if some movements are calculated one way and others are calculated another way,
         // then you get a wildly inconsistent path that isn't optimal for either scenario.
         this.worldBorder = new BetterWorldBorder(world.getWorldBorder());
+        this.costMultipliers = Baritone.settings().costCalibration.value
+                ? ((PathingBehavior) baritone.getPathingBehavior()).getCostCalibration().multipliers(Baritone.settings().costCalibrationMinSamples.value)
+                : null;
     }
 
     public final IBaritone getBaritone() {
         return baritone;
     }
 
+    /**
+     * Everything about this context that affects which path is calculated, so that a path calculated with one context
+     * can be reused for another with the same fingerprint. That includes the settings movements read directly rather
+     * than through this context.
+     * <p>
+     * Contexts whose costs depend on more than this (for example on the schematic being built) return {@code null},
+     * and their paths are never reused.
+     *
+     * @return The fingerprint of this context
+     */
+    public List<Object> fingerprint() {
+        return Arrays.asList(
+                getClass(),
+                worldData,
+                toolSet.getFingerprint(),
+                hasWaterBucket,
+                hasThrowaway,
+                canSprint,
+                placeBlockCost,
+                allowBreak,
+                allowBreakAnyway,
+                allowParkour,
+                allowParkourPlace,
+                allowJumpAt256,
+                allowParkourAscend,
+                assumeWalkOnWater,
+                allowDiagonalDescend,
+                allowDiagonalAscend,
+                allowDownward,
+                maxFallHeightNoWater,
+                maxFallHeightBucket,
+                waterWalkSpeed,
+                breakBlockAdditionalCost,
+                backtrackCostFavoringCoefficient,
+                jumpPenalty,
+                walkOnWaterOnePenalty,
+                costMultipliers == null ? null : DoubleArrayList.wrap(costMultipliers),
+                Baritone.settings().allowVines.value,
+                Baritone.settings().allowWalkOnBottomSlab.value,
+                Baritone.settings().assumeSafeWalk.value,
+                Baritone.settings().assumeStep.value,
+                Baritone.settings().assumeWalkOnLava.value,
+                Baritone.settings().avoidUpdatingFallingBlocks.value,
+                new ArrayList<>(Baritone.settings().blocksToAvoid.value),
+                new ArrayList<>(Baritone.settings().blocksToDisallowBreaking.value),
+                Baritone.settings().sprintInWater.value,
+                Baritone.settings().assumeExternalAutoTool.value,
+                Baritone.settings().overshootTraverse.value
+        );
+    }
+
     public IBlockState get(int x, int y, int z) {
         return bsi.get0(x, y, z); // laughs maniacally
     }
@@ -0,0 +1,191 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.movement;
+
+import baritone.pathing.movement.movements.*;
+
+/**
+ * How long movements actually took to execute, compared to what their cost said they would take.
+ * <p>
+ * The last {@link #CAPACITY} movements are kept as packed samples, each one with the kind of movement, what it involved
+ * ({@link #SPRINT}, {@link #WATER} and so on) and how far it fell. Running totals per kind of movement make
+ * {@link #multipliers(int)} cheap enough to call every time a path is calculated.
+ */
+public final class CostCalibration {
+
+    public static final int SPRINT = 1;
+    public static final int WATER = 1 << 1;
+    public static final int SOUL_SAND = 1 << 2;
+    public static final int BREAK = 1 << 3;
+    public static final int PLACE = 1 << 4;
+
+    private static final int CAPACITY = 4096;
+
+    /**
+     * Multipliers are kept at most this far above 1, some samples are bound to be junk and a wild multiplier would make
+     * paths far worse than a slightly wrong cost ever could
+     */
+    private static final double MAX_CORRECTION = 2;
+
+    /**
+     * Multipliers are rounded to this, so that they don't change every time a movement finishes. A path calculated with
+     * one set of multipliers can only be reused with the exact same set.
+     */
+    private static final double STEP = 0.05;
+
+    private final long[] samples = new long[CAPACITY];
+    private int size;
+    private int next;
+    private final double[] actualTicks = new double[Kind.values().length];
+    private final double[] estimatedTicks = new double[Kind.values().length];
+    private final int[] counts = new int[Kind.values().length];
+
+    /**
+     * @param kind       The kind of movement
+     * @param flags      What the movement involved, see {@link #SPRINT} and the rest
+     * @param fallHeight How many blocks the movement went down, capped at 15
+     * @param estimated  The cost of the movement when it started, in ticks
+     * @param actual     How many ticks it actually took
+     */
+    public synchronized void record(Kind kind, int flags, int fallHeight, double estimated, int actual) {
+        if (estimated < 1 || actual <= 0 || actual > estimated * 4 + 20) {
+            return; // lag, getting stuck, or something else the cost was never meant to account for
+        }
+        float estimate = (float) estimated;
+        if (size == CAPACITY) {
+            long evicted = samples[next];
+            int evictedKind = (int) (evicted & 0xF);
+            actualTicks[evictedKind] -= (int) (evicted >>> 13 & 0xFFFF);
+            estimatedTicks[evictedKind] -= Float.intBitsToFloat((int) (evicted >>> 32));
+            counts[evictedKind]--;
+        } else {
+            size++;
+        }
+        samples[next] = kind.ordinal()
+                | (long) (flags & 0x1F) << 4
+                | (long) Math.min(Math.max(fallHeight, 0), 15) << 9
+                | (long) Math.min(actual, 0xFFFF) << 13
+                | (long) Float.floatToIntBits(estimate) << 32;
+        next = (next + 1) % CAPACITY;
+        actualTicks[kind.ordinal()] += Math.min(actual, 0xFFFF);
+        estimatedTicks[kind.ordinal()] += estimate;
+        counts[kind.ordinal()]++;
+    }
+
+    /**
+     * @param minSamples How many samples a kind of movement needs before its multiplier moves away from 1
+     * @return How much longer than their cost each {@link Kind} of movement takes, indexed by ordinal. Never below 1,
+     * since a path's costs can only ever go down when its movements are recalculated, and a movement made cheaper
+     * here would look like it got more expensive during execution.
+     */
+    public synchronized double[] multipliers(int minSamples) {
+        double[] multipliers = new double[Kind.values().length];
+        for (int i = 0; i < multipliers.length; i++) {
+            if (counts[i] < minSamples || estimatedTicks[i] <= 0) {
+                multipliers[i] = 1;
+                continue;
+            }
+            double ratio = actualTicks[i] / estimatedTicks[i];
+            ratio = Math.max(1, Math.min(MAX_CORRECTION, ratio));
+            multipliers[i] = Math.round(ratio / STEP) * STEP;
+        }
+        return multipliers;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public enum Kind {
+        TRAVERSE,
+        ASCEND,
+        DESCEND,
+        FALL,
+        DIAGONAL,
+        PILLAR,
+        PARKOUR,
+        DOWNWARD;
+
+        public static Kind of(Movement movement) {
+            if (movement instanceof MovementTraverse) {
+                return TRAVERSE;
+            }
+            if (movement instanceof MovementAscend) {
+                return ASCEND;
+            }
+            if (movement instanceof MovementDescend) {
+                return DESCEND;
+            }
+            if (movement instanceof MovementFall) {
+                return FALL;
+            }
+            if (movement instanceof MovementDiagonal) {
+                return DIAGONAL;
+            }
+            if (movement instanceof MovementPillar) {
+                return PILLAR;
+            }
+            if (movement instanceof MovementParkour) {
+                return PARKOUR;
+            }
+            if (movement instanceof MovementDownward) {
+                return DOWNWARD;
+            }
+            throw new IllegalArgumentException(movement.getClass().getName());
+        }
+
+        /**
+         * @return The kind of movement that a path will have wherever the pathfinder took this move
+         */
+        public static Kind of(Moves moves, int srcY, int destY) {
+            switch (moves) {
+                case DOWNWARD:
+                    return DOWNWARD;
+                case PILLAR:
+                    return PILLAR;
+                case TRAVERSE_NORTH:
+                case TRAVERSE_SOUTH:
+                case TRAVERSE_EAST:
+                case TRAVERSE_WEST:
+                    return TRAVERSE;
+                case ASCEND_NORTH:
+                case ASCEND_SOUTH:
+                case ASCEND_EAST:
+                case ASCEND_WEST:
+                    return ASCEND;
+                case DESCEND_NORTH:
+                case DESCEND_SOUTH:
+                case DESCEND_EAST:
+                case DESCEND_WEST:
+                    return destY == srcY - 1 ? DESCEND : FALL; // same as apply0
+                case DIAGONAL_NORTHEAST:
+                case DIAGONAL_NORTHWEST:
+                case DIAGONAL_SOUTHEAST:
+                case DIAGONAL_SOUTHWEST:
+                    return DIAGONAL;
+                case PARKOUR_NORTH:
+                case PARKOUR_SOUTH:
+                case PARKOUR_EAST:
+                case PARKOUR_WEST:
+                    return PARKOUR;
+                default:
+                    throw new IllegalArgumentException(moves.name());
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.path;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.longs.LongSets;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.List;
+
+/**
+ * The union of the blocks that some range of movements in a path want to break (or place, or walk into), as packed
+ * positions. Each movement's blocks can be added, replaced and removed on their own, so the union doesn't have to be
+ * rebuilt from every remaining movement whenever one of them changes or the path position moves along.
+ */
+final class MovementBlockSet {
+
+    /**
+     * How many of the counted movements contain each position
+     */
+    private final Long2IntOpenHashMap counts = new Long2IntOpenHashMap();
+    private final LongSet view = LongSets.unmodifiable(counts.keySet());
+
+    /**
+     * What each movement currently contributes, null for movements that aren't counted
+     */
+    private final long[][] contributions;
+
+    MovementBlockSet(int movements) {
+        this.contributions = new long[movements][];
+    }
+
+    /**
+     * Counts the given positions for this movement, replacing whatever it contributed before
+     */
+    void set(int movement, List<BlockPos> positions) {
+        remove(movement);
+        long[] packed = new long[positions.size()];
+        for (int i = 0; i < packed.length; i++) {
+            packed[i] = positions.get(i).toLong();
+            counts.addTo(packed[i], 1);
+        }
+        contributions[movement] = packed;
+    }
+
+    /**
+     * Stops counting this movement
+     */
+    void remove(int movement) {
+        long[] packed = contributions[movement];
+        if (packed == null) {
+            return;
+        }
+        for (long pos : packed) {
+            if (counts.addTo(pos, -1) == 1) {
+                counts.remove(pos);
+            }
+        }
+        contributions[movement] = null;
+    }
+
+    /**
+     * @return A read only view of the positions, which stays up to date as movements are added and removed
+     */
+    LongSet positions() {
+        return view;
+    }
+}
@@ -19,6 +19,7 @@ package baritone.pathing.path;
 
 import baritone.Baritone;
 import baritone.api.pathing.calc.IPath;
+import baritone.api.pathing.goals.GoalBlock;
 import baritone.api.pathing.movement.ActionCosts;
 import baritone.api.pathing.movement.IMovement;
 import baritone.api.pathing.movement.MovementStatus;
@@ -26,13 +27,21 @@ import baritone.api.pathing.path.IPathExecutor;
 import baritone.api.utils.*;
 import baritone.api.utils.input.Input;
 import baritone.behavior.PathingBehavior;
+import baritone.cache.ChunkVersions;
+import baritone.pathing.calc.AStarPathFinder;
 import baritone.pathing.calc.AbstractNodeCostSearch;
 import baritone.pathing.movement.CalculationContext;
+import baritone.pathing.movement.CostCalibration;
 import baritone.pathing.movement.Movement;
 import baritone.pathing.movement.MovementHelper;
 import baritone.pathing.movement.movements.*;
 import baritone.utils.BlockStateInterface;
+import baritone.utils.TaskScheduler;
+import baritone.utils.pathing.Favoring;
+import baritone.utils.pathing.MobTracker;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import net.minecraft.block.BlockLiquid;
+import net.minecraft.init.Blocks;
 import net.minecraft.util.Tuple;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3d;
@@ -61,17 +70,55 @@ public class PathExecutor implements IPathExecutor, Helper {
      */
     private static final double MAX_TICKS_AWAY = 200;
 
+    /**
+     * How many movements ahead to check for mobs that have moved into the way
+     */
+    private static final int REPAIR_LOOKAHEAD = 20;
+
+    /**
+     * How many movements past the last one a mob is in the way of to rejoin the path, so the repair has some room to go
+     * around
+     */
+    private static final int REPAIR_REJOIN_MARGIN = 4;
+
+    private static final long REPAIR_TIMEOUT_MS = 250;
+
+    /**
+     * Mobs can move every tick, so don't start a new repair more often than this
+     */
+    private static final int REPAIR_COOLDOWN_TICKS = 10;
+
     private final IPath path;
+    private PathPositionIndex positionIndex;
     private int pathPosition;
     private int ticksAway;
     private int ticksOnCurrent;
     private Double currentMovementOriginalCostEstimate;
     private Integer costEstimateIndex;
+    /**
+     * The cost of the current movement on its first tick, and what it involved, to tell {@link CostCalibration} how it
+     * went once it's done. -1 until the first tick.
+     */
+    private double calibrationEstimate = -1;
+    private int calibrationFlags;
     private boolean failed;
-    private boolean recalcBP = true;
-    private HashSet<BlockPos> toBreak = new HashSet<>();
-    private HashSet<BlockPos> toPlace = new HashSet<>();
-    private HashSet<BlockPos> toWalkInto = new HashSet<>();
+    private final MovementBlockSet toBreak;
+    private final MovementBlockSet toPlace;
+    private final MovementBlockSet toWalkInto;
+    /**
+     * The sets above count the movements from this index to the end of the path, -1 before the first tick
+     */
+    private int blocksCountedFrom = -1;
+    /**
+     * The {@link ChunkVersions} version of the world that the movements of this path are known to still be possible in
+     */
+    private long verifiedVersion;
+    /**
+     * The {@link MobTracker} version as of the last time upcoming movements were checked for mobs in the way
+     */
+    private long mobVersion;
+    private int repairCooldown;
+    private Repair repair;
 
     private final PathingBehavior behavior;
     private final IPlayerContext ctx;
@@ -83,6 +130,10 @@ public class PathExecutor implements IPathExecutor, Helper {
         this.ctx = behavior.ctx;
         this.path = path;
         this.pathPosition = 0;
+        this.toBreak = new MovementBlockSet(path.movements().size());
+        this.toPlace = new MovementBlockSet(path.movements().size());
+        this.toWalkInto = new MovementBlockSet(path.movements().size());
+        this.mobVersion = behavior.baritone.getMobTracker().version();
     }
 
     /**
@@ -101,33 +152,34 @@ public class PathExecutor implements IPathExecutor, Helper {
         Movement movement = (Movement) path.movements().get(pathPosition);
         BetterBlockPos whereAmI = ctx.playerFeet();
         if (!movement.getValidPositions().contains(whereAmI)) {
-            for (int i = 0; i < pathPosition && i < path.length(); i++) {//this happens for example when you lag out and get teleported back a couple blocks
-                if (((Movement) path.movements().get(i)).getValidPositions().contains(whereAmI)) {
-                    int previousPos = pathPosition;
-                    pathPosition = i;
-                    for (int j = pathPosition; j <= previousPos; j++) {
-                        path.movements().get(j).reset();
-                    }
-                    onChangeInPathPosition();
-                    onTick();
-                    return false;
+            PathPositionIndex index = positionIndex();
+            //this happens for example when you lag out and get teleported back a couple blocks
+            int i = index.firstMovementContaining(whereAmI, 0, Math.min(pathPosition, path.length()));
+            if (i != -1) {
+                int previousPos = pathPosition;
+                pathPosition = i;
+                for (int j = pathPosition; j <= previousPos; j++) {
+                    path.movements().get(j).reset();
                 }
+                onChangeInPathPosition();
+                onTick();
+                return false;
             }
-            for (int i = pathPosition + 3; i < path.length() - 1; i++) { //dont check pathPosition+1. the movement tells us when it's done (e.g. sneak placing)
-                // also don't check pathPosition+2 because reasons
-                if (((Movement) path.movements().get(i)).getValidPositions().contains(whereAmI)) {
-                    if (i - pathPosition > 2) {
-                        logDebug("Skipping forward " + (i - pathPosition) + " steps, to " + i);
-                    }
-                    //System.out.println("Double skip sundae");
-                    pathPosition = i - 1;
-                    onChangeInPathPosition();
-                    onTick();
-                    return false;
+            //dont check pathPosition+1. the movement tells us when it's done (e.g. sneak placing)
+            // also don't check pathPosition+2 because reasons
+            i = index.firstMovementContaining(whereAmI, pathPosition + 3, path.length() - 1);
+            if (i != -1) {
+                if (i - pathPosition > 2) {
+                    logDebug("Skipping forward " + (i - pathPosition) + " steps, to " + i);
                 }
+                //System.out.println("Double skip sundae");
+                pathPosition = i - 1;
+                onChangeInPathPosition();
+                onTick();
+                return false;
             }
         }
-        Tuple<Double, BlockPos> status = closestPathPos(path);
+        Tuple<Double, BlockPos> status = positionIndex().closest(ctx.player().posX, ctx.player().posY, ctx.player().posZ);
         if (possiblyOffPath(status, MAX_DIST_FROM_PATH)) {
             ticksAway++;
             System.out.println("FAR AWAY FROM PATH FOR " + ticksAway + " TICKS. Current distance: " + status.getFirst() + ". Threshold: " + MAX_DIST_FROM_PATH);
@@ -155,30 +207,35 @@ public class PathExecutor implements IPathExecutor, Helper {
             List<BlockPos> prevPlace = m.toPlace(bsi);
             List<BlockPos> prevWalkInto = m.toWalkInto(bsi);
             m.resetBlockCache();
+            if (blocksCountedFrom == -1 || i < blocksCountedFrom) {
+                continue; // not counted (yet), the loop below picks up the fresh lists if it ever is
+            }
             if (!prevBreak.equals(m.toBreak(bsi))) {
-                recalcBP = true;
+                toBreak.set(i, m.toBreak(bsi));
             }
             if (!prevPlace.equals(m.toPlace(bsi))) {
-                recalcBP = true;
+                toPlace.set(i, m.toPlace(bsi));
             }
             if (!prevWalkInto.equals(m.toWalkInto(bsi))) {
-                recalcBP = true;
+                toWalkInto.set(i, m.toWalkInto(bsi));
             }
         }
-        if (recalcBP) {
-            HashSet<BlockPos> newBreak = new HashSet<>();
-            HashSet<BlockPos> newPlace = new HashSet<>();
-            HashSet<BlockPos> newWalkInto = new HashSet<>();
-            for (int i = pathPosition; i < path.movements().size(); i++) {
-                Movement m = (Movement) path.movements().get(i);
-                newBreak.addAll(m.toBreak(bsi));
-                newPlace.addAll(m.toPlace(bsi));
-                newWalkInto.addAll(m.toWalkInto(bsi));
-            }
-            toBreak = newBreak;
-            toPlace = newPlace;
-            toWalkInto = newWalkInto;
-            recalcBP = false;
+        if (blocksCountedFrom == -1) {
+            blocksCountedFrom = path.movements().size();
+        }
+        // only the movements that were passed, or gone back to, since last tick need to change
+        while (blocksCountedFrom < pathPosition) {
+            toBreak.remove(blocksCountedFrom);
+            toPlace.remove(blocksCountedFrom);
+            toWalkInto.remove(blocksCountedFrom);
+            blocksCountedFrom++;
+        }
+        while (blocksCountedFrom > pathPosition) {
+            blocksCountedFrom--;
+            Movement m = (Movement) path.movements().get(blocksCountedFrom);
+            toBreak.set(blocksCountedFrom, m.toBreak(bsi));
+            toPlace.set(blocksCountedFrom, m.toPlace(bsi));
+            toWalkInto.set(blocksCountedFrom, m.toWalkInto(bsi));
         }
         /*long end = System.nanoTime() / 1000000L;
         if (end - start > 0) {
@@ -195,6 +252,7 @@ public class PathExecutor implements IPathExecutor, Helper {
         boolean canCancel = movement.safeToCancel();
         if (costEstimateIndex == null || costEstimateIndex != pathPosition) {
             costEstimateIndex = pathPosition;
+            calibrationEstimate = -1;
             // do this only once, when the movement starts, and deliberately get the cost as cached when this path was calculated, not the cost as it is right now
             currentMovementOriginalCostEstimate = movement.getCost();
             for (int i = 1; i < Baritone.settings().costVerificationLookahead.value && pathPosition + i < path.length() - 1; i++) {
@@ -211,6 +269,10 @@ public class PathExecutor implements IPathExecutor, Helper {
             cancel();
             return true;
         }
+        if (calibrationEstimate == -1) {
+            calibrationEstimate = currentCost;
+            calibrationFlags = calibrationFlags(movement, bsi);
+        }
         if (!movement.calculatedWhileLoaded() && currentCost - currentMovementOriginalCostEstimate > Baritone.settings().maxCostIncrease.value && canCancel) {
             // don't do this if the movement was calculated while loaded
             // that means that this isn't a cache error, it's just part of the path interfering with a later part
@@ -231,12 +293,16 @@ public class PathExecutor implements IPathExecutor, Helper {
         }
         if (movementStatus == SUCCESS) {
             //System.out.println("Movement done, next path");
+            behavior.getCostCalibration().record(CostCalibration.Kind.of(movement), calibrationFlags, movement.getSrc().y - movement.getDest().y, calibrationEstimate, ticksOnCurrent);
             pathPosition++;
             onChangeInPathPosition();
             onTick();
             return true;
         } else {
             sprintNextTick = shouldSprintNextTick();
+            if (sprintNextTick) {
+                calibrationFlags |= CostCalibration.SPRINT;
+            }
             if (!sprintNextTick) {
                 ctx.player().setSprinting(false); // letting go of control doesn't make you stop sprinting actually
             }
@@ -254,19 +320,191 @@ public class PathExecutor implements IPathExecutor, Helper {
         return canCancel; // movement is in progress, but if it reports cancellable, PathingBehavior is good to cut onto the next path
     }
 
-    private Tuple<Double, BlockPos> closestPathPos(IPath path) {
-        double best = -1;
-        BlockPos bestPos = null;
-        for (IMovement movement : path.movements()) {
-            for (BlockPos pos : ((Movement) movement).getValidPositions()) {
-                double dist = VecUtils.entityDistanceToCenter(ctx.player(), pos);
-                if (dist < best || best == -1) {
-                    best = dist;
-                    bestPos = pos;
+    /**
+     * Before this path has started executing, it can sit around for a while as a planned segment, during which the world
+     * can change under it. This recalculates the cost of every movement that hasn't happened yet near a chunk that has
+     * changed since the last time this was called, or since the given version the first time.
+     * <p>
+     * A context that reads from a snapshot of the world can only vouch for changes up to when that snapshot was taken,
+     * so later changes are left to be checked again with a newer context.
+     *
+     * @param context The context to calculate costs with
+     * @return Whether every such movement is still possible
+     */
+    public boolean revalidate(CalculationContext context) {
+        if (context.worldData == null) {
+            return true;
+        }
+        ChunkVersions versions = context.worldData.chunkVersions;
+        long seen = context.safeForThreadedUse ? context.chunkVersion : versions.current();
+        if (seen <= verifiedVersion) {
+            return true;
+        }
+        for (int i = pathPosition; i < path.movements().size(); i++) {
+            Movement movement = (Movement) path.movements().get(i);
+            if (changedSince(versions, movement.getSrc()) || changedSince(versions, movement.getDest())) {
+                if (movement.calculateCost(context) >= ActionCosts.COST_INF) {
+                    return false;
                 }
             }
         }
-        return new Tuple<>(best, bestPos);
+        verifiedVersion = seen;
+        return true;
+    }
+
+    /**
+     * @return Whether the chunk of a position, or a neighboring one that a movement from it could look into, has
+     * changed since {@link #verifiedVersion}
+     */
+    private boolean changedSince(ChunkVersions versions, BetterBlockPos pos) {
+        for (int chunkX = (pos.x - 1) >> 4; chunkX <= (pos.x + 1) >> 4; chunkX++) {
+            for (int chunkZ = (pos.z - 1) >> 4; chunkZ <= (pos.z + 1) >> 4; chunkZ++) {
+                if (versions.get(chunkX, chunkZ) > verifiedVersion) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether a mob has moved into the way of any of the upcoming movements, and if so, searches for a way
+     * around just that stretch of the path in the background. Once it's found, and as long as the stretch hasn't been
+     * reached yet, it's spliced in.
+     *
+     * @return The executor to use from now on, either this one or one for the repaired path
+     */
+    public PathExecutor tryRepair() {
+        Repair repair = this.repair;
+        if (repair != null) {
+            if (!repair.done) {
+                return this;
+            }
+            this.repair = null;
+            if (repair.result == null || pathPosition >= repair.start) {
+                return this;
+            }
+            Optional<SplicedPath> spliced = SplicedPath.trySplice(new CutoffPath(path, 0, repair.start), repair.result, false)
+                    .flatMap(p -> SplicedPath.trySplice(p, new CutoffPath(path, repair.rejoin, path.length() - 1), false));
+            if (!spliced.isPresent()) {
+                return this;
+            }
+            logDebug("Going around mobs between movements " + repair.start + " and " + repair.rejoin);
+            return continueOn(spliced.get(), 0);
+        }
+        if (repairCooldown > 0) {
+            repairCooldown--;
+            return this;
+        }
+        MobTracker tracker = behavior.baritone.getMobTracker();
+        long version = tracker.version();
+        if (version == mobVersion) {
+            return this;
+        }
+        Favoring moved = new Favoring(null, 1, tracker.changedSince(mobVersion));
+        mobVersion = version;
+        int first = -1;
+        int last = -1;
+        for (int i = pathPosition + 1; i <= pathPosition + REPAIR_LOOKAHEAD && i < path.length(); i++) {
+            BetterBlockPos pos = path.positions().get(i);
+            if (moved.calculate(pos.x, pos.y, pos.z, BetterBlockPos.longHash(pos)) != 1.0D) {
+                if (first == -1) {
+                    first = i;
+                }
+                last = i;
+            }
+        }
+        if (first == -1) {
+            return this;
+        }
+        // start from where the current movement ends at the earliest, since that's where we're going to be standing
+        int start = Math.max(pathPosition + 1, first - 1);
+        int rejoin = Math.min(path.length() - 1, last + REPAIR_REJOIN_MARGIN);
+        if (rejoin <= start) {
+            return this; // the end of the path itself is in the way, nothing to go around
+        }
+        Favoring favoring = new Favoring(null, 1, tracker.all());
+        double originalCost = 0;
+        for (int i = start; i < rejoin; i++) {
+            BetterBlockPos dest = path.positions().get(i + 1);
+            originalCost += path.movements().get(i).getCost() * favoring.calculate(dest.x, dest.y, dest.z, BetterBlockPos.longHash(dest));
+        }
+        BetterBlockPos from = path.positions().get(start);
+        BetterBlockPos to = path.positions().get(rejoin);
+        AStarPathFinder finder = new AStarPathFinder(from.x, from.y, from.z, new GoalBlock(to), favoring, new CalculationContext(behavior.baritone, true));
+        Repair started = new Repair(start, rejoin);
+        this.repair = started;
+        repairCooldown = REPAIR_COOLDOWN_TICKS;
+        double cost = originalCost;
+        Baritone.getScheduler().executeFair(TaskScheduler.Lane.PATHING, behavior.baritone, Baritone.settings().pathingQuotaPerBot.value, TaskScheduler.PRIORITY_HIGH, () -> {
+            PathCalculationResult result = finder.calculate(REPAIR_TIMEOUT_MS, REPAIR_TIMEOUT_MS);
+            if (result.getType() == PathCalculationResult.Type.SUCCESS_TO_GOAL) {
+                IPath repaired = result.getPath().get();
+                double repairedCost = 0;
+                for (int i = 0; i < repaired.movements().size(); i++) {
+                    BetterBlockPos dest = repaired.positions().get(i + 1);
+                    repairedCost += repaired.movements().get(i).getCost() * favoring.calculate(dest.x, dest.y, dest.z, BetterBlockPos.longHash(dest));
+                }
+                if (repairedCost < cost) {
+                    started.result = repaired;
+                }
+            }
+            started.done = true;
+        });
+        return this;
+    }
+
+    /**
+     * A search for a way around the stretch of this path between two positions
+     */
+    private static final class Repair {
+
+        private final int start;
+        private final int rejoin;
+        private volatile IPath result;
+        private volatile boolean done;
+
+        private Repair(int start, int rejoin) {
+            this.start = start;
+            this.rejoin = rejoin;
+        }
+    }
+
+    /**
+     * @param version The {@link ChunkVersions} version of the world this path was calculated in
+     */
+    public void setVerifiedVersion(long version) {
+        this.verifiedVersion = version;
+    }
+
+    private static int calibrationFlags(Movement movement, BlockStateInterface bsi) {
+        int flags = 0;
+        BetterBlockPos src = movement.getSrc();
+        BetterBlockPos dest = movement.getDest();
+        if (MovementHelper.isWater(bsi.get0(src).getBlock()) || MovementHelper.isWater(bsi.get0(dest).getBlock())) {
+            flags |= CostCalibration.WATER;
+        }
+        if (bsi.get0(src.down()).getBlock() == Blocks.SOUL_SAND || bsi.get0(dest.down()).getBlock() == Blocks.SOUL_SAND) {
+            flags |= CostCalibration.SOUL_SAND;
+        }
+        if (!movement.toBreak(bsi).isEmpty()) {
+            flags |= CostCalibration.BREAK;
+        }
+        if (!movement.toPlace(bsi).isEmpty()) {
+            flags |= CostCalibration.PLACE;
+        }
+        return flags;
+    }
+
+    private PathPositionIndex positionIndex() {
+        if (positionIndex == null) {
+            List<Set<BetterBlockPos>> validPositions = new ArrayList<>(path.movements().size());
+            for (IMovement movement : path.movements()) {
+                validPositions.add(((Movement) movement).getValidPositions());
+            }
+            positionIndex = new PathPositionIndex(validPositions);
+        }
+        return positionIndex;
     }
 
     private boolean shouldPause() {
@@ -587,12 +825,7 @@ public class PathExecutor implements IPathExecutor, Helper {
             if (!path.getDest().equals(next.getPath().getDest())) {
                 throw new IllegalStateException();
             }
-            PathExecutor ret = new PathExecutor(behavior, path);
-            ret.pathPosition = pathPosition;
-            ret.currentMovementOriginalCostEstimate = currentMovementOriginalCostEstimate;
-            ret.costEstimateIndex = costEstimateIndex;
-            ret.ticksOnCurrent = ticksOnCurrent;
-            return ret;
+            return continueOn(path, 0);
         }).orElseGet(this::cutIfTooLong); // dont actually call cutIfTooLong every tick if we won't actually use it, use a method reference
     }
 
@@ -604,18 +837,31 @@ public class PathExecutor implements IPathExecutor, Helper {
                 throw new IllegalStateException();
             }
             logDebug("Discarding earliest segment movements, length cut from " + path.length() + " to " + newPath.length());
-            PathExecutor ret = new PathExecutor(behavior, newPath);
-            ret.pathPosition = pathPosition - cutoffAmt;
-            ret.currentMovementOriginalCostEstimate = currentMovementOriginalCostEstimate;
-            if (costEstimateIndex != null) {
-                ret.costEstimateIndex = costEstimateIndex - cutoffAmt;
-            }
-            ret.ticksOnCurrent = ticksOnCurrent;
-            return ret;
+            return continueOn(newPath, cutoffAmt);
         }
         return this;
     }
 
+    /**
+     * @param newPath A path with the same movements as this one from the current one onwards
+     * @param removed How many movements were removed from the start of this path to make the new one
+     * @return An executor for the new path that carries on exactly where this one is
+     */
+    private PathExecutor continueOn(IPath newPath, int removed) {
+        PathExecutor ret = new PathExecutor(behavior, newPath);
+        ret.pathPosition = pathPosition - removed;
+        ret.currentMovementOriginalCostEstimate = currentMovementOriginalCostEstimate;
+        if (costEstimateIndex != null) {
+            ret.costEstimateIndex = costEstimateIndex - removed;
+        }
+        ret.ticksOnCurrent = ticksOnCurrent;
+        ret.calibrationEstimate = calibrationEstimate;
+        ret.calibrationFlags = calibrationFlags;
+        ret.mobVersion = mobVersion;
+        ret.repairCooldown = repairCooldown;
+        return ret;
+    }
+
     @Override
     public IPath getPath() {
         return path;
@@ -629,16 +875,25 @@ public class PathExecutor implements IPathExecutor, Helper {
         return pathPosition >= path.length();
     }
 
-    public Set<BlockPos> toBreak() {
-        return Collections.unmodifiableSet(toBreak);
+    /**
+     * @return The blocks the rest of this path will break, as positions packed with {@link BlockPos#toLong()}
+     */
+    public LongSet toBreak() {
+        return toBreak.positions();
     }
 
-    public Set<BlockPos> toPlace() {
-        return Collections.unmodifiableSet(toPlace);
+    /**
+     * @return The blocks the rest of this path will place, as positions packed with {@link BlockPos#toLong()}
+     */
+    public LongSet toPlace() {
+        return toPlace.positions();
     }
 
-    public Set<BlockPos> toWalkInto() {
-        return Collections.unmodifiableSet(toWalkInto);
+    /**
+     * @return The blocks the rest of this path will walk into, as positions packed with {@link BlockPos#toLong()}
+     */
+    public LongSet toWalkInto() {
+        return toWalkInto.positions();
     }
 
     public boolean isSprinting() {
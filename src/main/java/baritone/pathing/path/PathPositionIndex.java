@@ -0,0 +1,193 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.path;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.util.Tuple;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Every valid position of every movement in a path, indexed so that {@link PathExecutor} doesn't have to walk the whole
+ * path every tick to figure out where on it the player is.
+ * <p>
+ * Built once per path, which is fine since paths never change once they are calculated, splicing makes a new one.
+ */
+final class PathPositionIndex {
+
+    /**
+     * Positions are bucketed into cubes of this many blocks (as a shift) for the closest position search
+     */
+    private static final int CELL_SHIFT = 3;
+    private static final int CELL_SIZE = 1 << CELL_SHIFT;
+
+    /**
+     * How many rings of cells around the player to search before giving up and checking every position. Only happens
+     * when the player is far from the path, which cancels it anyway.
+     */
+    private static final int MAX_RING = 3;
+
+    /**
+     * Packed position to the indices, in ascending order, of the movements that consider it valid
+     */
+    private final Long2ObjectMap<int[]> movements = new Long2ObjectOpenHashMap<>();
+    private final Long2ObjectMap<LongArrayList> cells = new Long2ObjectOpenHashMap<>();
+    private final long[] positions;
+    private int minCellX = Integer.MAX_VALUE;
+    private int minCellY = Integer.MAX_VALUE;
+    private int minCellZ = Integer.MAX_VALUE;
+    private int maxCellX = Integer.MIN_VALUE;
+    private int maxCellY = Integer.MIN_VALUE;
+    private int maxCellZ = Integer.MIN_VALUE;
+
+    /**
+     * @param validPositions The valid positions of each movement, in path order
+     */
+    PathPositionIndex(List<? extends Collection<? extends BlockPos>> validPositions) {
+        Long2ObjectMap<IntArrayList> building = new Long2ObjectOpenHashMap<>();
+        LongOpenHashSet distinct = new LongOpenHashSet();
+        for (int i = 0; i < validPositions.size(); i++) {
+            for (BlockPos pos : validPositions.get(i)) {
+                long packed = pos.toLong();
+                IntArrayList indices = building.get(packed);
+                if (indices == null) {
+                    building.put(packed, indices = new IntArrayList(2));
+                }
+                if (indices.isEmpty() || indices.getInt(indices.size() - 1) != i) {
+                    indices.add(i);
+                }
+                if (distinct.add(packed)) {
+                    int cx = pos.getX() >> CELL_SHIFT;
+                    int cy = pos.getY() >> CELL_SHIFT;
+                    int cz = pos.getZ() >> CELL_SHIFT;
+                    cells.computeIfAbsent(cellKey(cx, cy, cz), k -> new LongArrayList()).add(packed);
+                    minCellX = Math.min(minCellX, cx);
+                    minCellY = Math.min(minCellY, cy);
+                    minCellZ = Math.min(minCellZ, cz);
+                    maxCellX = Math.max(maxCellX, cx);
+                    maxCellY = Math.max(maxCellY, cy);
+                    maxCellZ = Math.max(maxCellZ, cz);
+                }
+            }
+        }
+        for (Long2ObjectMap.Entry<IntArrayList> entry : building.long2ObjectEntrySet()) {
+            movements.put(entry.getLongKey(), entry.getValue().toIntArray());
+        }
+        positions = distinct.toLongArray();
+    }
+
+    /**
+     * @param pos  The position
+     * @param from The first movement index to consider, inclusive
+     * @param to   The last movement index to consider, exclusive
+     * @return The lowest index in that range of a movement that considers the position valid, or -1 if there isn't one
+     */
+    int firstMovementContaining(BlockPos pos, int from, int to) {
+        int[] indices = movements.get(pos.toLong());
+        if (indices == null) {
+            return -1;
+        }
+        for (int index : indices) {
+            if (index >= to) {
+                return -1;
+            }
+            if (index >= from) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the position on the path whose center is closest to the given coordinates, searching outward from the cell
+     * they are in.
+     *
+     * @return The distance to the center of the closest position and that position, or -1 and null if the path is empty
+     */
+    Tuple<Double, BlockPos> closest(double x, double y, double z) {
+        int cx = (int) Math.floor(x) >> CELL_SHIFT;
+        int cy = (int) Math.floor(y) >> CELL_SHIFT;
+        int cz = (int) Math.floor(z) >> CELL_SHIFT;
+        double bestSq = -1;
+        long best = 0;
+        for (int ring = 0; ; ring++) {
+            if (ring > MAX_RING) {
+                // nothing nearby, just check all of them
+                for (long packed : positions) {
+                    double distSq = distSqToCenter(packed, x, y, z);
+                    if (bestSq == -1 || distSq < bestSq) {
+                        bestSq = distSq;
+                        best = packed;
+                    }
+                }
+                break;
+            }
+            for (int dx = -ring; dx <= ring; dx++) {
+                for (int dy = -ring; dy <= ring; dy++) {
+                    for (int dz = -ring; dz <= ring; dz++) {
+                        if (Math.max(Math.abs(dx), Math.max(Math.abs(dy), Math.abs(dz))) != ring) {
+                            continue; // already searched on a previous ring
+                        }
+                        LongArrayList cell = cells.get(cellKey(cx + dx, cy + dy, cz + dz));
+                        if (cell == null) {
+                            continue;
+                        }
+                        for (int i = 0; i < cell.size(); i++) {
+                            long packed = cell.getLong(i);
+                            double distSq = distSqToCenter(packed, x, y, z);
+                            if (bestSq == -1 || distSq < bestSq) {
+                                bestSq = distSq;
+                                best = packed;
+                            }
+                        }
+                    }
+                }
+            }
+            // every cell on the next ring is at least this far away, so nothing out there can beat what we have
+            double bound = ring * CELL_SIZE;
+            if (bestSq != -1 && bestSq <= bound * bound) {
+                break;
+            }
+            if (cx - ring <= minCellX && cy - ring <= minCellY && cz - ring <= minCellZ && cx + ring >= maxCellX && cy + ring >= maxCellY && cz + ring >= maxCellZ) {
+                break; // every cell has been searched
+            }
+        }
+        if (bestSq == -1) {
+            return new Tuple<>(-1D, null);
+        }
+        return new Tuple<>(Math.sqrt(bestSq), BlockPos.fromLong(best));
+    }
+
+    private static double distSqToCenter(long packed, double x, double y, double z) {
+        // unpacked by hand rather than with BlockPos.fromLong since this runs for every candidate
+        double dx = (int) (packed >> 38) + 0.5 - x;
+        double dy = (int) (packed << 26 >> 52) + 0.5 - y;
+        double dz = (int) (packed << 38 >> 38) + 0.5 - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static long cellKey(int cx, int cy, int cz) {
+        return (cx & 0x1FFFFFL) | (cy & 0x1FFFFFL) << 21 | (cz & 0x1FFFFFL) << 42;
+    }
+}
@@ -18,6 +18,10 @@
 package baritone.process;
 
 import baritone.Baritone;
+import baritone.api.event.events.BlockChangeEvent;
+import baritone.api.event.events.ChunkEvent;
+import baritone.api.event.events.type.EventState;
+import baritone.api.event.listener.AbstractGameEventListener;
 import baritone.api.pathing.goals.Goal;
 import baritone.api.pathing.goals.GoalBlock;
 import baritone.api.pathing.goals.GoalComposite;
@@ -41,12 +45,20 @@ import baritone.pathing.movement.MovementHelper;
 import baritone.utils.BaritoneProcessHelper;
 import baritone.utils.BlockStateInterface;
 import baritone.utils.PathingCommandContext;
+import baritone.utils.TaskScheduler;
+import baritone.utils.schematic.BuildPlanner;
 import baritone.utils.schematic.MapArtSchematic;
+import baritone.utils.schematic.SchematicProgress;
 import baritone.utils.schematic.SelectionSchematic;
+import baritone.utils.schematic.SlicedSchematic;
 import baritone.utils.schematic.SchematicSystem;
+import baritone.utils.schematic.format.DefaultSchematicFormats;
+import baritone.utils.schematic.format.StreamingSchematicLoader;
 import baritone.utils.schematic.schematica.SchematicaHelper;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import net.minecraft.block.*;
 import net.minecraft.block.properties.IProperty;
@@ -60,6 +72,7 @@ import net.minecraft.util.math.*;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -67,10 +80,16 @@ import static baritone.api.pathing.movement.ActionCosts.COST_INF;
 
 public final class BuilderProcess extends BaritoneProcessHelper implements IBuilderProcess {
 
-    private HashSet<BetterBlockPos> incorrectPositions;
-    private LongOpenHashSet observedCompleted; // positions that are completed even if they're out of render distance and we can't make sure right now
+    private HashSet<BetterBlockPos> incorrectPositions; // the few incorrect positions we're working on right now
+    private volatile SchematicProgress progress; // every incorrect position, kept up to date by block changes and chunk loads
+    private LongOpenHashSet scanning; // chunks that are being scanned off thread, null if there's no scan running
+    private boolean scanned; // whether the first scan of the whole schematic has finished
+    private final LongOpenHashSet loadedChunks = new LongOpenHashSet(); // chunks that have loaded since they were last scanned
+    private final HashSet<BetterBlockPos> changedPositions = new HashSet<>(); // blocks that have changed since the last tick
+    private final HashSet<BetterBlockPos> changedWhileScanning = new HashSet<>();
     private String name;
     private ISchematic realSchematic;
+    private SlicedSchematic streamed; // the streamed schematic that's being built, if any, to release it once we're done with it
     private ISchematic schematic;
     private Vec3i origin;
     private int ticks;
@@ -78,13 +97,52 @@ public final class BuilderProcess extends BaritoneProcessHelper implements IBuil
     private int layer;
     private int numRepeats;
     private List<IBlockState> approxPlaceable;
+    private int layerMinY;
+    private int layerMaxY;
+    private final BuildPlanner planner = new BuildPlanner(); // the order to build chunks of this layer in
+    private BetterBlockPos nearbyCenter; // where the player was standing when nearbyIncorrect was last updated
+    private final HashSet<BetterBlockPos> nearbyIncorrect = new HashSet<>(); // incorrect positions within NEARBY_RADIUS of nearbyCenter
+    private Vec3d traceEye; // the eye position that placementTraces were traced from
+    private final Long2ObjectOpenHashMap<RayTraceResult[]> placementTraces = new Long2ObjectOpenHashMap<>();
+
+    /**
+     * How far around the player we look for things to break and place
+     */
+    private static final int NEARBY_RADIUS = 5;
+
+    /**
+     * Cached in {@link #placementTraces} for a side that can't be clicked on
+     */
+    private static final RayTraceResult NO_HIT = new RayTraceResult(RayTraceResult.Type.MISS, Vec3d.ZERO, EnumFacing.UP, BlockPos.ORIGIN);
 
     public BuilderProcess(Baritone baritone) {
         super(baritone);
+        baritone.getGameEventHandler().registerEventListener(new AbstractGameEventListener() {
+            @Override
+            public void onBlockChange(BlockChangeEvent event) {
+                if (event.getBlocks().stream().anyMatch(block -> withinTraceReach(block.getFirst()))) {
+                    placementTraces.clear(); // a changed block could be in the way of any of them
+                }
+                if (progress != null && overlapsChunk(event.getChunkPos().x, event.getChunkPos().z)) {
+                    event.getBlocks().forEach(block -> changedPositions.add(BetterBlockPos.from(block.getFirst())));
+                }
+            }
+
+            @Override
+            public void onChunkEvent(ChunkEvent event) {
+                if (event.getState() == EventState.POST && chunkWithinTraceReach(event.getX(), event.getZ())) {
+                    placementTraces.clear(); // any of them could have been traced through the chunk before it loaded
+                }
+                if (progress != null && event.getState() == EventState.POST && event.getType() != ChunkEvent.Type.UNLOAD && overlapsChunk(event.getX(), event.getZ())) {
+                    loadedChunks.add(ChunkPos.asLong(event.getX(), event.getZ()));
+                }
+            }
+        });
     }
 
     @Override
     public void build(String name, ISchematic schematic, Vec3i origin) {
+        releaseStreamed();
         this.name = name;
         this.schematic = schematic;
         this.realSchematic = null;
@@ -107,7 +165,7 @@ public final class BuilderProcess extends BaritoneProcessHelper implements IBuil
         this.paused = false;
         this.layer = Baritone.settings().startAtLayer.value;
         this.numRepeats = 0;
-        this.observedCompleted = new LongOpenHashSet();
+        this.progress = null;
         this.incorrectPositions = null;
     }
 
@@ -132,8 +190,14 @@ public final class BuilderProcess extends BaritoneProcessHelper implements IBuil
         }
 
         ISchematic parsed;
+        SlicedSchematic sliced = null;
         try {
-            parsed = format.get().parse(new FileInputStream(schematic));
+            if (format.get() instanceof DefaultSchematicFormats && schematic.length() >= Baritone.settings().schematicStreamingThreshold.value) {
+                sliced = StreamingSchematicLoader.load(schematic);
+                parsed = sliced;
+            } else {
+                parsed = format.get().parse(new FileInputStream(schematic));
+            }
         } catch (Exception e) {
             e.printStackTrace();
             return false;
@@ -149,9 +213,21 @@ public final class BuilderProcess extends BaritoneProcessHelper implements IBuil
 
 
         build(name, parsed, origin);
+        streamed = sliced;
         return true;
     }
 
+    private void releaseStreamed() {
+        if (streamed != null) {
+            try {
+                streamed.close();
+            } catch (IOException e) {
+                logDebug("Couldn't delete the temporary file of a streamed schematic: " + e);
+            }
+            streamed = null;
+        }
+    }
+
     @Override
     public void buildOpenSchematic() {
         if (SchematicaHelper.isSchematicaPresent()) {
@@ -211,31 +287,82 @@ public final class BuilderProcess extends BaritoneProcessHelper implements IBuil
     private Optional<Tuple<BetterBlockPos, Rotation>> toBreakNearPlayer(BuilderCalculationContext bcc) {
         BetterBlockPos center = ctx.playerFeet();
         BetterBlockPos pathStart = baritone.getPathingBehavior().pathStart();
-        for (int dx = -5; dx <= 5; dx++) {
-            for (int dy = Baritone.settings().breakFromAbove.value ? -1 : 0; dy <= 5; dy++) {
-                for (int dz = -5; dz <= 5; dz++) {
-                    int x = center.x + dx;
-                    int y = center.y + dy;
-                    int z = center.z + dz;
-                    if (dy == -1 && x == pathStart.x && z == pathStart.z) {
-                        continue; // dont mine what we're supported by, but not directly standing on
-                    }
-                    IBlockState desired = bcc.getSchematic(x, y, z, bcc.bsi.get0(x, y, z));
-                    if (desired == null) {
-                        continue; // irrelevant
-                    }
-                    IBlockState curr = bcc.bsi.get0(x, y, z);
-                    if (curr.getBlock() != Blocks.AIR && !(curr.getBlock() instanceof BlockLiquid) && !valid(curr, desired, false)) {
-                        BetterBlockPos pos = new BetterBlockPos(x, y, z);
-                        Optional<Rotation> rot = RotationUtils.reachable(ctx.player(), pos, ctx.playerController().getBlockReachDistance());
-                        if (rot.isPresent()) {
-                            return Optional.of(new Tuple<>(pos, rot.get()));
+        int minDy = Baritone.settings().breakFromAbove.value ? -1 : 0;
+        for (BetterBlockPos pos : nearbyCandidates(center)) {
+            int dy = pos.y - center.y;
+            if (dy < minDy) {
+                continue;
+            }
+            if (dy == -1 && pos.x == pathStart.x && pos.z == pathStart.z) {
+                continue; // dont mine what we're supported by, but not directly standing on
+            }
+            IBlockState desired = bcc.getSchematic(pos.x, pos.y, pos.z, bcc.bsi.get0(pos));
+            if (desired == null) {
+                continue; // irrelevant
+            }
+            IBlockState curr = bcc.bsi.get0(pos);
+            if (curr.getBlock() != Blocks.AIR && !(curr.getBlock() instanceof BlockLiquid) && !valid(curr, desired, false)) {
+                Optional<Rotation> rot = baritone.getReachabilityCache().reachable(pos);
+                if (rot.isPresent()) {
+                    return Optional.of(new Tuple<>(pos, rot.get()));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Brings {@link #nearbyIncorrect} up to date with where the player is standing. Moving by a block only needs to look
+     * at the slice of positions that came into range, instead of the whole cube.
+     *
+     * @return The incorrect positions around the player, closest first
+     */
+    private List<BetterBlockPos> nearbyCandidates(BetterBlockPos center) {
+        if (nearbyCenter == null || !isNearby(center, nearbyCenter, 2 * NEARBY_RADIUS)) {
+            nearbyIncorrect.clear();
+            nearbyCenter = null;
+        }
+        if (!center.equals(nearbyCenter)) {
+            BetterBlockPos previous = nearbyCenter;
+            nearbyIncorrect.removeIf(pos -> !isNearby(pos, center, NEARBY_RADIUS));
+            for (int dx = -NEARBY_RADIUS; dx <= NEARBY_RADIUS; dx++) {
+                for (int dy = -NEARBY_RADIUS; dy <= NEARBY_RADIUS; dy++) {
+                    for (int dz = -NEARBY_RADIUS; dz <= NEARBY_RADIUS; dz++) {
+                        int x = center.x + dx;
+                        int y = center.y + dy;
+                        int z = center.z + dz;
+                        if (previous != null && Math.abs(x - previous.x) <= NEARBY_RADIUS && Math.abs(y - previous.y) <= NEARBY_RADIUS && Math.abs(z - previous.z) <= NEARBY_RADIUS) {
+                            continue; // already known
+                        }
+                        if (progress.isIncorrect(x, y, z)) {
+                            nearbyIncorrect.add(new BetterBlockPos(x, y, z));
                         }
                     }
                 }
             }
+            nearbyCenter = center;
+        }
+        List<BetterBlockPos> candidates = new ArrayList<>(nearbyIncorrect);
+        candidates.sort(Comparator.comparingDouble(pos -> pos.distanceSq(center)));
+        return candidates;
+    }
+
+    private static boolean isNearby(BetterBlockPos pos, BetterBlockPos center, int radius) {
+        return Math.abs(pos.x - center.x) <= radius && Math.abs(pos.y - center.y) <= radius && Math.abs(pos.z - center.z) <= radius;
+    }
+
+    /**
+     * Updates whether a position is incorrect, everywhere that that's kept track of
+     */
+    private void setIncorrect(int x, int y, int z, boolean incorrect) {
+        progress.set(x, y, z, incorrect);
+        if (nearbyCenter != null && Math.abs(x - nearbyCenter.x) <= NEARBY_RADIUS && Math.abs(y - nearbyCenter.y) <= NEARBY_RADIUS && Math.abs(z - nearbyCenter.z) <= NEARBY_RADIUS) {
+            if (progress.isIncorrect(x, y, z)) {
+                nearbyIncorrect.add(new BetterBlockPos(x, y, z));
+            } else {
+                nearbyIncorrect.remove(new BetterBlockPos(x, y, z));
+            }
         }
-        return Optional.empty();
     }
 
     public static class Placement {
@@ -255,27 +382,27 @@ public final class BuilderProcess extends BaritoneProcessHelper implements IBuil
 
     private Optional<Placement> searchForPlaceables(BuilderCalculationContext bcc, List<IBlockState> desirableOnHotbar) {
         BetterBlockPos center = ctx.playerFeet();
-        for (int dx = -5; dx <= 5; dx++) {
-            for (int dy = -5; dy <= 1; dy++) {
-                for (int dz = -5; dz <= 5; dz++) {
-                    int x = center.x + dx;
-                    int y = center.y + dy;
-                    int z = center.z + dz;
-                    IBlockState desired = bcc.getSchematic(x, y, z, bcc.bsi.get0(x, y, z));
-                    if (desired == null) {
-                        continue; // irrelevant
-                    }
-                    IBlockState curr = bcc.bsi.get0(x, y, z);
-                    if (MovementHelper.isReplaceable(x, y, z, curr, bcc.bsi) && !valid(curr, desired, false)) {
-                        if (dy == 1 && bcc.bsi.get0(x, y + 1, z).getBlock() == Blocks.AIR) {
-                            continue;
-                        }
-                        desirableOnHotbar.add(desired);
-                        Optional<Placement> opt = possibleToPlace(desired, x, y, z, bcc.bsi);
-                        if (opt.isPresent()) {
-                            return opt;
-                        }
-                    }
+        for (BetterBlockPos pos : nearbyCandidates(center)) {
+            int x = pos.x;
+            int y = pos.y;
+            int z = pos.z;
+            int dy = y - center.y;
+            if (dy > 1) {
+                continue;
+            }
+            IBlockState desired = bcc.getSchematic(x, y, z, bcc.bsi.get0(x, y, z));
+            if (desired == null) {
+                continue; // irrelevant
+            }
+            IBlockState curr = bcc.bsi.get0(x, y, z);
+            if (MovementHelper.isReplaceable(x, y, z, curr, bcc.bsi) && !valid(curr, desired, false)) {
+                if (dy == 1 && bcc.bsi.get0(x, y + 1, z).getBlock() == Blocks.AIR) {
+                    continue;
+                }
+                desirableOnHotbar.add(desired);
+                Optional<Placement> opt = possibleToPlace(desired, x, y, z, bcc.bsi);
+                if (opt.isPresent()) {
+                    return opt;
                 }
             }
         }
@@ -293,13 +420,15 @@ public final class BuilderProcess extends BaritoneProcessHelper implements IBuil
                 continue;
             }
             AxisAlignedBB aabb = placeAgainstState.getBoundingBox(ctx.world(), placeAgainstPos);
-            for (Vec3d placementMultiplier : aabbSideMultipliers(against)) {
+            Vec3d[] placementMultipliers = aabbSideMultipliers(against);
+            for (int i = 0; i < placementMultipliers.length; i++) {
+                Vec3d placementMultiplier = placementMultipliers[i];
                 double placeX = placeAgainstPos.x + aabb.minX * placementMultiplier.x + aabb.maxX * (1 - placementMultiplier.x);
                 double placeY = placeAgainstPos.y + aabb.minY * placementMultiplier.y + aabb.maxY * (1 - placementMultiplier.y);
                 double placeZ = placeAgainstPos.z + aabb.minZ * placementMultiplier.z + aabb.maxZ * (1 - placementMultiplier.z);
                 Rotation rot = RotationUtils.calcRotationFromVec3d(RayTraceUtils.inferSneakingEyePosition(ctx.player()), new Vec3d(placeX, placeY, placeZ), ctx.playerRotations());
-                RayTraceResult result = RayTraceUtils.rayTraceTowards(ctx.player(), rot, ctx.playerController().getBlockReachDistance(), true);
-                if (result != null && result.typeOfHit == RayTraceResult.Type.BLOCK && result.getBlockPos().equals(placeAgainstPos) && result.sideHit == against.getOpposite()) {
+                RayTraceResult result = placementTrace(placeAgainstPos, against, i, rot);
+                if (result.typeOfHit == RayTraceResult.Type.BLOCK && result.getBlockPos().equals(placeAgainstPos) && result.sideHit == against.getOpposite()) {
                     OptionalInt hotbar = hasAnyItemThatWouldPlace(toPlace, result, rot);
                     if (hotbar.isPresent()) {
                         return Optional.of(new Placement(hotbar.getAsInt(), placeAgainstPos, against.getOpposite(), rot));
@@ -310,6 +439,30 @@ public final class BuilderProcess extends BaritoneProcessHelper implements IBuil
         return Optional.empty();
     }
 
+    /**
+     * Ray traces towards one of the points on the side of a block that we could click to place against it. The same
+     * points get traced every tick while we're standing still, so the results are kept until we move or a block
+     * changes.
+     */
+    private RayTraceResult placementTrace(BetterBlockPos placeAgainst, EnumFacing against, int point, Rotation rot) {
+        Vec3d eye = RayTraceUtils.inferSneakingEyePosition(ctx.player());
+        if (!eye.equals(traceEye)) {
+            placementTraces.clear();
+            traceEye = eye;
+        }
+        RayTraceResult[] traces = placementTraces.get(placeAgainst.toLong());
+        if (traces == null) {
+            traces = new RayTraceResult[EnumFacing.values().length * 5]; // at most 5 points per side, see aabbSideMultipliers
+            placementTraces.put(placeAgainst.toLong(), traces);
+        }
+        int index = against.ordinal() * 5 + point;
+        if (traces[index] == null) {
+            RayTraceResult result = RayTraceUtils.rayTraceTowards(ctx.player(), rot, ctx.playerController().getBlockReachDistance(), true);
+            traces[index] = result == null ? NO_HIT : result;
+        }
+        return traces[index];
+    }
+
     private OptionalInt hasAnyItemThatWouldPlace(IBlockState desired, RayTraceResult result, Rotation rot) {
         for (int i = 0; i < 9; i++) {
             ItemStack stack = ctx.player().inventory.mainInventory.get(i);
@@ -377,6 +530,8 @@ public final class BuilderProcess extends BaritoneProcessHelper implements IBuil
         if (paused) {
             return new PathingCommand(null, PathingCommandType.CANCEL_AND_SET_GOAL);
         }
+        layerMinY = 0;
+        layerMaxY = Integer.MAX_VALUE;
         if (Baritone.settings().buildInLayers.value) {
             if (realSchematic == null) {
                 realSchematic = schematic;
@@ -393,6 +548,8 @@ public final class BuilderProcess extends BaritoneProcessHelper implements IBuil
                 maxYInclusive = layer * Baritone.settings().layerHeight.value - 1;
                 minYInclusive = 0;
             }
+            layerMinY = minYInclusive;
+            layerMaxY = maxYInclusive;
             schematic = new ISchematic() {
                 @Override
                 public IBlockState desiredState(int x, int y, int z, IBlockState current, List<IBlockState> approxPlaceable) {
@@ -426,10 +583,15 @@ public final class BuilderProcess extends BaritoneProcessHelper implements IBuil
             };
         }
         BuilderCalculationContext bcc = new BuilderCalculationContext();
+        if (!scan(bcc)) {
+            // still looking through the schematic to see what needs to be done
+            return new PathingCommand(null, PathingCommandType.REQUEST_PAUSE);
+        }
         if (!recalc(bcc)) {
             if (Baritone.settings().buildInLayers.value && layer * Baritone.settings().layerHeight.value < realSchematic.heightY()) {
                 logDirect("Starting layer " + layer);
                 layer++;
+                planner.reset();
                 return onTick(calcFailed, isSafeToCancel, recursions + 1);
             }
             Vec3i repeat = Baritone.settings().buildRepeat.value;
@@ -446,6 +608,7 @@ public final class BuilderProcess extends BaritoneProcessHelper implements IBuil
             // build repeat time
             layer = 0;
             origin = new BlockPos(origin).add(repeat);
+            progress = null;
             if (!Baritone.settings().buildRepeatSneaky.value) {
                 schematic.reset();
             }
@@ -517,9 +680,15 @@ public final class BuilderProcess extends BaritoneProcessHelper implements IBuil
         if (goal == null) {
             goal = assemble(bcc, approxPlaceable, true); // we're far away, so assume that we have our whole inventory to recalculate placeable properly
             if (goal == null) {
+                // nothing can be done in this chunk right now, but maybe in the next one
+                incorrectPositions.clear();
+                if (planner.skip(progress, incorrectPositions, minBuildY(), maxBuildY(), Baritone.settings().incorrectSize.value)) {
+                    return onTick(calcFailed, isSafeToCancel, recursions + 1);
+                }
                 if (Baritone.settings().skipFailedLayers.value && Baritone.settings().buildInLayers.value && layer * Baritone.settings().layerHeight.value < realSchematic.heightY()) {
                     logDirect("Skipping layer that I cannot construct! Layer #" + layer);
                     layer++;
+                    planner.reset();
                     return onTick(calcFailed, isSafeToCancel, recursions + 1);
                 }
                 logDirect("Unable to do it. Pausing. resume to resume, cancel to cancel");
@@ -530,21 +699,233 @@ public final class BuilderProcess extends BaritoneProcessHelper implements IBuil
         return new PathingCommandContext(goal, PathingCommandType.FORCE_REVALIDATE_GOAL_AND_PATH, bcc);
     }
 
-    private boolean recalc(BuilderCalculationContext bcc) {
-        if (incorrectPositions == null) {
+    private ISchematic fullSchematic() {
+        return realSchematic != null ? realSchematic : schematic;
+    }
+
+    /**
+     * @return Whether a block is close enough to the eye position that {@link #placementTraces} were traced from to
+     * be in the way of any of them
+     */
+    private boolean withinTraceReach(BlockPos pos) {
+        Vec3d eye = traceEye;
+        if (eye == null) {
+            return false;
+        }
+        double reach = ctx.playerController().getBlockReachDistance() + 1;
+        return pos.distanceSqToCenter(eye.x, eye.y, eye.z) <= reach * reach;
+    }
+
+    private boolean chunkWithinTraceReach(int chunkX, int chunkZ) {
+        Vec3d eye = traceEye;
+        if (eye == null) {
+            return false;
+        }
+        double reach = ctx.playerController().getBlockReachDistance() + 1;
+        double dx = Math.max(0, Math.max((chunkX << 4) - eye.x, eye.x - ((chunkX << 4) + 16)));
+        double dz = Math.max(0, Math.max((chunkZ << 4) - eye.z, eye.z - ((chunkZ << 4) + 16)));
+        return dx * dx + dz * dz <= reach * reach;
+    }
+
+    private boolean overlapsChunk(int chunkX, int chunkZ) {
+        ISchematic schematic = fullSchematic();
+        Vec3i origin = this.origin;
+        return schematic != null && origin != null
+                && (chunkX << 4) + 15 >= origin.getX() && chunkX << 4 < origin.getX() + schematic.widthX()
+                && (chunkZ << 4) + 15 >= origin.getZ() && chunkZ << 4 < origin.getZ() + schematic.lengthZ();
+    }
+
+    /**
+     * Makes sure that the progress of the schematic is being tracked, and rescans chunks that have loaded since we
+     * last saw them. Scanning happens off thread, since a big schematic has tens of millions of positions.
+     *
+     * @return Whether the first scan of the whole schematic has finished
+     */
+    private boolean scan(BuilderCalculationContext bcc) {
+        if (progress == null) {
+            ISchematic schematic = fullSchematic();
+            progress = new SchematicProgress(origin.getY(), schematic.heightY());
             incorrectPositions = new HashSet<>();
-            fullRecalc(bcc);
-            if (incorrectPositions.isEmpty()) {
-                return false;
+            planner.reset();
+            nearbyCenter = null;
+            scanning = null;
+            scanned = false;
+            loadedChunks.clear();
+            changedPositions.clear();
+            changedWhileScanning.clear();
+            LongOpenHashSet chunks = new LongOpenHashSet();
+            for (int chunkX = origin.getX() >> 4; chunkX <= (origin.getX() + schematic.widthX() - 1) >> 4; chunkX++) {
+                for (int chunkZ = origin.getZ() >> 4; chunkZ <= (origin.getZ() + schematic.lengthZ() - 1) >> 4; chunkZ++) {
+                    chunks.add(ChunkPos.asLong(chunkX, chunkZ));
+                }
             }
+            startScan(chunks);
+        }
+        if (scanned && scanning == null && !loadedChunks.isEmpty()) {
+            LongOpenHashSet chunks = new LongOpenHashSet(loadedChunks);
+            loadedChunks.clear();
+            startScan(chunks);
         }
+        return scanned;
+    }
+
+    private void startScan(LongOpenHashSet chunks) {
+        SchematicProgress progress = this.progress;
+        ISchematic schematic = fullSchematic();
+        Vec3i origin = this.origin;
+        List<IBlockState> approxPlaceable = this.approxPlaceable;
+        BlockStateInterface bsi = new BlockStateInterface(ctx, true);
+        scanning = chunks;
+        Baritone.getScheduler().execute(TaskScheduler.Lane.SCANNING, () -> {
+            Long2ObjectOpenHashMap<BitSet> result = new Long2ObjectOpenHashMap<>();
+            for (long chunk : chunks) {
+                if (this.progress != progress) {
+                    return; // we've moved on, and the schematic might have been released
+                }
+                result.put(chunk, scanChunk(progress, schematic, origin, approxPlaceable, bsi, (int) chunk, (int) (chunk >> 32)));
+            }
+            mc.addScheduledTask(() -> {
+                if (this.progress != progress) {
+                    return; // we've moved on to something else since this scan started
+                }
+                for (Long2ObjectMap.Entry<BitSet> entry : result.long2ObjectEntrySet()) {
+                    progress.setChunk((int) entry.getLongKey(), (int) (entry.getLongKey() >> 32), entry.getValue());
+                }
+                scanning = null;
+                scanned = true;
+                nearbyCenter = null;
+                // the scan might have seen these blocks before they changed
+                changedPositions.addAll(changedWhileScanning);
+                changedWhileScanning.clear();
+            });
+        });
+    }
+
+    private BitSet scanChunk(SchematicProgress progress, ISchematic schematic, Vec3i origin, List<IBlockState> approxPlaceable, BlockStateInterface bsi, int chunkX, int chunkZ) {
+        BitSet bits = new BitSet();
+        int minX = Math.max(chunkX << 4, origin.getX());
+        int maxX = Math.min((chunkX << 4) + 15, origin.getX() + schematic.widthX() - 1);
+        int minZ = Math.max(chunkZ << 4, origin.getZ());
+        int maxZ = Math.min((chunkZ << 4) + 15, origin.getZ() + schematic.lengthZ() - 1);
+        boolean loaded = bsi.worldContainsLoadedChunk(chunkX << 4, chunkZ << 4); // check if its in render distance, not if its in cache
+        for (int y = 0; y < schematic.heightY(); y++) {
+            for (int blockZ = minZ; blockZ <= maxZ; blockZ++) {
+                for (int blockX = minX; blockX <= maxX; blockX++) {
+                    int blockY = y + origin.getY();
+                    IBlockState current = bsi.get0(blockX, blockY, blockZ);
+                    if (!schematic.inSchematic(blockX - origin.getX(), y, blockZ - origin.getZ(), current)) {
+                        continue;
+                    }
+                    IBlockState desired = schematic.desiredState(blockX - origin.getX(), y, blockZ - origin.getZ(), current, approxPlaceable);
+                    if (loaded) {
+                        // we can directly observe this block, it is in render distance
+                        if (!valid(current, desired, false)) {
+                            bits.set(progress.index(blockX, blockY, blockZ));
+                        }
+                    } else if (!Baritone.settings().buildSkipBlocks.value.contains(desired.getBlock())) {
+                        // we've never seen this position be correct, since it would have been remembered if we had
+                        bits.set(progress.index(blockX, blockY, blockZ));
+                    }
+                }
+            }
+        }
+        return bits;
+    }
+
+    private boolean recalc(BuilderCalculationContext bcc) {
+        for (BetterBlockPos pos : changedPositions) {
+            recheck(bcc, pos);
+            if (scanning != null && scanning.contains(ChunkPos.asLong(pos.x >> 4, pos.z >> 4))) {
+                changedWhileScanning.add(pos);
+            }
+        }
+        changedPositions.clear();
         recalcNearby(bcc);
+        incorrectPositions.removeIf(pos -> !progress.isIncorrect(pos.x, pos.y, pos.z));
         if (incorrectPositions.isEmpty()) {
-            fullRecalc(bcc);
+            nextFromPlan(bcc);
         }
         return !incorrectPositions.isEmpty();
     }
 
+    /**
+     * Refills the incorrect positions from the chunk we're currently working on, see {@link BuildPlanner#next}
+     */
+    private void nextFromPlan(BuilderCalculationContext bcc) {
+        BetterBlockPos feet = ctx.playerFeet();
+        planner.next(progress, (pos, into) -> dependencies(bcc, pos, into), incorrectPositions, minBuildY(), maxBuildY(), Baritone.settings().incorrectSize.value, feet.x >> 4, feet.z >> 4);
+    }
+
+    /**
+     * What has to be built before an incorrect position can be, for {@link BuildPlanner}
+     */
+    private void dependencies(BuilderCalculationContext bcc, BetterBlockPos pos, Collection<BetterBlockPos> into) {
+        IBlockState desired = bcc.getSchematic(pos.x, pos.y, pos.z, bcc.bsi.get0(pos));
+        if (desired == null || desired.getBlock() == Blocks.AIR) {
+            return; // breaking doesn't need anything else to be done first
+        }
+        BetterBlockPos below = pos.down();
+        BetterBlockPos[] sides = {pos.north(), pos.south(), pos.east(), pos.west()};
+        if (desired.getBlock() instanceof BlockLiquid) {
+            // it flows into whatever is still open below and next to it, so all of that goes first
+            if (isSolidInSchematic(bcc, below)) {
+                into.add(below);
+            }
+            for (BetterBlockPos side : sides) {
+                if (isSolidInSchematic(bcc, side)) {
+                    into.add(side);
+                }
+            }
+            return;
+        }
+        if (desired.getBlock() instanceof BlockFalling) {
+            // nothing to the side can hold it up, it needs whatever is below it
+            into.add(below);
+            return;
+        }
+        if (isSolidInSchematic(bcc, below) || !MovementHelper.isReplaceable(below.x, below.y, below.z, bcc.bsi.get0(below), bcc.bsi)) {
+            return; // placed against the block below
+        }
+        List<BetterBlockPos> supports = new ArrayList<>();
+        for (BetterBlockPos side : sides) {
+            if (!MovementHelper.isReplaceable(side.x, side.y, side.z, bcc.bsi.get0(side), bcc.bsi)) {
+                return; // something is already there to place against
+            }
+            if (isSolidInSchematic(bcc, side)) {
+                if (side.x >> 4 == pos.x >> 4 && side.z >> 4 == pos.z >> 4) {
+                    return; // can be placed against something in the same batch
+                }
+                supports.add(side);
+            }
+        }
+        into.addAll(supports);
+    }
+
+    private static boolean isSolidInSchematic(BuilderCalculationContext bcc, BetterBlockPos pos) {
+        IBlockState desired = bcc.getSchematic(pos.x, pos.y, pos.z, bcc.bsi.get0(pos));
+        return desired != null && desired.getBlock() != Blocks.AIR && !(desired.getBlock() instanceof BlockLiquid);
+    }
+
+    private int minBuildY() {
+        return origin.getY() + layerMinY;
+    }
+
+    private int maxBuildY() {
+        return origin.getY() + Math.min(layerMaxY, fullSchematic().heightY() - 1);
+    }
+
+    private void recheck(BuilderCalculationContext bcc, BetterBlockPos pos) {
+        ISchematic schematic = fullSchematic();
+        int x = pos.x - origin.getX();
+        int y = pos.y - origin.getY();
+        int z = pos.z - origin.getZ();
+        if (x < 0 || y < 0 || z < 0 || x >= schematic.widthX() || y >= schematic.heightY() || z >= schematic.lengthZ()) {
+            return;
+        }
+        IBlockState current = bcc.bsi.get0(pos);
+        setIncorrect(pos.x, pos.y, pos.z, schematic.inSchematic(x, y, z, current) && !valid(current, schematic.desiredState(x, y, z, current, this.approxPlaceable), false));
+    }
+
     private void trim() {
         HashSet<BetterBlockPos> copy = new HashSet<>(incorrectPositions);
         copy.removeIf(pos -> pos.distanceSq(ctx.player().posX, ctx.player().posY, ctx.player().posZ) > 200);
@@ -556,65 +937,38 @@ public final class BuilderProcess extends BaritoneProcessHelper implements IBuil
     private void recalcNearby(BuilderCalculationContext bcc) {
         BetterBlockPos center = ctx.playerFeet();
         int radius = Baritone.settings().builderTickScanRadius.value;
+        // block changes and chunk scans keep the nearby positions up to date, so only the incorrect ones need a look
+        for (BetterBlockPos pos : nearbyCandidates(center)) {
+            if (isNearby(pos, center, radius)) {
+                recalcNearby(bcc, pos.x, pos.y, pos.z);
+            }
+        }
+        if (radius <= NEARBY_RADIUS) {
+            return;
+        }
         for (int dx = -radius; dx <= radius; dx++) {
             for (int dy = -radius; dy <= radius; dy++) {
                 for (int dz = -radius; dz <= radius; dz++) {
-                    int x = center.x + dx;
-                    int y = center.y + dy;
-                    int z = center.z + dz;
-                    IBlockState desired = bcc.getSchematic(x, y, z, bcc.bsi.get0(x, y, z));
-                    if (desired != null) {
-                        // we care about this position
-                        BetterBlockPos pos = new BetterBlockPos(x, y, z);
-                        if (valid(bcc.bsi.get0(x, y, z), desired, false)) {
-                            incorrectPositions.remove(pos);
-                            observedCompleted.add(BetterBlockPos.longHash(pos));
-                        } else {
-                            incorrectPositions.add(pos);
-                            observedCompleted.remove(BetterBlockPos.longHash(pos));
-                        }
+                    if (Math.abs(dx) <= NEARBY_RADIUS && Math.abs(dy) <= NEARBY_RADIUS && Math.abs(dz) <= NEARBY_RADIUS) {
+                        continue; // already covered by the candidates
                     }
+                    recalcNearby(bcc, center.x + dx, center.y + dy, center.z + dz);
                 }
             }
         }
     }
 
-    private void fullRecalc(BuilderCalculationContext bcc) {
-        incorrectPositions = new HashSet<>();
-        for (int y = 0; y < schematic.heightY(); y++) {
-            for (int z = 0; z < schematic.lengthZ(); z++) {
-                for (int x = 0; x < schematic.widthX(); x++) {
-                    int blockX = x + origin.getX();
-                    int blockY = y + origin.getY();
-                    int blockZ = z + origin.getZ();
-                    IBlockState current = bcc.bsi.get0(blockX, blockY, blockZ);
-                    if (!schematic.inSchematic(x, y, z, current)) {
-                        continue;
-                    }
-                    if (bcc.bsi.worldContainsLoadedChunk(blockX, blockZ)) { // check if its in render distance, not if its in cache
-                        // we can directly observe this block, it is in render distance
-                        if (valid(bcc.bsi.get0(blockX, blockY, blockZ), schematic.desiredState(x, y, z, current, this.approxPlaceable), false)) {
-                            observedCompleted.add(BetterBlockPos.longHash(blockX, blockY, blockZ));
-                        } else {
-                            incorrectPositions.add(new BetterBlockPos(blockX, blockY, blockZ));
-                            observedCompleted.remove(BetterBlockPos.longHash(blockX, blockY, blockZ));
-                            if (incorrectPositions.size() > Baritone.settings().incorrectSize.value) {
-                                return;
-                            }
-                        }
-                        continue;
-                    }
-                    // this is not in render distance
-                    if (!observedCompleted.contains(BetterBlockPos.longHash(blockX, blockY, blockZ))
-                          && !Baritone.settings().buildSkipBlocks.value.contains(schematic.desiredState(x, y, z, current, this.approxPlaceable).getBlock())) {
-                        // and we've never seen this position be correct
-                        // therefore mark as incorrect
-                        incorrectPositions.add(new BetterBlockPos(blockX, blockY, blockZ));
-                        if (incorrectPositions.size() > Baritone.settings().incorrectSize.value) {
-                            return;
-                        }
-                    }
-                }
+    private void recalcNearby(BuilderCalculationContext bcc, int x, int y, int z) {
+        IBlockState desired = bcc.getSchematic(x, y, z, bcc.bsi.get0(x, y, z));
+        if (desired != null) {
+            // we care about this position
+            BetterBlockPos pos = new BetterBlockPos(x, y, z);
+            if (valid(bcc.bsi.get0(x, y, z), desired, false)) {
+                incorrectPositions.remove(pos);
+                setIncorrect(x, y, z, false);
+            } else {
+                incorrectPositions.add(pos);
+                setIncorrect(x, y, z, true);
             }
         }
     }
@@ -805,6 +1159,7 @@ public final class BuilderProcess extends BaritoneProcessHelper implements IBuil
 
     @Override
     public void onLostControl() {
+        releaseStreamed();
         incorrectPositions = null;
         name = null;
         schematic = null;
@@ -812,7 +1167,10 @@ public final class BuilderProcess extends BaritoneProcessHelper implements IBuil
         layer = Baritone.settings().startAtLayer.value;
         numRepeats = 0;
         paused = false;
-        observedCompleted = null;
+        progress = null;
+        scanning = null;
+        traceEye = null;
+        placementTraces.clear();
     }
 
     @Override
@@ -904,6 +1262,11 @@ public final class BuilderProcess extends BaritoneProcessHelper implements IBuil
             this.backtrackCostFavoringCoefficient = 1;
         }
 
+        @Override
+        public List<Object> fingerprint() {
+            return null; // costs depend on the schematic and on what's already been built
+        }
+
         private IBlockState getSchematic(int x, int y, int z, IBlockState current) {
             if (schematic.inSchematic(x - originX, y - originY, z - originZ, current)) {
                 return schematic.desiredState(x - originX, y - originY, z - originZ, current, BuilderProcess.this.approxPlaceable);
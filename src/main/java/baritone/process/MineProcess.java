@@ -30,6 +30,7 @@ import baritone.pathing.movement.CalculationContext;
 import baritone.pathing.movement.MovementHelper;
 import baritone.utils.BaritoneProcessHelper;
 import baritone.utils.BlockStateInterface;
+import baritone.utils.TaskScheduler;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockAir;
 import net.minecraft.block.BlockFalling;
@@ -112,7 +113,7 @@ public final class MineProcess extends BaritoneProcessHelper implements IMinePro
         List<BlockPos> curr = new ArrayList<>(knownOreLocations);
         if (mineGoalUpdateInterval != 0 && tickCount++ % mineGoalUpdateInterval == 0) { // big brain
             CalculationContext context = new CalculationContext(baritone, true);
-            Baritone.getExecutor().execute(() -> rescan(curr, context));
+            Baritone.getScheduler().executeLatest(TaskScheduler.Lane.SCANNING, this, () -> rescan(curr, context));
         }
         if (Baritone.settings().legitMine.value) {
             addNearby();
@@ -127,7 +128,7 @@ public final class MineProcess extends BaritoneProcessHelper implements IMinePro
             BlockPos pos = shaft.get();
             IBlockState state = baritone.bsi.get0(pos);
             if (!MovementHelper.avoidBreaking(baritone.bsi, pos.getX(), pos.getY(), pos.getZ(), state)) {
-                Optional<Rotation> rot = RotationUtils.reachable(ctx, pos);
+                Optional<Rotation> rot = baritone.getReachabilityCache().reachable(pos);
                 if (rot.isPresent() && isSafeToCancel) {
                     baritone.getLookBehavior().updateTarget(rot.get(), true);
                     MovementHelper.switchToBestToolFor(ctx, ctx.world().getBlockState(pos));
@@ -376,23 +377,33 @@ public final class MineProcess extends BaritoneProcessHelper implements IMinePro
         BlockStateInterface bsi = new BlockStateInterface(ctx);
         int searchDist = 10;
         double fakedBlockReachDistance = 20; // at least 10 * sqrt(3) with some extra space to account for positioning within the block
+        List<BlockPos> candidates = new ArrayList<>();
         for (int x = playerFeet.getX() - searchDist; x <= playerFeet.getX() + searchDist; x++) {
             for (int y = playerFeet.getY() - searchDist; y <= playerFeet.getY() + searchDist; y++) {
                 for (int z = playerFeet.getZ() - searchDist; z <= playerFeet.getZ() + searchDist; z++) {
-                    // crucial to only add blocks we can see because otherwise this
-                    // is an x-ray and it'll get caught
                     if (filter.has(bsi.get0(x, y, z))) {
-                        BlockPos pos = new BlockPos(x, y, z);
-                        if ((Baritone.settings().legitMineIncludeDiagonals.value && knownOreLocations.stream().anyMatch(ore -> ore.distanceSq(pos) <= 2 /* sq means this is pytha dist <= sqrt(2) */)) || RotationUtils.reachable(ctx.player(), pos, fakedBlockReachDistance).isPresent()) {
-                            knownOreLocations.add(pos);
-                        }
+                        candidates.add(new BlockPos(x, y, z));
                     }
                 }
             }
         }
+        boolean diagonals = Baritone.settings().legitMineIncludeDiagonals.value;
+        List<BlockPos> toTrace = diagonals ? candidates.stream().filter(pos -> !nextToKnownOre(pos)).collect(Collectors.toList()) : candidates;
+        // crucial to only add blocks we can see because otherwise this
+        // is an x-ray and it'll get caught
+        Map<BlockPos, Rotation> visible = baritone.getReachabilityCache().reachable(toTrace, fakedBlockReachDistance, false);
+        for (BlockPos pos : candidates) {
+            if ((diagonals && nextToKnownOre(pos)) || visible.containsKey(pos)) {
+                knownOreLocations.add(pos);
+            }
+        }
         knownOreLocations = prune(new CalculationContext(baritone), knownOreLocations, filter, ORE_LOCATIONS_COUNT, blacklist, dropped);
     }
 
+    private boolean nextToKnownOre(BlockPos pos) {
+        return knownOreLocations.stream().anyMatch(ore -> ore.distanceSq(pos) <= 2 /* sq means this is pytha dist <= sqrt(2) */);
+    }
+
     private static List<BlockPos> prune(CalculationContext ctx, List<BlockPos> locs2, BlockOptionalMetaLookup filter, int max, List<BlockPos> blacklist, List<BlockPos> dropped) {
         dropped.removeIf(drop -> {
             for (BlockPos pos : locs2) {
@@ -20,6 +20,7 @@ package baritone.utils;
 import baritone.Baritone;
 import baritone.api.utils.IPlayerContext;
 import baritone.cache.CachedRegion;
+import baritone.cache.ChunkSnapshot;
 import baritone.cache.WorldData;
 import baritone.utils.accessor.IChunkProviderClient;
 import baritone.utils.pathing.BetterWorldBorder;
@@ -42,7 +43,15 @@ import net.minecraft.world.chunk.Chunk;
  */
 public class BlockStateInterface {
 
+    /**
+     * The live chunks, only used on the main thread. Null when {@link #snapshot} is used instead.
+     */
     private final Long2ObjectMap<Chunk> loadedChunks;
+    /**
+     * Immutable copies of the loaded chunks, safe to use from any thread. Null when {@link #loadedChunks} is used
+     * instead.
+     */
+    private final Long2ObjectMap<ChunkSnapshot> snapshot;
     private final WorldData worldData;
     protected final IBlockAccess world;
     public final BlockPos.MutableBlockPos isPassableBlockPos;
@@ -50,8 +59,15 @@ public class BlockStateInterface {
     public final BetterWorldBorder worldBorder;
 
     private Chunk prev = null;
+    private ChunkSnapshot prevSnapshot = null;
     private CachedRegion prevCached = null;
 
+    /**
+     * How many lookups of loaded chunks could skip the chunk map lookup, and how many couldn't
+     */
+    private int chunkCacheHits;
+    private int chunkCacheMisses;
+
     private final boolean useTheRealWorld;
 
     private static final IBlockState AIR = Blocks.AIR.getDefaultState();
@@ -68,21 +84,38 @@ public class BlockStateInterface {
         this.world = world;
         this.worldBorder = new BetterWorldBorder(world.getWorldBorder());
         this.worldData = worldData;
+        if (!Minecraft.getMinecraft().isCallingFromMinecraftThread()) {
+            throw new IllegalStateException();
+        }
         Long2ObjectMap<Chunk> worldLoaded = ((IChunkProviderClient) world.getChunkProvider()).loadedChunks();
-        if (copyLoadedChunks) {
-            this.loadedChunks = new Long2ObjectOpenHashMap<>(worldLoaded); // make a copy that we can safely access from another thread
-        } else {
+        if (!copyLoadedChunks) {
             this.loadedChunks = worldLoaded; // this will only be used on the main thread
+            this.snapshot = null;
+        } else if (worldData != null) {
+            // the chunks themselves keep changing on the main thread, so copy what's in them, not just the map
+            this.loadedChunks = null;
+            this.snapshot = worldData.chunkSnapshots.snapshot(world, worldLoaded);
+        } else {
+            this.loadedChunks = new Long2ObjectOpenHashMap<>(worldLoaded); // make a copy that we can safely access from another thread
+            this.snapshot = null;
         }
         this.useTheRealWorld = !Baritone.settings().pathThroughCachedOnly.value;
-        if (!Minecraft.getMinecraft().isCallingFromMinecraftThread()) {
-            throw new IllegalStateException();
-        }
         this.isPassableBlockPos = new BlockPos.MutableBlockPos();
         this.access = new BlockStateInterfaceAccessWrapper(this);
     }
 
+    public int getChunkCacheHits() {
+        return chunkCacheHits;
+    }
+
+    public int getChunkCacheMisses() {
+        return chunkCacheMisses;
+    }
+
     public boolean worldContainsLoadedChunk(int blockX, int blockZ) {
+        if (snapshot != null) {
+            return snapshot.containsKey(ChunkPos.asLong(blockX >> 4, blockZ >> 4));
+        }
         return loadedChunks.containsKey(ChunkPos.asLong(blockX >> 4, blockZ >> 4));
     }
 
@@ -107,7 +140,19 @@ public class BlockStateInterface {
             return AIR;
         }
 
-        if (useTheRealWorld) {
+        if (useTheRealWorld && snapshot != null) {
+            ChunkSnapshot cached = prevSnapshot;
+            if (cached != null && cached.x == x >> 4 && cached.z == z >> 4) {
+                chunkCacheHits++;
+                return cached.getBlockState(x, y, z);
+            }
+            chunkCacheMisses++;
+            ChunkSnapshot chunk = snapshot.get(ChunkPos.asLong(x >> 4, z >> 4));
+            if (chunk != null) {
+                prevSnapshot = chunk;
+                return chunk.getBlockState(x, y, z);
+            }
+        } else if (useTheRealWorld) {
             Chunk cached = prev;
             // there's great cache locality in block state lookups
             // generally it's within each movement
@@ -116,8 +161,10 @@ public class BlockStateInterface {
             // which is a Long2ObjectOpenHashMap.get
             // see issue #113
             if (cached != null && cached.x == x >> 4 && cached.z == z >> 4) {
+                chunkCacheHits++;
                 return cached.getBlockState(x, y, z);
             }
+            chunkCacheMisses++;
             Chunk chunk = loadedChunks.get(ChunkPos.asLong(x >> 4, z >> 4));
 
             if (chunk != null && chunk.isLoaded()) {
@@ -147,6 +194,18 @@ public class BlockStateInterface {
     }
 
     public boolean isLoaded(int x, int z) {
+        if (snapshot != null) {
+            ChunkSnapshot prevChunk = prevSnapshot;
+            if (prevChunk != null && prevChunk.x == x >> 4 && prevChunk.z == z >> 4) {
+                return true;
+            }
+            prevChunk = snapshot.get(ChunkPos.asLong(x >> 4, z >> 4));
+            if (prevChunk != null) {
+                prevSnapshot = prevChunk;
+                return true;
+            }
+            return isCached(x, z);
+        }
         Chunk prevChunk = prev;
         if (prevChunk != null && prevChunk.x == x >> 4 && prevChunk.z == z >> 4) {
             return true;
@@ -156,6 +215,10 @@ public class BlockStateInterface {
             prev = prevChunk;
             return true;
         }
+        return isCached(x, z);
+    }
+
+    private boolean isCached(int x, int z) {
         CachedRegion prevRegion = prevCached;
         if (prevRegion != null && prevRegion.getX() == x >> 9 && prevRegion.getZ() == z >> 9) {
             return prevRegion.isCached(x & 511, z & 511);
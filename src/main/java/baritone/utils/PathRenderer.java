@@ -26,6 +26,8 @@ import baritone.api.utils.Helper;
 import baritone.api.utils.interfaces.IGoalRenderPos;
 import baritone.behavior.PathingBehavior;
 import baritone.pathing.path.PathExecutor;
+import it.unimi.dsi.fastutil.longs.LongCollection;
+import it.unimi.dsi.fastutil.longs.LongIterator;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.client.renderer.GlStateManager;
 import net.minecraft.client.renderer.tileentity.TileEntityBeaconRenderer;
@@ -184,22 +186,39 @@ public final class PathRenderer implements IRenderer {
         //BlockPos blockpos = movingObjectPositionIn.getBlockPos();
         BlockStateInterface bsi = new BlockStateInterface(BaritoneAPI.getProvider().getPrimaryBaritone().getPlayerContext()); // TODO this assumes same dimension between primary baritone and render view? is this safe?
 
-        positions.forEach(pos -> {
-            IBlockState state = bsi.get0(pos);
-            AxisAlignedBB toDraw;
+        positions.forEach(pos -> drawSelectionBox(player, bsi, pos));
 
-            if (state.getBlock().equals(Blocks.AIR)) {
-                toDraw = Blocks.DIRT.getDefaultState().getSelectedBoundingBox(player.world, pos);
-            } else {
-                toDraw = state.getSelectedBoundingBox(player.world, pos);
-            }
+        IRenderer.endLines(settings.renderSelectionBoxesIgnoreDepth.value);
+    }
 
-            IRenderer.drawAABB(toDraw, .002D);
-        });
+    /**
+     * @param positions Positions packed with {@link BlockPos#toLong()}
+     */
+    public static void drawManySelectionBoxes(Entity player, LongCollection positions, Color color) {
+        IRenderer.startLines(color, settings.pathRenderLineWidthPixels.value, settings.renderSelectionBoxesIgnoreDepth.value);
+
+        BlockStateInterface bsi = new BlockStateInterface(BaritoneAPI.getProvider().getPrimaryBaritone().getPlayerContext());
+
+        for (LongIterator it = positions.iterator(); it.hasNext(); ) {
+            drawSelectionBox(player, bsi, BlockPos.fromLong(it.nextLong()));
+        }
 
         IRenderer.endLines(settings.renderSelectionBoxesIgnoreDepth.value);
     }
 
+    private static void drawSelectionBox(Entity player, BlockStateInterface bsi, BlockPos pos) {
+        IBlockState state = bsi.get0(pos);
+        AxisAlignedBB toDraw;
+
+        if (state.getBlock().equals(Blocks.AIR)) {
+            toDraw = Blocks.DIRT.getDefaultState().getSelectedBoundingBox(player.world, pos);
+        } else {
+            toDraw = state.getSelectedBoundingBox(player.world, pos);
+        }
+
+        IRenderer.drawAABB(toDraw, .002D);
+    }
+
     public static void drawDankLitGoalBox(Entity player, Goal goal, float partialTicks, Color color) {
         double renderPosX = renderManager.viewerPosX;
         double renderPosY = renderManager.viewerPosY;
@@ -26,6 +26,7 @@ import baritone.api.process.IBaritoneProcess;
 import baritone.api.process.PathingCommand;
 import baritone.api.process.PathingCommandType;
 import baritone.behavior.PathingBehavior;
+import baritone.event.EventProfiler;
 import baritone.pathing.path.PathExecutor;
 import net.minecraft.util.math.BlockPos;
 
@@ -198,7 +199,12 @@ public class PathingControlManager implements IPathingControlManager {
         while (iterator.hasNext()) {
             IBaritoneProcess proc = iterator.next();
 
+            boolean profile = Baritone.settings().eventProfiler.value;
+            long start = profile ? System.nanoTime() : 0;
             PathingCommand exec = proc.onTick(Objects.equals(proc, inControlLastTick) && baritone.getPathingBehavior().calcFailedLastTick(), baritone.getPathingBehavior().isSafeToCancel());
+            if (profile) {
+                baritone.getEventProfiler().record(EventProfiler.Event.PROCESS_TICK, proc, System.nanoTime() - start);
+            }
             if (exec == null) {
                 if (proc.isActive()) {
                     throw new IllegalStateException(proc.displayName() + " actively returned null PathingCommand");
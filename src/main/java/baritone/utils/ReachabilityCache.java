@@ -0,0 +1,207 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.utils;
+
+import baritone.Baritone;
+import baritone.api.event.events.BlockChangeEvent;
+import baritone.api.event.events.WorldEvent;
+import baritone.api.event.listener.AbstractGameEventListener;
+import baritone.api.utils.IPlayerContext;
+import baritone.api.utils.RayTraceUtils;
+import baritone.api.utils.Rotation;
+import baritone.api.utils.RotationUtils;
+import net.minecraft.client.entity.EntityPlayerSP;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
+
+import java.util.*;
+
+/**
+ * Remembers the results of {@link RotationUtils#reachable(EntityPlayerSP, BlockPos, double, boolean)}, which ray traces
+ * up to seven times per block. Processes ask about the same blocks every tick, and while the player is standing still
+ * and nothing changes, the answers are the same.
+ * <p>
+ * Results are kept for as long as the eye position stays within the same {@link #EYE_QUANTUM}, and are thrown away
+ * whenever a block changes. Asking as if sneaking ray traces from a different eye position, so those results are kept
+ * separately, and alternating between the two doesn't throw either away.
+ */
+public final class ReachabilityCache {
+
+    /**
+     * The eye position is rounded to this, so that standing still with tiny movements from e.g. sneaking still hits
+     */
+    private static final double EYE_QUANTUM = 1 / 64D;
+
+    private static final int MAX_SIZE = 8192;
+
+    /**
+     * How far above its position a block's bounding box can reach, e.g. fences and walls
+     */
+    private static final double MAX_BLOCK_HEIGHT = 1.5;
+
+    private final IPlayerContext ctx;
+    private final Eye standing = new Eye();
+    private final Eye sneaking = new Eye();
+
+    public ReachabilityCache(Baritone baritone) {
+        this.ctx = baritone.getPlayerContext();
+        baritone.getGameEventHandler().registerEventListener(new AbstractGameEventListener() {
+            @Override
+            public void onBlockChange(BlockChangeEvent event) {
+                // anything could now be in the way of, or no longer be in the way of, anything else
+                standing.cache.clear();
+                sneaking.cache.clear();
+            }
+
+            @Override
+            public void onWorldEvent(WorldEvent event) {
+                standing.cache.clear();
+                sneaking.cache.clear();
+            }
+        });
+    }
+
+    /**
+     * @see RotationUtils#reachable(IPlayerContext, BlockPos)
+     */
+    public Optional<Rotation> reachable(BlockPos pos) {
+        return reachable(pos, ctx.playerController().getBlockReachDistance(), false);
+    }
+
+    /**
+     * @see RotationUtils#reachable(EntityPlayerSP, BlockPos, double, boolean)
+     */
+    public Optional<Rotation> reachable(BlockPos pos, double blockReachDistance, boolean wouldSneak) {
+        Eye eye = wouldSneak ? sneaking : standing;
+        Vec3d eyes = eye(wouldSneak);
+        if (!couldReach(eyes, pos, blockReachDistance)) {
+            return Optional.empty();
+        }
+        return lookup(eye, pos, blockReachDistance, wouldSneak);
+    }
+
+    /**
+     * Answers {@link #reachable(BlockPos, double, boolean)} for many blocks in one pass. The eye position is worked out
+     * once, and every block that's too far away for any ray to hit is dropped before anything is ray traced.
+     *
+     * @return The blocks that can be reached, in the order they were given, with the rotation to reach each one
+     */
+    public Map<BlockPos, Rotation> reachable(Collection<? extends BlockPos> targets, double blockReachDistance, boolean wouldSneak) {
+        Eye eye = wouldSneak ? sneaking : standing;
+        Vec3d eyes = eye(wouldSneak);
+        List<BlockPos> inReach = new ArrayList<>();
+        for (BlockPos pos : targets) {
+            if (couldReach(eyes, pos, blockReachDistance)) {
+                inReach.add(pos);
+            }
+        }
+        Map<BlockPos, Rotation> reachable = new LinkedHashMap<>();
+        for (BlockPos pos : inReach) {
+            lookup(eye, pos, blockReachDistance, wouldSneak).ifPresent(rot -> reachable.put(pos, rot));
+        }
+        return reachable;
+    }
+
+    /**
+     * @return Where the eyes are, after moving the cache for that way of holding them there
+     */
+    private Vec3d eye(boolean wouldSneak) {
+        Vec3d eyes = wouldSneak ? RayTraceUtils.inferSneakingEyePosition(ctx.player()) : ctx.player().getPositionEyes(1.0F);
+        (wouldSneak ? sneaking : standing).moveTo(eyes);
+        return eyes;
+    }
+
+    private Optional<Rotation> lookup(Eye eye, BlockPos pos, double blockReachDistance, boolean wouldSneak) {
+        if (ctx.isLookingAt(pos)) {
+            // cheap, and the answer depends on where we look rather than where we are, so it can't be kept
+            return RotationUtils.reachable(ctx.player(), pos, blockReachDistance, wouldSneak);
+        }
+        Key key = new Key(pos, blockReachDistance);
+        Optional<Rotation> result = eye.cache.get(key);
+        if (result == null) {
+            result = RotationUtils.reachable(ctx.player(), pos, blockReachDistance, wouldSneak);
+            if (eye.cache.size() >= MAX_SIZE) {
+                eye.cache.clear();
+            }
+            eye.cache.put(key, result);
+        }
+        // the rotation was made relative to where we were looking back then, make it relative to where we look now
+        return result.map(rot -> RotationUtils.wrapAnglesToRelative(ctx.playerRotations(), rot));
+    }
+
+    /**
+     * @return Whether the closest point of the block is within reach, which it has to be for any ray to hit it
+     */
+    private static boolean couldReach(Vec3d eyes, BlockPos pos, double blockReachDistance) {
+        double dx = Math.max(0, Math.max(pos.getX() - eyes.x, eyes.x - (pos.getX() + 1)));
+        double dy = Math.max(0, Math.max(pos.getY() - eyes.y, eyes.y - (pos.getY() + MAX_BLOCK_HEIGHT)));
+        double dz = Math.max(0, Math.max(pos.getZ() - eyes.z, eyes.z - (pos.getZ() + 1)));
+        return dx * dx + dy * dy + dz * dz <= blockReachDistance * blockReachDistance;
+    }
+
+    /**
+     * The results for one way of holding the eyes, along with where they were when those results were found
+     */
+    private static final class Eye {
+
+        private final Map<Key, Optional<Rotation>> cache = new HashMap<>();
+        private long x;
+        private long y;
+        private long z;
+
+        private void moveTo(Vec3d eyes) {
+            long x = Math.round(eyes.x / EYE_QUANTUM);
+            long y = Math.round(eyes.y / EYE_QUANTUM);
+            long z = Math.round(eyes.z / EYE_QUANTUM);
+            if (x != this.x || y != this.y || z != this.z) {
+                cache.clear();
+                this.x = x;
+                this.y = y;
+                this.z = z;
+            }
+        }
+    }
+
+    private static final class Key {
+
+        private final long pos;
+        private final double reach;
+
+        private Key(BlockPos pos, double reach) {
+            this.pos = pos.toLong();
+            this.reach = reach;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key other = (Key) o;
+            return pos == other.pos && reach == other.reach;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (pos ^ pos >>> 32) * 31 + Double.hashCode(reach);
+        }
+    }
+}
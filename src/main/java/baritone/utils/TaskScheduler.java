@@ -0,0 +1,339 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.utils;
+
+import baritone.api.utils.ITaskLane;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs Baritone's background work, split into {@link Lane}s that each have their own threads and their own limit on
+ * how many tasks run at once. A burst of world scans can then never hold up path calculation, and nothing can spawn
+ * threads without bound.
+ * <p>
+ * Within a lane, tasks with a lower priority number run first, and tasks with the same priority run in the order they
+ * were submitted. Tasks submitted with {@link #executeFair} on behalf of different owners, such as several bots in the
+ * same game, instead take turns, so that one busy bot can't hold up all the others.
+ */
+public final class TaskScheduler {
+
+    public static final int PRIORITY_HIGH = 0;
+    public static final int PRIORITY_NORMAL = 1;
+    public static final int PRIORITY_LOW = 2;
+
+    public enum Lane {
+
+        /**
+         * Path calculations
+         */
+        PATHING("Pathing", Math.max(2, Runtime.getRuntime().availableProcessors() / 2)),
+
+        /**
+         * Searching the world for blocks, e.g. to mine or to build
+         */
+        SCANNING("Scanning", 2),
+
+        /**
+         * Reading and writing the chunk cache on disk
+         */
+        CACHE_IO("Cache I/O", 1),
+
+        /**
+         * Packing loaded chunks into the cache. Each world has one packer that runs for as long as the game does, so
+         * there's no limit here.
+         */
+        PACKING("Packing", Integer.MAX_VALUE);
+
+        private final String name;
+        private final int maxConcurrency;
+
+        Lane(String name, int maxConcurrency) {
+            this.name = name;
+            this.maxConcurrency = maxConcurrency;
+        }
+    }
+
+    private final EnumMap<Lane, LaneExecutor> lanes = new EnumMap<>(Lane.class);
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Baritone Timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public TaskScheduler() {
+        for (Lane lane : Lane.values()) {
+            lanes.put(lane, new LaneExecutor(lane));
+        }
+    }
+
+    public void execute(Lane lane, Runnable task) {
+        execute(lane, PRIORITY_NORMAL, task);
+    }
+
+    public void execute(Lane lane, int priority, Runnable task) {
+        lanes.get(lane).submit(new Task(lanes.get(lane), task, priority, null, null));
+    }
+
+    /**
+     * Runs a task on behalf of an owner. Owners take turns: at the same priority, each owner's next task runs before
+     * any owner's task after that. An owner also never has more than the quota of tasks waiting for a thread or
+     * running at once, the rest are held back until one of those is done.
+     *
+     * @param owner The owner of the task, e.g. the bot it's for
+     * @param quota The most tasks the owner can have queued or running at once
+     */
+    public void executeFair(Lane lane, Object owner, int quota, int priority, Runnable task) {
+        lanes.get(lane).submitFair(new Task(lanes.get(lane), task, priority, null, Objects.requireNonNull(owner)), Math.max(1, quota));
+    }
+
+    /**
+     * Runs a task, dropping any task submitted earlier with the same key that hasn't started yet. For work like periodic
+     * rescans, where only the newest result matters.
+     *
+     * @param key Identifies what the task is for, e.g. the process that's rescanning
+     */
+    public void executeLatest(Lane lane, Object key, Runnable task) {
+        lanes.get(lane).submit(new Task(lanes.get(lane), task, PRIORITY_NORMAL, Objects.requireNonNull(key), null));
+    }
+
+    /**
+     * Submits a task to a lane every period, starting after the initial delay
+     */
+    public void scheduleAtFixedRate(Lane lane, Runnable task, long initialDelay, long period, TimeUnit unit) {
+        timer.scheduleAtFixedRate(() -> execute(lane, PRIORITY_LOW, task), initialDelay, period, unit);
+    }
+
+    /**
+     * @return An executor that runs everything on the given lane, at normal priority
+     */
+    public Executor executor(Lane lane) {
+        return task -> execute(lane, task);
+    }
+
+    public List<ITaskLane> getLanes() {
+        return Collections.unmodifiableList(new ArrayList<>(lanes.values()));
+    }
+
+    private static final class LaneExecutor implements ITaskLane {
+
+        private final Lane lane;
+        private final ThreadPoolExecutor executor;
+        private final ConcurrentHashMap<Object, Task> latest = new ConcurrentHashMap<>();
+        private final AtomicLong sequence = new AtomicLong();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong superseded = new AtomicLong();
+        private final AtomicLong started = new AtomicLong();
+        private final AtomicLong totalWaitNanos = new AtomicLong();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+
+        /**
+         * The turn of the most recently started task. Owners that haven't had anything to run in a while join in at
+         * this turn, rather than getting a long run of turns to catch up on.
+         */
+        private final AtomicLong turn = new AtomicLong();
+        private final Map<Object, Owner> owners = new WeakHashMap<>();
+
+        private LaneExecutor(Lane lane) {
+            this.lane = lane;
+            AtomicInteger threads = new AtomicInteger();
+            this.executor = new ThreadPoolExecutor(lane.maxConcurrency, lane.maxConcurrency, 60L, TimeUnit.SECONDS, new PriorityBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "Baritone " + lane.name + " #" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.executor.allowCoreThreadTimeOut(true); // don't keep idle threads around
+        }
+
+        private void submit(Task task) {
+            task.turn = turn.get() + 1;
+            queued.incrementAndGet();
+            if (task.key != null) {
+                Task previous = latest.put(task.key, task);
+                if (previous != null && previous.state.compareAndSet(Task.QUEUED, Task.SUPERSEDED)) {
+                    queued.decrementAndGet();
+                    superseded.incrementAndGet();
+                }
+            }
+            executor.execute(task);
+        }
+
+        private void submitFair(Task task, int quota) {
+            queued.incrementAndGet();
+            synchronized (owners) {
+                Owner owner = owners.computeIfAbsent(task.owner, o -> new Owner());
+                task.ownerState = owner;
+                if (owner.inFlight >= quota) {
+                    owner.backlog.add(task);
+                    return;
+                }
+                owner.admit(task, turn.get());
+            }
+            executor.execute(task);
+        }
+
+        /**
+         * Called when a fair task is done, to let the next one its owner held back into the queue
+         */
+        private void release(Owner owner) {
+            Task next;
+            synchronized (owners) {
+                owner.inFlight--;
+                next = owner.backlog.poll();
+                if (next == null) {
+                    return;
+                }
+                owner.admit(next, turn.get());
+            }
+            executor.execute(next);
+        }
+
+        @Override
+        public String getName() {
+            return lane.name;
+        }
+
+        @Override
+        public int getMaxConcurrency() {
+            return lane.maxConcurrency;
+        }
+
+        @Override
+        public int getQueued() {
+            return queued.get();
+        }
+
+        @Override
+        public int getRunning() {
+            return running.get();
+        }
+
+        @Override
+        public long getCompleted() {
+            return completed.get();
+        }
+
+        @Override
+        public long getSuperseded() {
+            return superseded.get();
+        }
+
+        @Override
+        public double getAverageWaitMillis() {
+            long count = started.get();
+            return count == 0 ? 0 : totalWaitNanos.get() / 1e6 / count;
+        }
+
+        @Override
+        public long getMaxWaitMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+        }
+    }
+
+    /**
+     * The tasks of one owner of fair tasks
+     */
+    private static final class Owner {
+
+        private final ArrayDeque<Task> backlog = new ArrayDeque<>();
+        private int inFlight;
+        private long lastTurn;
+
+        /**
+         * Gives a task its turn and counts it as queued or running
+         */
+        private void admit(Task task, long currentTurn) {
+            lastTurn = Math.max(lastTurn, currentTurn) + 1;
+            task.turn = lastTurn;
+            inFlight++;
+        }
+    }
+
+    private static final class Task implements Runnable, Comparable<Task> {
+
+        private static final int QUEUED = 0;
+        private static final int STARTED = 1;
+        private static final int SUPERSEDED = 2;
+
+        private final LaneExecutor lane;
+        private final Runnable runnable;
+        private final int priority;
+        private final long sequence;
+        private final long submitted = System.nanoTime();
+        private final Object key;
+        private final Object owner;
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+
+        /**
+         * Set before the task is handed to the executor, which orders by it after priority
+         */
+        private long turn;
+        private Owner ownerState;
+
+        private Task(LaneExecutor lane, Runnable runnable, int priority, Object key, Object owner) {
+            this.lane = lane;
+            this.runnable = runnable;
+            this.priority = priority;
+            this.sequence = lane.sequence.getAndIncrement();
+            this.key = key;
+            this.owner = owner;
+        }
+
+        @Override
+        public void run() {
+            if (key != null) {
+                lane.latest.remove(key, this);
+            }
+            if (!state.compareAndSet(QUEUED, STARTED)) {
+                return; // superseded while it was waiting
+            }
+            lane.queued.decrementAndGet();
+            long wait = System.nanoTime() - submitted;
+            lane.started.incrementAndGet();
+            lane.totalWaitNanos.addAndGet(wait);
+            lane.maxWaitNanos.accumulateAndGet(wait, Math::max);
+            lane.turn.accumulateAndGet(turn, Math::max);
+            lane.running.incrementAndGet();
+            try {
+                runnable.run();
+            } finally {
+                lane.running.decrementAndGet();
+                lane.completed.incrementAndGet();
+                if (ownerState != null) {
+                    lane.release(ownerState);
+                }
+            }
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            if (priority != other.priority) {
+                return Integer.compare(priority, other.priority);
+            }
+            if (turn != other.turn) {
+                return Long.compare(turn, other.turn);
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
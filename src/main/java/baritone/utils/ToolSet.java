@@ -30,9 +30,10 @@ import net.minecraft.item.ItemStack;
 import net.minecraft.item.ItemSword;
 import net.minecraft.item.ItemTool;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
 
 /**
  * A cached list of the best tools on the hotbar for any block
@@ -42,29 +43,48 @@ import java.util.function.Function;
 public class ToolSet {
 
     /**
-     * A cache mapping a {@link Block} to how long it will take to break
-     * with this toolset, given the optimum tool is used.
+     * How many break strength tables to keep around. Only a handful are ever in use at once (one per bot, plus the
+     * previous one for a moment right after the hotbar changes).
      */
-    private final Map<Block, Double> breakStrengthCache;
+    private static final int MAX_SHARED_TABLES = 8;
 
     /**
-     * My buddy leijurv owned me so we have this to not create a new lambda instance.
+     * Break strength tables, shared between every {@link ToolSet} whose {@link #fingerprint()} is the same. A new
+     * calculation context is created for every path, but the hotbar and potion effects rarely change between them,
+     * so there's no need to recompute anything.
      */
-    private final Function<Block, Double> backendCalculation;
+    private static final Map<List<Object>, double[]> SHARED_TABLES = new LinkedHashMap<List<Object>, double[]>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<Object>, double[]> eldest) {
+            return size() > MAX_SHARED_TABLES;
+        }
+    };
+
+    /**
+     * A table mapping a {@link Block} id to how long it will take to break with this toolset, given the optimum tool
+     * is used.
+     */
+    private final double[] breakStrengthTable;
+
+    private final List<Object> fingerprint;
 
     private final EntityPlayerSP player;
 
     public ToolSet(EntityPlayerSP player) {
-        breakStrengthCache = new HashMap<>();
         this.player = player;
-
-        if (Baritone.settings().considerPotionEffects.value) {
-            double amplifier = potionAmplifier();
-            Function<Double, Double> amplify = x -> amplifier * x;
-            backendCalculation = amplify.compose(this::getBestDestructionTime);
-        } else {
-            backendCalculation = this::getBestDestructionTime;
+        this.fingerprint = fingerprint();
+        double[] table;
+        synchronized (SHARED_TABLES) {
+            table = SHARED_TABLES.get(fingerprint);
         }
+        if (table == null) {
+            // two threads might race to compute the same table, that's fine since they'd both compute the same thing
+            table = calculateTable(fingerprint);
+            synchronized (SHARED_TABLES) {
+                SHARED_TABLES.put(fingerprint, table);
+            }
+        }
+        this.breakStrengthTable = table;
     }
 
     /**
@@ -74,7 +94,65 @@ public class ToolSet {
      * @return the speed of how fast we'll mine it. 1/(time in ticks)
      */
     public double getStrVsBlock(IBlockState state) {
-        return breakStrengthCache.computeIfAbsent(state.getBlock(), backendCalculation);
+        Block block = state.getBlock();
+        int id = Block.getIdFromBlock(block);
+        if (id < 0 || id >= breakStrengthTable.length || Double.isNaN(breakStrengthTable[id])) {
+            // not registered when the table was made, or it couldn't be calculated without a world
+            return calculateStrVsBlock(block, Baritone.settings().considerPotionEffects.value ? potionAmplifier() : 1);
+        }
+        return breakStrengthTable[id];
+    }
+
+    /**
+     * @return The fingerprint this toolset was created with, see {@link #fingerprint()}
+     */
+    public List<Object> getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Everything that {@link #getStrVsBlock} depends on: the hotbar, potion effects and a few settings. If any of it
+     * changes, so does the fingerprint, and a new table is calculated.
+     *
+     * @return The fingerprint of this toolset
+     */
+    private List<Object> fingerprint() {
+        List<Object> fingerprint = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            ItemStack stack = player.inventory.getStackInSlot(i);
+            fingerprint.add(stack.getItem());
+            fingerprint.add(stack.getItemDamage());
+            fingerprint.add(stack.getTagCompound() == null ? null : stack.getTagCompound().copy()); // enchantments
+        }
+        fingerprint.add(Baritone.settings().autoTool.value ? -1 : player.inventory.currentItem);
+        fingerprint.add(Baritone.settings().useSwordToMine.value);
+        fingerprint.add(Baritone.settings().itemSaver.value ? Baritone.settings().itemSaverThreshold.value : -1);
+        fingerprint.add(new ArrayList<>(Baritone.settings().blocksToAvoidBreaking.value));
+        fingerprint.add(Baritone.settings().avoidBreakingMultiplier.value);
+        fingerprint.add(Baritone.settings().considerPotionEffects.value ? potionAmplifier() : 1D);
+        return fingerprint;
+    }
+
+    private double[] calculateTable(List<Object> fingerprint) {
+        double amplifier = (Double) fingerprint.get(fingerprint.size() - 1);
+        int maxId = 0;
+        for (Block block : Block.REGISTRY) {
+            maxId = Math.max(maxId, Block.getIdFromBlock(block));
+        }
+        double[] table = new double[maxId + 1];
+        for (Block block : Block.REGISTRY) {
+            try {
+                table[Block.getIdFromBlock(block)] = calculateStrVsBlock(block, amplifier);
+            } catch (Exception e) {
+                // some modded blocks need a world to tell their hardness, leave those to be calculated when needed
+                table[Block.getIdFromBlock(block)] = Double.NaN;
+            }
+        }
+        return table;
+    }
+
+    private double calculateStrVsBlock(Block block, double amplifier) {
+        return amplifier * getBestDestructionTime(block);
     }
 
     /**
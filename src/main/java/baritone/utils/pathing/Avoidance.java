@@ -18,9 +18,8 @@
 package baritone.utils.pathing;
 
 import baritone.Baritone;
-import baritone.api.utils.BetterBlockPos;
 import baritone.api.utils.IPlayerContext;
-import it.unimi.dsi.fastutil.longs.Long2DoubleOpenHashMap;
+import net.minecraft.entity.Entity;
 import net.minecraft.entity.monster.EntityEnderman;
 import net.minecraft.entity.monster.EntityMob;
 import net.minecraft.entity.monster.EntityPigZombie;
@@ -73,25 +72,35 @@ public class Avoidance {
         }
         if (mobCoeff != 1.0D) {
             ctx.world().loadedEntityList.stream()
-                    .filter(entity -> entity instanceof EntityMob)
-                    .filter(entity -> (!(entity instanceof EntitySpider)) || ctx.player().getBrightness() < 0.5)
-                    .filter(entity -> !(entity instanceof EntityPigZombie) || ((EntityPigZombie) entity).isAngry())
-                    .filter(entity -> !(entity instanceof EntityEnderman) || ((EntityEnderman) entity).isScreaming())
+                    .filter(entity -> isDangerous(ctx, entity))
                     .forEach(entity -> res.add(new Avoidance(new BlockPos(entity), mobCoeff, Baritone.settings().mobAvoidanceRadius.value)));
         }
         return res;
     }
 
-    public void applySpherical(Long2DoubleOpenHashMap map) {
-        for (int x = -radius; x <= radius; x++) {
-            for (int y = -radius; y <= radius; y++) {
-                for (int z = -radius; z <= radius; z++) {
-                    if (x * x + y * y + z * z <= radius * radius) {
-                        long hash = BetterBlockPos.longHash(centerX + x, centerY + y, centerZ + z);
-                        map.put(hash, map.get(hash) * coefficient);
-                    }
-                }
-            }
-        }
+    /**
+     * @return Whether the given entity is a mob that should be given a wide berth right now
+     */
+    public static boolean isDangerous(IPlayerContext ctx, Entity entity) {
+        return entity instanceof EntityMob
+                && (!(entity instanceof EntitySpider) || ctx.player().getBrightness() < 0.5)
+                && (!(entity instanceof EntityPigZombie) || ((EntityPigZombie) entity).isAngry())
+                && (!(entity instanceof EntityEnderman) || ((EntityEnderman) entity).isScreaming());
+    }
+
+    public int minX() {
+        return centerX - radius;
+    }
+
+    public int maxX() {
+        return centerX + radius;
+    }
+
+    public int minZ() {
+        return centerZ - radius;
+    }
+
+    public int maxZ() {
+        return centerZ + radius;
     }
 }
@@ -22,34 +22,161 @@ import baritone.api.utils.BetterBlockPos;
 import baritone.api.utils.Helper;
 import baritone.api.utils.IPlayerContext;
 import baritone.pathing.movement.CalculationContext;
-import it.unimi.dsi.fastutil.longs.Long2DoubleOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Multipliers on the cost of moving to certain positions, to stay away from mobs and mob spawners, and to discourage
+ * backtracking over the previous path.
+ * <p>
+ * Nothing is filled in per block. Instead, the area around everything that's favored or avoided is split into 16x16
+ * columns, each with a bit saying whether anything is in it at all. The vast majority of positions a search considers
+ * are in columns with nothing in them, and only cost that one bit check.
+ */
 public final class Favoring {
 
-    private final Long2DoubleOpenHashMap favorings;
+    /**
+     * There can be mob spawners a couple regions away, but past this many columns on a side the grid would be getting
+     * silly, so every position is just checked against everything instead
+     */
+    private static final int MAX_GRID_SIZE = 256;
+
+    private final List<Avoidance> avoidances;
+    private final LongOpenHashSet previousPath;
+    private final double backtrackCoefficient;
+
+    /**
+     * The bounds of the grid, in column coordinates. The grid is null if everything is too far apart for one.
+     */
+    private final int minColumnX;
+    private final int minColumnZ;
+    private final int columnsZ;
+    private final long[] anyMask;
+    private final long[] pathMask;
+    private final Avoidance[][] columns;
 
     public Favoring(IPlayerContext ctx, IPath previous, CalculationContext context) {
-        this(previous, context);
-        for (Avoidance avoid : Avoidance.create(ctx)) {
-            avoid.applySpherical(favorings);
-        }
-        Helper.HELPER.logDebug("Favoring size: " + favorings.size());
+        this(previous == null ? null : previous.positions(), context.backtrackCostFavoringCoefficient, Avoidance.create(ctx));
+        Helper.HELPER.logDebug("Favoring " + avoidances.size() + " avoidances and " + previousPath.size() + " previous path positions");
     }
 
     public Favoring(IPath previous, CalculationContext context) { // create one just from previous path, no mob avoidances
-        favorings = new Long2DoubleOpenHashMap();
-        favorings.defaultReturnValue(1.0D);
-        double coeff = context.backtrackCostFavoringCoefficient;
-        if (coeff != 1D && previous != null) {
-            previous.positions().forEach(pos -> favorings.put(BetterBlockPos.longHash(pos), coeff));
+        this(previous == null ? null : previous.positions(), context.backtrackCostFavoringCoefficient, Collections.emptyList());
+    }
+
+    public Favoring(List<BetterBlockPos> previous, double backtrackCoefficient, List<Avoidance> avoidances) {
+        this.avoidances = avoidances;
+        this.previousPath = new LongOpenHashSet();
+        this.backtrackCoefficient = backtrackCoefficient;
+        List<BetterBlockPos> path = backtrackCoefficient != 1D && previous != null ? previous : Collections.<BetterBlockPos>emptyList();
+        path.forEach(pos -> previousPath.add(BetterBlockPos.longHash(pos)));
+
+        int minX = Integer.MAX_VALUE;
+        int minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxZ = Integer.MIN_VALUE;
+        for (Avoidance avoid : avoidances) {
+            minX = Math.min(minX, avoid.minX() >> 4);
+            minZ = Math.min(minZ, avoid.minZ() >> 4);
+            maxX = Math.max(maxX, avoid.maxX() >> 4);
+            maxZ = Math.max(maxZ, avoid.maxZ() >> 4);
+        }
+        for (BetterBlockPos pos : path) {
+            minX = Math.min(minX, pos.x >> 4);
+            minZ = Math.min(minZ, pos.z >> 4);
+            maxX = Math.max(maxX, pos.x >> 4);
+            maxZ = Math.max(maxZ, pos.z >> 4);
+        }
+        if (isEmpty() || maxX - minX >= MAX_GRID_SIZE || maxZ - minZ >= MAX_GRID_SIZE) {
+            this.minColumnX = 0;
+            this.minColumnZ = 0;
+            this.columnsZ = 0;
+            this.anyMask = null;
+            this.pathMask = null;
+            this.columns = null;
+            return;
+        }
+        this.minColumnX = minX;
+        this.minColumnZ = minZ;
+        this.columnsZ = maxZ - minZ + 1;
+        int size = (maxX - minX + 1) * columnsZ;
+        this.anyMask = new long[(size + 63) >> 6];
+        this.pathMask = new long[(size + 63) >> 6];
+        this.columns = new Avoidance[size][];
+        for (BetterBlockPos pos : path) {
+            int index = column(pos.x, pos.z);
+            pathMask[index >> 6] |= 1L << index;
+            anyMask[index >> 6] |= 1L << index;
+        }
+        List<List<Avoidance>> perColumn = new ArrayList<>(Collections.nCopies(size, null));
+        for (Avoidance avoid : avoidances) {
+            for (int x = avoid.minX() >> 4; x <= avoid.maxX() >> 4; x++) {
+                for (int z = avoid.minZ() >> 4; z <= avoid.maxZ() >> 4; z++) {
+                    int index = (x - minColumnX) * columnsZ + (z - minColumnZ);
+                    if (perColumn.get(index) == null) {
+                        perColumn.set(index, new ArrayList<>());
+                    }
+                    perColumn.get(index).add(avoid);
+                    anyMask[index >> 6] |= 1L << index;
+                }
+            }
         }
+        for (int i = 0; i < size; i++) {
+            if (perColumn.get(i) != null) {
+                columns[i] = perColumn.get(i).toArray(new Avoidance[0]);
+            }
+        }
+    }
+
+    private int column(int x, int z) {
+        return ((x >> 4) - minColumnX) * columnsZ + ((z >> 4) - minColumnZ);
     }
 
     public boolean isEmpty() {
-        return favorings.isEmpty();
+        return avoidances.isEmpty() && previousPath.isEmpty();
     }
 
-    public double calculate(long hash) {
-        return favorings.get(hash);
+    /**
+     * @param x    The x coordinate of the position being moved to
+     * @param y    The y coordinate of the position being moved to
+     * @param z    The z coordinate of the position being moved to
+     * @param hash The {@link BetterBlockPos#longHash(int, int, int)} of the position
+     * @return What to multiply the cost of moving there by
+     */
+    public double calculate(int x, int y, int z, long hash) {
+        if (anyMask == null) {
+            return calculateUngridded(x, y, z, hash);
+        }
+        int columnX = (x >> 4) - minColumnX;
+        int columnZ = (z >> 4) - minColumnZ;
+        if (columnX < 0 || columnZ < 0 || columnZ >= columnsZ) {
+            return 1.0D;
+        }
+        int index = columnX * columnsZ + columnZ;
+        if (index >= columns.length || (anyMask[index >> 6] & (1L << index)) == 0) {
+            return 1.0D;
+        }
+        double result = 1.0D;
+        if ((pathMask[index >> 6] & (1L << index)) != 0 && previousPath.contains(hash)) {
+            result *= backtrackCoefficient;
+        }
+        Avoidance[] here = columns[index];
+        if (here != null) {
+            for (Avoidance avoid : here) {
+                result *= avoid.coefficient(x, y, z);
+            }
+        }
+        return result;
+    }
+
+    private double calculateUngridded(int x, int y, int z, long hash) {
+        double result = previousPath.contains(hash) ? backtrackCoefficient : 1.0D;
+        for (Avoidance avoid : avoidances) {
+            result *= avoid.coefficient(x, y, z);
+        }
+        return result;
     }
 }
@@ -0,0 +1,153 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.utils.pathing;
+
+import baritone.Baritone;
+import baritone.api.event.events.TickEvent;
+import baritone.api.event.events.WorldEvent;
+import baritone.api.event.listener.AbstractGameEventListener;
+import baritone.api.utils.IPlayerContext;
+import it.unimi.dsi.fastutil.ints.Int2LongMap;
+import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import net.minecraft.entity.Entity;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps track of where the mobs that {@link Avoidance} avoids are, tick by tick, so that a path that's already being
+ * executed can find out when one of them has moved into its way. Only does anything while mob avoidance is on.
+ */
+public final class MobTracker {
+
+    private final IPlayerContext ctx;
+
+    /**
+     * Entity id to the {@link BlockPos#toLong()} of the block it's in
+     */
+    private final Int2LongOpenHashMap positions = new Int2LongOpenHashMap();
+
+    /**
+     * Entity id to the version in which it appeared or last moved to a different block
+     */
+    private final Int2LongOpenHashMap movedIn = new Int2LongOpenHashMap();
+
+    private final IntOpenHashSet seen = new IntOpenHashSet();
+
+    private volatile long version;
+
+    public MobTracker(Baritone baritone) {
+        this.ctx = baritone.getPlayerContext();
+        this.positions.defaultReturnValue(Long.MIN_VALUE); // not the position of any block inside the world border
+        baritone.getGameEventHandler().registerEventListener(new AbstractGameEventListener() {
+            @Override
+            public void onTick(TickEvent event) {
+                if (event.getType() == TickEvent.Type.IN) {
+                    update();
+                } else {
+                    clear();
+                }
+            }
+
+            @Override
+            public void onWorldEvent(WorldEvent event) {
+                clear();
+            }
+        });
+    }
+
+    private void update() {
+        if (!Baritone.settings().avoidance.value || Baritone.settings().mobAvoidanceCoefficient.value == 1.0D) {
+            clear();
+            return;
+        }
+        long next = version + 1;
+        boolean changed = false;
+        seen.clear();
+        for (Entity entity : ctx.world().loadedEntityList) {
+            if (!Avoidance.isDangerous(ctx, entity)) {
+                continue;
+            }
+            int id = entity.getEntityId();
+            long pos = new BlockPos(entity).toLong();
+            seen.add(id);
+            if (positions.put(id, pos) != pos) {
+                movedIn.put(id, next);
+                changed = true;
+            }
+        }
+        if (positions.size() != seen.size()) {
+            // gone, or no longer dangerous, which can only make a path safer so it doesn't count as a change
+            IntIterator it = positions.keySet().iterator();
+            while (it.hasNext()) {
+                int id = it.nextInt();
+                if (!seen.contains(id)) {
+                    it.remove();
+                    movedIn.remove(id);
+                }
+            }
+        }
+        if (changed) {
+            version = next;
+        }
+    }
+
+    private void clear() {
+        positions.clear();
+        movedIn.clear();
+    }
+
+    /**
+     * @return A number that goes up every tick that a mob appears or moves into a different block
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * @param since A {@link #version()}
+     * @return The avoidances of the mobs that have appeared or moved into a different block since then
+     */
+    public List<Avoidance> changedSince(long since) {
+        List<Avoidance> result = new ArrayList<>();
+        for (Int2LongMap.Entry entry : movedIn.int2LongEntrySet()) {
+            if (entry.getLongValue() > since) {
+                result.add(avoidance(positions.get(entry.getIntKey())));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return The avoidances of every mob being tracked
+     */
+    public List<Avoidance> all() {
+        List<Avoidance> result = new ArrayList<>();
+        for (long pos : positions.values()) {
+            result.add(avoidance(pos));
+        }
+        return result;
+    }
+
+    private static Avoidance avoidance(long pos) {
+        return new Avoidance(BlockPos.fromLong(pos), Baritone.settings().mobAvoidanceCoefficient.value, Baritone.settings().mobAvoidanceRadius.value);
+    }
+}
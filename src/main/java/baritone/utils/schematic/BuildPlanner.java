@@ -0,0 +1,392 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.utils.schematic;
+
+import baritone.api.utils.BetterBlockPos;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.*;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Decides what order to build a schematic in. The work is split into batches of one chunk each.
+ * <p>
+ * Within a batch, blocks are worked on from the bottom up. Between batches, what has to be built first comes first: a
+ * block hanging off the side of a neighboring chunk needs that chunk's block to be placed against, and a liquid would
+ * flow into whatever is still open around it. The batches are put into levels by those dependencies, and each level is
+ * visited in an order that keeps walking between its batches short, starting from wherever the last level ended.
+ */
+public final class BuildPlanner {
+
+    /**
+     * Stop improving routes after roughly this many comparisons, so that a huge schematic can't freeze the game
+     */
+    private static final long MAX_WORK = 20_000_000L;
+
+    /**
+     * Chunks are bucketed into squares of this many chunks across, so that finding the nearest one only has to look at
+     * the chunks around it
+     */
+    private static final int GRID_SHIFT = 3;
+
+    private long[] plan;
+    private int planIndex;
+
+    /**
+     * What has to be built before what
+     */
+    @FunctionalInterface
+    public interface Dependencies {
+
+        /**
+         * @param pos  An incorrect position
+         * @param into The collection to add the positions that have to be built before it to
+         */
+        void of(BetterBlockPos pos, Collection<BetterBlockPos> into);
+    }
+
+    /**
+     * Forgets the current route, so that the next batch is picked from a new one
+     */
+    public void reset() {
+        plan = null;
+    }
+
+    /**
+     * Adds the incorrect positions of the next batch that has any to a collection, continuing along the current route
+     * and planning a new one through the remaining chunks once every chunk on it is done
+     *
+     * @param progress     The incorrect positions of the schematic
+     * @param dependencies What has to be built before what, used when planning a new route
+     * @param into         The collection to add to
+     * @param minY         The lowest y position to include, in the world
+     * @param maxY         The highest y position to include, in the world
+     * @param max          The number of positions to stop at
+     * @param startX       The x coordinate of the chunk a new route starts from
+     * @param startZ       The z coordinate of the chunk a new route starts from
+     * @return Whether any positions were added
+     */
+    public boolean next(SchematicProgress progress, Dependencies dependencies, Collection<BetterBlockPos> into, int minY, int maxY, int max, int startX, int startZ) {
+        boolean replanned = false;
+        while (true) {
+            if (plan == null || planIndex >= plan.length) {
+                if (replanned) {
+                    return false;
+                }
+                LongList chunks = progress.chunks(minY, maxY);
+                plan = order(chunks, dependencies(progress, dependencies, chunks, minY, maxY), startX, startZ);
+                planIndex = 0;
+                replanned = true;
+            }
+            for (; planIndex < plan.length; planIndex++) {
+                if (collect(progress, into, minY, maxY, max)) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gives up on the current batch for now, and adds the incorrect positions of the next batch on the route that has
+     * any to a collection. The skipped batch comes back when the route is next replanned.
+     *
+     * @param progress The incorrect positions of the schematic
+     * @param into     The collection to add to
+     * @param minY     The lowest y position to include, in the world
+     * @param maxY     The highest y position to include, in the world
+     * @param max      The number of positions to stop at
+     * @return Whether any positions were added, false if there are no batches left on this route
+     */
+    public boolean skip(SchematicProgress progress, Collection<BetterBlockPos> into, int minY, int maxY, int max) {
+        if (plan == null) {
+            return false;
+        }
+        for (planIndex++; planIndex < plan.length; planIndex++) {
+            if (collect(progress, into, minY, maxY, max)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean collect(SchematicProgress progress, Collection<BetterBlockPos> into, int minY, int maxY, int max) {
+        int before = into.size();
+        progress.collect(plan[planIndex], into, minY, maxY, max);
+        return into.size() > before;
+    }
+
+    /**
+     * Works out which chunks have to wait for which. Only a position on the border of a chunk can depend on one in
+     * another chunk, so only those are asked about, and only dependencies that are still incorrect count.
+     *
+     * @param progress     The incorrect positions of the schematic
+     * @param dependencies What has to be built before what
+     * @param chunks       The chunks to look at
+     * @param minY         The lowest y position to include, in the world
+     * @param maxY         The highest y position to include, in the world
+     * @return For each chunk that has to wait, the chunks it has to wait for
+     */
+    public static Long2ObjectMap<LongSet> dependencies(SchematicProgress progress, Dependencies dependencies, LongList chunks, int minY, int maxY) {
+        Long2ObjectMap<LongSet> after = new Long2ObjectOpenHashMap<>();
+        List<BetterBlockPos> border = new ArrayList<>();
+        List<BetterBlockPos> needed = new ArrayList<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            long chunk = chunks.getLong(i);
+            border.clear();
+            progress.collectBorder(chunk, border, minY, maxY);
+            for (BetterBlockPos pos : border) {
+                needed.clear();
+                dependencies.of(pos, needed);
+                for (BetterBlockPos dep : needed) {
+                    long depChunk = ChunkPos.asLong(dep.x >> 4, dep.z >> 4);
+                    if (depChunk != chunk && progress.isIncorrect(dep.x, dep.y, dep.z)) {
+                        after.computeIfAbsent(chunk, k -> new LongOpenHashSet()).add(depChunk);
+                    }
+                }
+            }
+        }
+        return after;
+    }
+
+    /**
+     * @see #order(LongList, Long2ObjectMap, int, int)
+     */
+    public static long[] order(LongList chunks, int startX, int startZ) {
+        return order(chunks, Long2ObjectMaps.emptyMap(), startX, startZ);
+    }
+
+    /**
+     * Orders chunks so that every chunk comes after the chunks it has to wait for, and so that the route through them is
+     * short. Chunks that have nothing left to wait for form a level, which is routed through as an approximate solution
+     * to the traveling salesman problem where the route doesn't have to return to the start: the nearest neighbor route,
+     * improved with 2-opt. Where chunks wait on each other in a cycle, the one waiting on the fewest goes first.
+     *
+     * @param chunks The chunks to visit, as in {@link ChunkPos#asLong(int, int)}
+     * @param after  For each chunk that has to wait, the chunks it has to wait for
+     * @param startX The x coordinate of the chunk the route starts from
+     * @param startZ The z coordinate of the chunk the route starts from
+     * @return The same chunks, in the order to visit them
+     */
+    public static long[] order(LongList chunks, Long2ObjectMap<LongSet> after, int startX, int startZ) {
+        int n = chunks.size();
+        int[] xs = new int[n];
+        int[] zs = new int[n];
+        Long2IntOpenHashMap indices = new Long2IntOpenHashMap(n);
+        indices.defaultReturnValue(-1);
+        for (int i = 0; i < n; i++) {
+            xs[i] = (int) chunks.getLong(i);
+            zs[i] = (int) (chunks.getLong(i) >> 32);
+            indices.put(chunks.getLong(i), i);
+        }
+        int[] waitingOn = new int[n];
+        IntArrayList[] unblocks = new IntArrayList[n];
+        for (Long2ObjectMap.Entry<LongSet> entry : after.long2ObjectEntrySet()) {
+            int i = indices.get(entry.getLongKey());
+            if (i == -1) {
+                continue;
+            }
+            for (long dep : entry.getValue()) {
+                int j = indices.get(dep);
+                if (j == -1 || j == i) {
+                    continue; // nothing left to do there
+                }
+                waitingOn[i]++;
+                if (unblocks[j] == null) {
+                    unblocks[j] = new IntArrayList();
+                }
+                unblocks[j].add(i);
+            }
+        }
+
+        long[] result = new long[n];
+        boolean[] placed = new boolean[n];
+        long[] work = {0};
+        int done = 0;
+        int x = startX;
+        int z = startZ;
+        IntArrayList level = new IntArrayList();
+        for (int i = 0; i < n; i++) {
+            if (waitingOn[i] == 0) {
+                level.add(i);
+            }
+        }
+        while (done < n) {
+            if (level.isEmpty()) {
+                // only cycles are left, break one
+                int best = -1;
+                for (int i = 0; i < n; i++) {
+                    if (!placed[i] && (best == -1 || waitingOn[i] < waitingOn[best])) {
+                        best = i;
+                    }
+                }
+                level.add(best);
+            }
+            int[] route = route(xs, zs, level, x, z, work);
+            for (int i : route) {
+                placed[i] = true;
+                result[done++] = chunks.getLong(i);
+            }
+            IntArrayList next = new IntArrayList();
+            for (int i : route) {
+                if (unblocks[i] != null) {
+                    for (int j = 0; j < unblocks[i].size(); j++) {
+                        int waiting = unblocks[i].getInt(j);
+                        if (!placed[waiting] && --waitingOn[waiting] == 0) {
+                            next.add(waiting);
+                        }
+                    }
+                }
+            }
+            x = xs[route[route.length - 1]];
+            z = zs[route[route.length - 1]];
+            level = next;
+        }
+        return result;
+    }
+
+    /**
+     * Routes through one level, sharing the budget for 2-opt with every other level
+     *
+     * @return The chunks of the level, as indices into xs and zs, in the order to visit them
+     */
+    private static int[] route(int[] allXs, int[] allZs, IntArrayList level, int startX, int startZ, long[] work) {
+        int n = level.size();
+        // index 0 is the start, the rest are the chunks
+        int[] xs = new int[n + 1];
+        int[] zs = new int[n + 1];
+        xs[0] = startX;
+        zs[0] = startZ;
+        for (int i = 0; i < n; i++) {
+            xs[i + 1] = allXs[level.getInt(i)];
+            zs[i + 1] = allZs[level.getInt(i)];
+        }
+        int[] route = nearestNeighbor(xs, zs);
+
+        long passWork = (long) n * n;
+        boolean improved = true;
+        while (improved && work[0] + passWork <= MAX_WORK) {
+            improved = false;
+            for (int i = 1; i < n; i++) {
+                for (int j = i + 1; j <= n; j++) {
+                    // reversing route[i..j] replaces the edges a-b and c-d with a-c and b-d
+                    int a = route[i - 1];
+                    int b = route[i];
+                    int c = route[j];
+                    double before = dist(xs, zs, a, b);
+                    double after = dist(xs, zs, a, c);
+                    if (j < n) {
+                        int d = route[j + 1];
+                        before += dist(xs, zs, c, d);
+                        after += dist(xs, zs, b, d);
+                    }
+                    if (after < before - 1e-9) {
+                        for (int lo = i, hi = j; lo < hi; lo++, hi--) {
+                            int tmp = route[lo];
+                            route[lo] = route[hi];
+                            route[hi] = tmp;
+                        }
+                        improved = true;
+                    }
+                }
+            }
+            work[0] += passWork;
+        }
+
+        int[] result = new int[n];
+        for (int i = 0; i < n; i++) {
+            result[i] = level.getInt(route[i + 1] - 1);
+        }
+        return result;
+    }
+
+    /**
+     * Builds the nearest neighbor route from index 0 through every other index. Only the grid cells around the current
+     * chunk are searched, widening ring by ring until no cell further out could hold anything closer.
+     */
+    private static int[] nearestNeighbor(int[] xs, int[] zs) {
+        int n = xs.length - 1;
+        Long2ObjectOpenHashMap<IntArrayList> grid = new Long2ObjectOpenHashMap<>();
+        int minCellX = Integer.MAX_VALUE;
+        int maxCellX = Integer.MIN_VALUE;
+        int minCellZ = Integer.MAX_VALUE;
+        int maxCellZ = Integer.MIN_VALUE;
+        for (int i = 1; i <= n; i++) {
+            int cellX = xs[i] >> GRID_SHIFT;
+            int cellZ = zs[i] >> GRID_SHIFT;
+            grid.computeIfAbsent(ChunkPos.asLong(cellX, cellZ), k -> new IntArrayList()).add(i);
+            minCellX = Math.min(minCellX, cellX);
+            maxCellX = Math.max(maxCellX, cellX);
+            minCellZ = Math.min(minCellZ, cellZ);
+            maxCellZ = Math.max(maxCellZ, cellZ);
+        }
+        int[] route = new int[n + 1];
+        for (int step = 1; step <= n; step++) {
+            int from = route[step - 1];
+            int cellX = xs[from] >> GRID_SHIFT;
+            int cellZ = zs[from] >> GRID_SHIFT;
+            int maxRing = Math.max(Math.max(cellX - minCellX, maxCellX - cellX), Math.max(cellZ - minCellZ, maxCellZ - cellZ));
+            int best = -1;
+            long bestDist = Long.MAX_VALUE;
+            for (int ring = 0; ring <= maxRing; ring++) {
+                // every chunk in this ring is more than ring - 1 cells away along one axis
+                long closest = (long) (ring - 1) << GRID_SHIFT;
+                if (best != -1 && ring > 1 && closest * closest >= bestDist) {
+                    break;
+                }
+                for (int dx = -ring; dx <= ring; dx++) {
+                    boolean side = dx == -ring || dx == ring;
+                    for (int dz = -ring; dz <= ring; dz += side ? 1 : 2 * ring) {
+                        IntArrayList cell = grid.get(ChunkPos.asLong(cellX + dx, cellZ + dz));
+                        if (cell == null) {
+                            continue;
+                        }
+                        for (int k = 0; k < cell.size(); k++) {
+                            int candidate = cell.getInt(k);
+                            long dist = distSq(xs, zs, from, candidate);
+                            if (dist < bestDist || (dist == bestDist && candidate < best)) {
+                                bestDist = dist;
+                                best = candidate;
+                            }
+                        }
+                    }
+                }
+            }
+            long key = ChunkPos.asLong(xs[best] >> GRID_SHIFT, zs[best] >> GRID_SHIFT);
+            IntArrayList cell = grid.get(key);
+            cell.rem(best);
+            if (cell.isEmpty()) {
+                grid.remove(key);
+            }
+            route[step] = best;
+        }
+        return route;
+    }
+
+    private static long distSq(int[] xs, int[] zs, int a, int b) {
+        long dx = xs[a] - xs[b];
+        long dz = zs[a] - zs[b];
+        return dx * dx + dz * dz;
+    }
+
+    private static double dist(int[] xs, int[] zs, int a, int b) {
+        return Math.sqrt(distSq(xs, zs, a, b));
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.utils.schematic;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A fixed size array of values where most values repeat, like the blocks of a schematic. Every distinct value is
+ * stored once in a palette, and the array itself only holds indices into the palette, packed into as few bits as the
+ * palette's size allows. An index never straddles two longs.
+ *
+ * @param <T> The type of value
+ */
+public final class PalettedArray<T> {
+
+    private final int size;
+    private final List<T> palette = new ArrayList<>();
+    private final Object2IntOpenHashMap<T> paletteIndices = new Object2IntOpenHashMap<>();
+    private int bits;
+    private long[] data;
+
+    /**
+     * @param size    The number of values
+     * @param initial The value that every position starts out with
+     */
+    public PalettedArray(int size, T initial) {
+        this.size = size;
+        this.paletteIndices.defaultReturnValue(-1);
+        this.palette.add(initial);
+        this.paletteIndices.put(initial, 0);
+        this.bits = 1;
+        this.data = new long[longsFor(size, bits)];
+    }
+
+    public T get(int index) {
+        return palette.get(read(data, bits, index));
+    }
+
+    public void set(int index, T value) {
+        int id = paletteIndices.getInt(value);
+        if (id == -1) {
+            id = palette.size();
+            palette.add(value);
+            paletteIndices.put(value, id);
+            if (id >= 1 << bits) {
+                resize(bits + 1);
+            }
+        }
+        write(data, bits, index, id);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The number of distinct values that have ever been set
+     */
+    public int paletteSize() {
+        return palette.size();
+    }
+
+    /**
+     * @return Roughly how many bytes of heap this array takes up, not counting the values themselves
+     */
+    public long sizeInBytes() {
+        return 16 + data.length * 8L + palette.size() * (4L + 16L) + 64;
+    }
+
+    /**
+     * @return The number of longs backing this array
+     */
+    int backingLength() {
+        return data.length;
+    }
+
+    private void resize(int newBits) {
+        long[] newData = new long[longsFor(size, newBits)];
+        for (int i = 0; i < size; i++) {
+            write(newData, newBits, i, read(data, bits, i));
+        }
+        this.data = newData;
+        this.bits = newBits;
+    }
+
+    private static int longsFor(int size, int bits) {
+        int perLong = 64 / bits;
+        return (size + perLong - 1) / perLong;
+    }
+
+    private static int read(long[] data, int bits, int index) {
+        int perLong = 64 / bits;
+        int shift = (index % perLong) * bits;
+        return (int) (data[index / perLong] >>> shift) & ((1 << bits) - 1);
+    }
+
+    private static void write(long[] data, int bits, int index, int value) {
+        int perLong = 64 / bits;
+        int shift = (index % perLong) * bits;
+        long mask = ((1L << bits) - 1) << shift;
+        data[index / perLong] = (data[index / perLong] & ~mask) | ((long) value << shift);
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.utils.schematic;
+
+import baritone.api.utils.BetterBlockPos;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * Which positions of a schematic placed in the world don't match it yet, stored as one bit per position, chunk by
+ * chunk. Only chunks that contain at least one incorrect position take up any memory.
+ */
+public final class SchematicProgress {
+
+    private final int originY;
+    private final int heightY;
+    private final Long2ObjectMap<BitSet> incorrect = new Long2ObjectOpenHashMap<>();
+
+    public SchematicProgress(int originY, int heightY) {
+        this.originY = originY;
+        this.heightY = heightY;
+    }
+
+    /**
+     * @param x The x position of the block, in the world
+     * @param y The y position of the block, in the world
+     * @param z The z position of the block, in the world
+     * @return Whether the block at that position is known to be incorrect
+     */
+    public boolean isIncorrect(int x, int y, int z) {
+        if (y < originY || y >= originY + heightY) {
+            return false;
+        }
+        BitSet bits = incorrect.get(ChunkPos.asLong(x >> 4, z >> 4));
+        return bits != null && bits.get(index(x, y, z));
+    }
+
+    public void set(int x, int y, int z, boolean isIncorrect) {
+        if (y < originY || y >= originY + heightY) {
+            return;
+        }
+        long chunk = ChunkPos.asLong(x >> 4, z >> 4);
+        BitSet bits = incorrect.get(chunk);
+        if (isIncorrect) {
+            if (bits == null) {
+                bits = new BitSet();
+                incorrect.put(chunk, bits);
+            }
+            bits.set(index(x, y, z));
+        } else if (bits != null) {
+            bits.clear(index(x, y, z));
+            if (bits.isEmpty()) {
+                incorrect.remove(chunk);
+            }
+        }
+    }
+
+    /**
+     * Replaces everything known about a chunk, with the result of scanning it
+     *
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     * @param bits   The incorrect positions in this chunk, as indexed by {@link #index(int, int, int)}
+     */
+    public void setChunk(int chunkX, int chunkZ, BitSet bits) {
+        if (bits.isEmpty()) {
+            incorrect.remove(ChunkPos.asLong(chunkX, chunkZ));
+        } else {
+            incorrect.put(ChunkPos.asLong(chunkX, chunkZ), bits);
+        }
+    }
+
+    public boolean isEmpty() {
+        return incorrect.isEmpty();
+    }
+
+    /**
+     * Adds incorrect positions between the given heights to a collection, lowest first
+     *
+     * @param into The collection to add to
+     * @param minY The lowest y position to include, in the world
+     * @param maxY The highest y position to include, in the world
+     * @param max  The number of positions to stop at
+     */
+    public void collect(Collection<BetterBlockPos> into, int minY, int maxY, int max) {
+        minY = Math.max(minY, originY);
+        maxY = Math.min(maxY, originY + heightY - 1);
+        int found = 0;
+        for (int y = minY; y <= maxY; y++) {
+            int from = (y - originY) << 8;
+            int to = from + 256;
+            for (Long2ObjectMap.Entry<BitSet> entry : incorrect.long2ObjectEntrySet()) {
+                int chunkX = (int) entry.getLongKey();
+                int chunkZ = (int) (entry.getLongKey() >> 32);
+                BitSet bits = entry.getValue();
+                for (int i = bits.nextSetBit(from); i >= 0 && i < to; i = bits.nextSetBit(i + 1)) {
+                    into.add(new BetterBlockPos(chunkX << 4 | (i & 15), y, chunkZ << 4 | ((i >> 4) & 15)));
+                    if (++found >= max) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param minY The lowest y position to include, in the world
+     * @param maxY The highest y position to include, in the world
+     * @return The chunks that have incorrect positions between the given heights
+     */
+    public LongList chunks(int minY, int maxY) {
+        int from = (Math.max(minY, originY) - originY) << 8;
+        int to = (Math.min(maxY, originY + heightY - 1) - originY + 1) << 8;
+        LongList chunks = new LongArrayList();
+        for (Long2ObjectMap.Entry<BitSet> entry : incorrect.long2ObjectEntrySet()) {
+            int i = entry.getValue().nextSetBit(from);
+            if (i >= 0 && i < to) {
+                chunks.add(entry.getLongKey());
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * Adds incorrect positions in one chunk between the given heights to a collection, lowest first
+     *
+     * @param chunk The chunk, as in {@link ChunkPos#asLong(int, int)}
+     * @param into  The collection to add to
+     * @param minY  The lowest y position to include, in the world
+     * @param maxY  The highest y position to include, in the world
+     * @param max   The number of positions to stop at
+     */
+    public void collect(long chunk, Collection<BetterBlockPos> into, int minY, int maxY, int max) {
+        BitSet bits = incorrect.get(chunk);
+        if (bits == null) {
+            return;
+        }
+        int chunkX = (int) chunk;
+        int chunkZ = (int) (chunk >> 32);
+        int from = (Math.max(minY, originY) - originY) << 8;
+        int to = (Math.min(maxY, originY + heightY - 1) - originY + 1) << 8;
+        int found = 0;
+        for (int i = bits.nextSetBit(from); i >= 0 && i < to && found < max; i = bits.nextSetBit(i + 1)) {
+            into.add(new BetterBlockPos(chunkX << 4 | (i & 15), originY + (i >> 8), chunkZ << 4 | ((i >> 4) & 15)));
+            found++;
+        }
+    }
+
+    /**
+     * Adds incorrect positions in one chunk between the given heights that are on the border of the chunk, right next
+     * to another chunk, to a collection
+     *
+     * @param chunk The chunk, as in {@link ChunkPos#asLong(int, int)}
+     * @param into  The collection to add to
+     * @param minY  The lowest y position to include, in the world
+     * @param maxY  The highest y position to include, in the world
+     */
+    public void collectBorder(long chunk, Collection<BetterBlockPos> into, int minY, int maxY) {
+        BitSet bits = incorrect.get(chunk);
+        if (bits == null) {
+            return;
+        }
+        int chunkX = (int) chunk;
+        int chunkZ = (int) (chunk >> 32);
+        int from = (Math.max(minY, originY) - originY) << 8;
+        int to = (Math.min(maxY, originY + heightY - 1) - originY + 1) << 8;
+        for (int i = bits.nextSetBit(from); i >= 0 && i < to; i = bits.nextSetBit(i + 1)) {
+            int x = i & 15;
+            int z = (i >> 4) & 15;
+            if (x == 0 || x == 15 || z == 0 || z == 15) {
+                into.add(new BetterBlockPos(chunkX << 4 | x, originY + (i >> 8), chunkZ << 4 | z));
+            }
+        }
+    }
+
+    /**
+     * @return The bit that stands for a position within its chunk
+     */
+    public int index(int x, int y, int z) {
+        return (y - originY) << 8 | (z & 15) << 4 | (x & 15);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.utils.schematic;
+
+import baritone.api.schematic.AbstractSchematic;
+import baritone.api.schematic.IStaticSchematic;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.util.math.ChunkPos;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * A static schematic that's too big to keep on the heap. The states are read from somewhere off heap, such as a memory
+ * mapped file, one 16x16 column slice at a time, and only the slices that have been looked at recently are kept in
+ * memory. Since the builder works on what's around the player, that's usually a handful of slices.
+ * <p>
+ * Whatever the states are read from is released by {@link #close()}, after which this can't be used anymore.
+ */
+public final class SlicedSchematic extends AbstractSchematic implements IStaticSchematic, Closeable {
+
+    private static final int SLICES_IN_MEMORY = 256;
+
+    /**
+     * Looks up a state by its index in the order that schematic files use, {@code (y * lengthZ + z) * widthX + x}
+     */
+    private IntFunction<IBlockState> source;
+
+    /**
+     * What the states are read from, such as the temporary file that's mapped
+     */
+    private final Closeable resource;
+
+    private final Map<Long, Slice> slices = new LinkedHashMap<Long, Slice>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Slice> eldest) {
+            return size() > SLICES_IN_MEMORY;
+        }
+    };
+
+    /**
+     * The most recently used slice, which is nearly always the right one, so that most lookups don't need a lock
+     */
+    private volatile Slice last;
+
+    public SlicedSchematic(int x, int y, int z, IntFunction<IBlockState> source, Closeable resource) {
+        super(x, y, z);
+        this.source = source;
+        this.resource = resource;
+    }
+
+    @Override
+    public IBlockState desiredState(int x, int y, int z, IBlockState current, List<IBlockState> approxPlaceable) {
+        return this.getDirect(x, y, z);
+    }
+
+    @Override
+    public IBlockState getDirect(int x, int y, int z) {
+        long key = ChunkPos.asLong(x >> 4, z >> 4);
+        Slice slice = last;
+        if (slice == null || slice.key != key) {
+            slice = slice(key, x >> 4, z >> 4);
+            last = slice;
+        }
+        return slice.states.get(((x & 15) << 4 | (z & 15)) * this.y + y);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        source = null; // so that nothing keeps what it reads from reachable
+        slices.clear();
+        last = null;
+        resource.close();
+    }
+
+    private synchronized Slice slice(long key, int sliceX, int sliceZ) {
+        Slice slice = slices.get(key);
+        if (slice == null) {
+            if (source == null) {
+                throw new IllegalStateException("Schematic has been closed");
+            }
+            slice = new Slice(key, sliceX, sliceZ);
+            slices.put(key, slice);
+        }
+        return slice;
+    }
+
+    private final class Slice {
+
+        private final long key;
+        private final PalettedArray<IBlockState> states;
+
+        private Slice(long key, int sliceX, int sliceZ) {
+            this.key = key;
+            this.states = new PalettedArray<>(16 * 16 * y, Blocks.AIR.getDefaultState());
+            int maxX = Math.min(16, x - (sliceX << 4));
+            int maxZ = Math.min(16, z - (sliceZ << 4));
+            for (int dy = 0; dy < y; dy++) {
+                for (int dz = 0; dz < maxZ; dz++) {
+                    for (int dx = 0; dx < maxX; dx++) {
+                        int index = (dy * z + (sliceZ << 4 | dz)) * x + (sliceX << 4 | dx);
+                        states.set((dx << 4 | dz) * y + dy, source.apply(index));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -20,31 +20,65 @@ package baritone.utils.schematic;
 import baritone.api.schematic.AbstractSchematic;
 import baritone.api.schematic.IStaticSchematic;
 import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
 
 import java.util.List;
 
 /**
- * Default implementation of {@link IStaticSchematic}
+ * Default implementation of {@link IStaticSchematic}. The states are kept in a {@link PalettedArray}, column by column,
+ * since a schematic rarely has more than a few hundred distinct states.
  *
  * @author Brady
  * @since 12/23/2019
  */
 public class StaticSchematic extends AbstractSchematic implements IStaticSchematic {
 
-    protected IBlockState[][][] states;
+    private final PalettedArray<IBlockState> states;
+
+    /**
+     * Creates a schematic of the given size that is entirely air
+     *
+     * @param x The width
+     * @param y The height
+     * @param z The length
+     */
+    public StaticSchematic(int x, int y, int z) {
+        super(x, y, z);
+        this.states = new PalettedArray<>(x * y * z, Blocks.AIR.getDefaultState());
+    }
 
     @Override
     public IBlockState desiredState(int x, int y, int z, IBlockState current, List<IBlockState> approxPlaceable) {
-        return this.states[x][z][y];
+        return this.getDirect(x, y, z);
     }
 
     @Override
     public IBlockState getDirect(int x, int y, int z) {
-        return this.states[x][z][y];
+        return this.states.get(index(x, y, z));
     }
 
     @Override
     public IBlockState[] getColumn(int x, int z) {
-        return this.states[x][z];
+        IBlockState[] column = new IBlockState[this.y];
+        int start = index(x, 0, z);
+        for (int i = 0; i < this.y; i++) {
+            column[i] = this.states.get(start + i);
+        }
+        return column;
+    }
+
+    public void setDirect(int x, int y, int z, IBlockState state) {
+        this.states.set(index(x, y, z), state);
+    }
+
+    /**
+     * @return Roughly how many bytes of heap the states of this schematic take up
+     */
+    public long sizeInBytes() {
+        return this.states.sizeInBytes();
+    }
+
+    private int index(int x, int y, int z) {
+        return (x * this.z + z) * this.y + y;
     }
 }
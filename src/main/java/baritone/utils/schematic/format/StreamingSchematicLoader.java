@@ -0,0 +1,365 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.utils.schematic.format;
+
+import baritone.utils.schematic.SlicedSchematic;
+import baritone.utils.schematic.format.defaults.SpongeSchematic;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Loads MCEdit and Sponge schematics that are too big to read into memory the usual way. The NBT is read in a single
+ * pass without ever holding the whole tree, the block arrays are copied into a temporary file that is then memory
+ * mapped, and the result is a {@link SlicedSchematic} that only keeps the parts that are being looked at in memory.
+ */
+public final class StreamingSchematicLoader {
+
+    private static final byte TAG_END = 0;
+    private static final byte TAG_BYTE = 1;
+    private static final byte TAG_SHORT = 2;
+    private static final byte TAG_INT = 3;
+    private static final byte TAG_LONG = 4;
+    private static final byte TAG_FLOAT = 5;
+    private static final byte TAG_DOUBLE = 6;
+    private static final byte TAG_BYTE_ARRAY = 7;
+    private static final byte TAG_STRING = 8;
+    private static final byte TAG_LIST = 9;
+    private static final byte TAG_COMPOUND = 10;
+    private static final byte TAG_INT_ARRAY = 11;
+    private static final byte TAG_LONG_ARRAY = 12;
+
+    private int width;
+    private int height;
+    private int length;
+    private int version;
+    private String materials;
+    private Map<String, Integer> palette;
+
+    private Region blocks;
+    private Region data;
+    private Region addBlocks;
+    private Region blockData;
+    private long blockDataCount;
+    private final BitSet usedPaletteIndices = new BitSet();
+
+    private DataOutputStream out;
+    private long written;
+
+    private StreamingSchematicLoader() {}
+
+    /**
+     * @return The schematic, which has to be {@link SlicedSchematic#close() closed} once it's no longer needed so that
+     * its temporary file is deleted
+     */
+    public static SlicedSchematic load(File file) throws IOException {
+        File spill = File.createTempFile("baritone-schematic", ".tmp");
+        spill.deleteOnExit(); // in case it's still mapped when it's deleted, which some platforms don't allow
+        try {
+            StreamingSchematicLoader loader = new StreamingSchematicLoader();
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))));
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(spill)))) {
+                loader.out = out;
+                if (in.readByte() != TAG_COMPOUND) {
+                    throw new IOException("Root tag must be a named compound tag");
+                }
+                in.readUTF();
+                loader.readRoot(in);
+            }
+            try (FileChannel channel = FileChannel.open(spill.toPath(), StandardOpenOption.READ)) {
+                return loader.create(channel, () -> Files.deleteIfExists(spill.toPath()));
+            }
+        } catch (IOException | RuntimeException e) {
+            spill.delete();
+            throw e;
+        }
+    }
+
+    private void readRoot(DataInputStream in) throws IOException {
+        byte type;
+        while ((type = in.readByte()) != TAG_END) {
+            String name = in.readUTF();
+            if (type == TAG_SHORT || type == TAG_INT) {
+                int value = type == TAG_SHORT ? in.readUnsignedShort() : in.readInt();
+                switch (name) {
+                    case "Width":
+                        width = value;
+                        break;
+                    case "Height":
+                        height = value;
+                        break;
+                    case "Length":
+                        length = value;
+                        break;
+                    case "Version":
+                        version = value;
+                        break;
+                    default:
+                        break;
+                }
+            } else if (type == TAG_STRING && name.equals("Materials")) {
+                materials = in.readUTF();
+            } else if (type == TAG_COMPOUND && name.equals("Palette")) {
+                palette = readPalette(in);
+            } else if (type == TAG_BYTE_ARRAY && name.equals("Blocks")) {
+                blocks = spill(in);
+            } else if (type == TAG_BYTE_ARRAY && name.equals("Data")) {
+                data = spill(in);
+            } else if (type == TAG_BYTE_ARRAY && name.equals("AddBlocks")) {
+                addBlocks = spill(in);
+            } else if (type == TAG_BYTE_ARRAY && name.equals("BlockData")) {
+                blockData = spillVarInts(in);
+            } else {
+                skip(in, type);
+            }
+        }
+    }
+
+    private static Map<String, Integer> readPalette(DataInputStream in) throws IOException {
+        Map<String, Integer> palette = new HashMap<>();
+        byte type;
+        while ((type = in.readByte()) != TAG_END) {
+            String name = in.readUTF();
+            if (type == TAG_INT) {
+                palette.put(name, in.readInt());
+            } else {
+                skip(in, type);
+            }
+        }
+        return palette;
+    }
+
+    /**
+     * Copies a byte array into the temporary file as is
+     */
+    private Region spill(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        Region region = new Region(written, length);
+        byte[] buffer = new byte[65536];
+        int remaining = length;
+        while (remaining > 0) {
+            int read = Math.min(remaining, buffer.length);
+            in.readFully(buffer, 0, read);
+            out.write(buffer, 0, read);
+            remaining -= read;
+        }
+        written += length;
+        return region;
+    }
+
+    /**
+     * Decodes a byte array of varints into the temporary file as fixed size chars, so that they can be looked up by index
+     */
+    private Region spillVarInts(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        long start = written;
+        int value = 0;
+        int shift = 0;
+        for (int i = 0; i < length; i++) {
+            byte b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) != 0) {
+                shift += 7;
+                if (shift > 28) {
+                    throw new IllegalArgumentException("VarInt in BlockData is too big");
+                }
+                continue;
+            }
+            if (value > Character.MAX_VALUE) {
+                throw new IllegalArgumentException("Invalid Palette Index " + blockDataCount);
+            }
+            out.writeChar(value);
+            usedPaletteIndices.set(value);
+            blockDataCount++;
+            value = 0;
+            shift = 0;
+        }
+        written += blockDataCount * 2;
+        return new Region(start, blockDataCount * 2);
+    }
+
+    private static void skip(DataInputStream in, byte type) throws IOException {
+        switch (type) {
+            case TAG_BYTE:
+                skipFully(in, 1);
+                break;
+            case TAG_SHORT:
+                skipFully(in, 2);
+                break;
+            case TAG_INT:
+            case TAG_FLOAT:
+                skipFully(in, 4);
+                break;
+            case TAG_LONG:
+            case TAG_DOUBLE:
+                skipFully(in, 8);
+                break;
+            case TAG_BYTE_ARRAY:
+                skipFully(in, in.readInt());
+                break;
+            case TAG_STRING:
+                skipFully(in, in.readUnsignedShort());
+                break;
+            case TAG_LIST: {
+                byte elementType = in.readByte();
+                int size = in.readInt();
+                for (int i = 0; i < size; i++) {
+                    skip(in, elementType);
+                }
+                break;
+            }
+            case TAG_COMPOUND: {
+                byte elementType;
+                while ((elementType = in.readByte()) != TAG_END) {
+                    skipFully(in, in.readUnsignedShort());
+                    skip(in, elementType);
+                }
+                break;
+            }
+            case TAG_INT_ARRAY:
+                skipFully(in, in.readInt() * 4L);
+                break;
+            case TAG_LONG_ARRAY:
+                skipFully(in, in.readInt() * 8L);
+                break;
+            default:
+                throw new IOException("Unknown NBT tag type " + type);
+        }
+    }
+
+    private static void skipFully(DataInputStream in, long amount) throws IOException {
+        while (amount > 0) {
+            long skipped = in.skip(amount);
+            if (skipped <= 0) {
+                in.readByte(); // throws EOFException if we've run out
+                skipped = 1;
+            }
+            amount -= skipped;
+        }
+    }
+
+    private SlicedSchematic create(FileChannel channel, Closeable spill) throws IOException {
+        long volume = (long) width * height * length;
+        if (volume > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Schematic is too big");
+        }
+        if (blockData != null && palette != null) {
+            if (version != 1 && version != 2) {
+                throw new UnsupportedOperationException("Unsupported Version of a Sponge Schematic");
+            }
+            if (blockDataCount < volume) {
+                throw new IllegalArgumentException("No remaining bytes in BlockData for complete schematic");
+            }
+            IBlockState[] states = new IBlockState[usedPaletteIndices.length()];
+            for (Map.Entry<String, Integer> entry : palette.entrySet()) {
+                if (entry.getValue() >= 0 && entry.getValue() < states.length) {
+                    states[entry.getValue()] = SpongeSchematic.deserializeState(entry.getKey());
+                }
+            }
+            for (int i = usedPaletteIndices.nextSetBit(0); i >= 0; i = usedPaletteIndices.nextSetBit(i + 1)) {
+                if (states[i] == null) {
+                    throw new IllegalArgumentException("Invalid Palette Index " + i);
+                }
+            }
+            MappedBytes indices = new MappedBytes(channel, blockData);
+            return new SlicedSchematic(width, height, length, index -> states[indices.getChar(index * 2L)], spill);
+        }
+        if (blocks != null && data != null) {
+            if (!"Alpha".equals(materials)) {
+                throw new IllegalStateException("bad schematic " + materials);
+            }
+            if (blocks.length < volume || data.length < volume) {
+                throw new IllegalArgumentException("Block arrays are smaller than the schematic");
+            }
+            return new SlicedSchematic(width, height, length, mcEditStates(
+                    new MappedBytes(channel, blocks),
+                    new MappedBytes(channel, data),
+                    addBlocks == null ? null : new MappedBytes(channel, addBlocks)
+            ), spill);
+        }
+        throw new IllegalArgumentException("Not an MCEdit or Sponge schematic");
+    }
+
+    private static IntFunction<IBlockState> mcEditStates(MappedBytes blocks, MappedBytes data, MappedBytes addBlocks) {
+        Int2ObjectOpenHashMap<IBlockState> cache = new Int2ObjectOpenHashMap<>();
+        return index -> {
+            int blockID = blocks.get(index) & 0xFF;
+            if (addBlocks != null) {
+                byte add = addBlocks.get(index >> 1);
+                // two per byte, upper nibble first
+                blockID |= ((index & 1) == 0 ? (add >> 4) & 0xF : add & 0xF) << 8;
+            }
+            int meta = data.get(index) & 0xFF;
+            int key = blockID << 8 | meta;
+            IBlockState state = cache.get(key);
+            if (state == null) {
+                state = Block.REGISTRY.getObjectById(blockID).getStateFromMeta(meta);
+                cache.put(key, state);
+            }
+            return state;
+        };
+    }
+
+    private static final class Region {
+
+        private final long offset;
+        private final long length;
+
+        private Region(long offset, long length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    /**
+     * A region of the temporary file, mapped in pieces since a single mapping can't be bigger than 2GB
+     */
+    private static final class MappedBytes {
+
+        private static final int PIECE_BITS = 30;
+
+        private final ByteBuffer[] pieces;
+
+        private MappedBytes(FileChannel channel, Region region) throws IOException {
+            this.pieces = new ByteBuffer[(int) ((region.length + (1L << PIECE_BITS) - 1) >> PIECE_BITS)];
+            for (int i = 0; i < pieces.length; i++) {
+                long start = (long) i << PIECE_BITS;
+                pieces[i] = channel.map(FileChannel.MapMode.READ_ONLY, region.offset + start, Math.min(1L << PIECE_BITS, region.length - start));
+            }
+        }
+
+        private byte get(long index) {
+            return pieces[(int) (index >> PIECE_BITS)].get((int) (index & ((1 << PIECE_BITS) - 1)));
+        }
+
+        private char getChar(long index) {
+            return pieces[(int) (index >> PIECE_BITS)].getChar((int) (index & ((1 << PIECE_BITS) - 1)));
+        }
+    }
+}
@@ -19,7 +19,6 @@ package baritone.utils.schematic.format.defaults;
 
 import baritone.utils.schematic.StaticSchematic;
 import net.minecraft.block.Block;
-import net.minecraft.block.state.IBlockState;
 import net.minecraft.nbt.NBTTagCompound;
 
 /**
@@ -29,13 +28,11 @@ import net.minecraft.nbt.NBTTagCompound;
 public final class MCEditSchematic extends StaticSchematic {
 
     public MCEditSchematic(NBTTagCompound schematic) {
+        super(schematic.getInteger("Width"), schematic.getInteger("Height"), schematic.getInteger("Length"));
         String type = schematic.getString("Materials");
         if (!type.equals("Alpha")) {
             throw new IllegalStateException("bad schematic " + type);
         }
-        this.x = schematic.getInteger("Width");
-        this.y = schematic.getInteger("Height");
-        this.z = schematic.getInteger("Length");
         byte[] blocks = schematic.getByteArray("Blocks");
         byte[] metadata = schematic.getByteArray("Data");
 
@@ -48,7 +45,6 @@ public final class MCEditSchematic extends StaticSchematic {
                 additional[i * 2 + 1] = (byte) ((addBlocks[i] >> 0) & 0xF); // upper nibble
             }
         }
-        this.states = new IBlockState[this.x][this.z][this.y];
         for (int y = 0; y < this.y; y++) {
             for (int z = 0; z < this.z; z++) {
                 for (int x = 0; x < this.x; x++) {
@@ -61,7 +57,7 @@ public final class MCEditSchematic extends StaticSchematic {
                     }
                     Block block = Block.REGISTRY.getObjectById(blockID);
                     int meta = metadata[blockInd] & 0xFF;
-                    this.states[x][z][y] = block.getStateFromMeta(meta);
+                    this.setDirect(x, y, z, block.getStateFromMeta(meta));
                 }
             }
         }
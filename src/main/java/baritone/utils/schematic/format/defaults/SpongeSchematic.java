@@ -39,58 +39,55 @@ import java.util.regex.Pattern;
 public final class SpongeSchematic extends StaticSchematic {
 
     public SpongeSchematic(NBTTagCompound nbt) {
-        this.x = nbt.getInteger("Width");
-        this.y = nbt.getInteger("Height");
-        this.z = nbt.getInteger("Length");
-        this.states = new IBlockState[this.x][this.z][this.y];
+        super(nbt.getInteger("Width"), nbt.getInteger("Height"), nbt.getInteger("Length"));
 
         Int2ObjectArrayMap<IBlockState> palette = new Int2ObjectArrayMap<>();
         NBTTagCompound paletteTag = nbt.getCompoundTag("Palette");
         for (String tag : paletteTag.getKeySet()) {
-            int index = paletteTag.getInteger(tag);
-
-            SerializedBlockState serializedState = SerializedBlockState.getFromString(tag);
-            if (serializedState == null) {
-                throw new IllegalArgumentException("Unable to parse palette tag");
-            }
-
-            IBlockState state = serializedState.deserialize();
-            if (state == null) {
-                throw new IllegalArgumentException("Unable to deserialize palette tag");
-            }
-
-            palette.put(index, state);
+            palette.put(paletteTag.getInteger(tag), deserializeState(tag));
         }
 
         // BlockData is stored as an NBT byte[], however, the actual data that is represented is a varint[]
+        // it's in the same y, z, x order that we iterate in, so it can be decoded straight into the schematic
         byte[] rawBlockData = nbt.getByteArray("BlockData");
-        int[] blockData = new int[this.x * this.y * this.z];
         int offset = 0;
-        for (int i = 0; i < blockData.length; i++) {
-            if (offset >= rawBlockData.length) {
-                throw new IllegalArgumentException("No remaining bytes in BlockData for complete schematic");
-            }
-
-            VarInt varInt = VarInt.read(rawBlockData, offset);
-            blockData[i] = varInt.getValue();
-            offset += varInt.getSize();
-        }
-
         for (int y = 0; y < this.y; y++) {
             for (int z = 0; z < this.z; z++) {
                 for (int x = 0; x < this.x; x++) {
-                    int index = (y * this.z + z) * this.x + x;
-                    IBlockState state = palette.get(blockData[index]);
+                    if (offset >= rawBlockData.length) {
+                        throw new IllegalArgumentException("No remaining bytes in BlockData for complete schematic");
+                    }
+                    VarInt varInt = VarInt.read(rawBlockData, offset);
+                    offset += varInt.getSize();
+
+                    IBlockState state = palette.get(varInt.getValue());
                     if (state == null) {
-                        throw new IllegalArgumentException("Invalid Palette Index " + index);
+                        throw new IllegalArgumentException("Invalid Palette Index " + ((y * this.z + z) * this.x + x));
                     }
 
-                    this.states[x][z][y] = state;
+                    this.setDirect(x, y, z, state);
                 }
             }
         }
     }
 
+    /**
+     * @param tag A block state as it's written in the palette, such as {@code minecraft:oak_stairs[facing=east]}
+     * @return The block state
+     */
+    public static IBlockState deserializeState(String tag) {
+        SerializedBlockState serializedState = SerializedBlockState.getFromString(tag);
+        if (serializedState == null) {
+            throw new IllegalArgumentException("Unable to parse palette tag");
+        }
+
+        IBlockState state = serializedState.deserialize();
+        if (state == null) {
+            throw new IllegalArgumentException("Unable to deserialize palette tag");
+        }
+        return state;
+    }
+
     private static final class SerializedBlockState {
 
         private static final Pattern REGEX = Pattern.compile("(?<location>(\\w+:)?\\w+)(\\[(?<properties>(\\w+=\\w+,?)+)])?");
@@ -17,43 +17,24 @@
 
 package baritone.utils.schematic.schematica;
 
-import baritone.api.schematic.IStaticSchematic;
+import baritone.utils.schematic.StaticSchematic;
 import com.github.lunatrius.schematica.client.world.SchematicWorld;
-import net.minecraft.block.state.IBlockState;
 import net.minecraft.util.math.BlockPos;
 
-import java.util.List;
-
-public final class SchematicAdapter implements IStaticSchematic {
-
-    private final SchematicWorld schematic;
+/**
+ * A copy of the schematic that's open in Schematica, taken when it's adapted
+ */
+public final class SchematicAdapter extends StaticSchematic {
 
     public SchematicAdapter(SchematicWorld schematicWorld) {
-        this.schematic = schematicWorld;
-    }
-
-    @Override
-    public IBlockState desiredState(int x, int y, int z, IBlockState current, List<IBlockState> approxPlaceable) {
-        return this.getDirect(x, y, z);
-    }
-
-    @Override
-    public IBlockState getDirect(int x, int y, int z) {
-        return this.schematic.getSchematic().getBlockState(new BlockPos(x, y, z));
-    }
-
-    @Override
-    public int widthX() {
-        return schematic.getSchematic().getWidth();
-    }
-
-    @Override
-    public int heightY() {
-        return schematic.getSchematic().getHeight();
-    }
-
-    @Override
-    public int lengthZ() {
-        return schematic.getSchematic().getLength();
+        super(schematicWorld.getSchematic().getWidth(), schematicWorld.getSchematic().getHeight(), schematicWorld.getSchematic().getLength());
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        for (int x = 0; x < this.x; x++) {
+            for (int z = 0; z < this.z; z++) {
+                for (int y = 0; y < this.y; y++) {
+                    this.setDirect(x, y, z, schematicWorld.getSchematic().getBlockState(pos.setPos(x, y, z)));
+                }
+            }
+        }
     }
 }
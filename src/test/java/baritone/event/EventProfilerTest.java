@@ -0,0 +1,61 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.event;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class EventProfilerTest {
+
+    @Test
+    public void testWorst() {
+        EventProfiler profiler = new EventProfiler();
+        Object fast = new Object();
+        Object slow = "slow";
+        for (int i = 1; i <= 100; i++) {
+            profiler.record(EventProfiler.Event.TICK, fast, i);
+            profiler.record(EventProfiler.Event.RENDER_PASS, slow, i * 10);
+        }
+        List<EventProfiler.Histogram> worst = profiler.worst(5);
+        assertEquals(2, worst.size());
+        assertEquals("String", worst.get(0).name);
+        assertEquals(EventProfiler.Event.RENDER_PASS, worst.get(0).event);
+        assertEquals(500, worst.get(0).percentile(0.5));
+        assertEquals(990, worst.get(0).percentile(0.99));
+        assertEquals(1000, worst.get(0).max());
+        assertEquals(50, worst.get(1).percentile(0.5));
+        profiler.reset();
+        assertEquals(0, profiler.worst(5).size());
+    }
+
+    @Test
+    public void testOnlyRecentSamples() {
+        EventProfiler profiler = new EventProfiler();
+        Object source = new Object();
+        profiler.record(EventProfiler.Event.TICK, source, 1_000_000);
+        for (int i = 0; i < EventProfiler.Histogram.SIZE; i++) {
+            profiler.record(EventProfiler.Event.TICK, source, 5);
+        }
+        EventProfiler.Histogram histogram = profiler.worst(1).get(0);
+        assertEquals(5, histogram.max());
+        assertEquals(EventProfiler.Histogram.SIZE + 1, histogram.count());
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.event;
+
+import baritone.api.event.events.PacketEvent;
+import baritone.api.event.events.RenderEvent;
+import baritone.api.event.events.TickEvent;
+import baritone.api.event.listener.AbstractGameEventListener;
+import baritone.api.event.listener.IGameEventListener;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ListenerTableTest {
+
+    private static class TickListener implements AbstractGameEventListener {
+
+        @Override
+        public void onTick(TickEvent event) {}
+    }
+
+    private static class TickAndRenderListener extends TickListener {
+
+        @Override
+        public void onRenderPass(RenderEvent event) {}
+    }
+
+    private static class PacketListener implements AbstractGameEventListener {
+
+        @Override
+        public void onSendPacket(PacketEvent event) {}
+    }
+
+    private static class RenderListener implements AbstractGameEventListener {
+
+        private int renders;
+
+        @Override
+        public void onRenderPass(RenderEvent event) {
+            renders++;
+        }
+    }
+
+    @Test
+    public void testOnlyOverriddenMethods() {
+        ListenerTable table = new ListenerTable();
+        TickListener tick = new TickListener();
+        TickAndRenderListener tickAndRender = new TickAndRenderListener();
+        table.register(tick);
+        table.register(tickAndRender);
+        table.register(new AbstractGameEventListener() {});
+        assertArrayEquals(new Object[]{tick, tickAndRender}, table.get(ListenerTable.Type.TICK));
+        assertArrayEquals(new Object[]{tickAndRender}, table.get(ListenerTable.Type.RENDER_PASS));
+        assertEquals(0, table.get(ListenerTable.Type.PLAYER_UPDATE).length);
+        assertEquals(0, table.get(ListenerTable.Type.PLAYER_DEATH).length);
+    }
+
+    /**
+     * Dispatches render passes to many bots worth of listeners, where only one listener per bot handles them, through
+     * the table and through a {@link CopyOnWriteArrayList#forEach} over every listener as before. Both have to deliver
+     * the same events. The table only calls the listeners that handle them and should take less time; the times are
+     * printed, since they depend on the machine.
+     */
+    @Test
+    public void testDispatchToManyBots() {
+        int bots = 16;
+        ListenerTable table = new ListenerTable();
+        List<IGameEventListener> list = new CopyOnWriteArrayList<>();
+        RenderListener[] renderListeners = new RenderListener[bots];
+        for (int i = 0; i < bots; i++) {
+            renderListeners[i] = new RenderListener();
+            IGameEventListener[] listeners = {
+                    new TickListener(), new TickListener(), new TickListener(), new TickAndRenderListener(),
+                    new PacketListener(), new PacketListener(), new PacketListener(), new PacketListener(),
+                    new AbstractGameEventListener() {}, new AbstractGameEventListener() {}, new AbstractGameEventListener() {},
+                    renderListeners[i]
+            };
+            for (IGameEventListener listener : listeners) {
+                table.register(listener);
+                list.add(listener);
+            }
+        }
+        assertEquals(bots * 2, table.get(ListenerTable.Type.RENDER_PASS).length);
+        assertEquals(bots * 12, list.size());
+
+        RenderEvent event = new RenderEvent(0);
+        int frames = 200000;
+        for (int i = 0; i < frames; i++) { // warm up both
+            list.forEach(l -> l.onRenderPass(event));
+            for (IGameEventListener l : table.get(ListenerTable.Type.RENDER_PASS)) {
+                l.onRenderPass(event);
+            }
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < frames; i++) {
+            list.forEach(l -> l.onRenderPass(event));
+        }
+        long listNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < frames; i++) {
+            for (IGameEventListener l : table.get(ListenerTable.Type.RENDER_PASS)) {
+                l.onRenderPass(event);
+            }
+        }
+        long tableNanos = System.nanoTime() - start;
+        System.out.printf("%d listeners: %.1f ns per event through the list, %.1f ns through the table%n",
+                list.size(), (double) listNanos / frames, (double) tableNanos / frames);
+
+        for (RenderListener listener : renderListeners) {
+            assertEquals(frames * 4, listener.renders);
+        }
+        assertTrue("table took " + tableNanos + " ns, list " + listNanos + " ns", tableNanos < listNanos);
+    }
+}
@@ -73,6 +73,48 @@ public class OpenSetsTest {
         }
     }
 
+    @Test
+    public void testRetainLowest() {
+        BinaryHeapOpenSet set = new BinaryHeapOpenSet();
+        ArrayList<PathNode> nodes = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            PathNode pn = new PathNode(0, 0, 0, new Goal() {
+                @Override
+                public boolean isInGoal(int x, int y, int z) {
+                    return false;
+                }
+
+                @Override
+                public double heuristic(int x, int y, int z) {
+                    return 0;
+                }
+            });
+            pn.combinedCost = Math.random();
+            nodes.add(pn);
+            set.insert(pn);
+        }
+        nodes.sort(Comparator.comparingDouble(pn -> pn.combinedCost));
+        PathNode[] removed = set.retainLowest(size / 2);
+        assertEquals(size - size / 2, removed.length);
+        for (PathNode pn : removed) {
+            assertFalse(pn.isOpen());
+            assertTrue(nodes.indexOf(pn) >= size / 2);
+        }
+        assertEquals(size / 2, set.size());
+        // the heap must still be consistent after being cut down, so new insertions should end up in the right place
+        for (int i = 0; i < size / 2; i++) {
+            PathNode pn = nodes.get(size / 2 + i);
+            pn.combinedCost = Math.random();
+            set.insert(pn);
+        }
+        double last = -1;
+        while (!set.isEmpty()) {
+            double cost = set.removeLowest().combinedCost;
+            assertTrue(cost >= last);
+            last = cost;
+        }
+    }
+
     @Test
     public void testSize() {
         System.out.println("Testing size " + size);
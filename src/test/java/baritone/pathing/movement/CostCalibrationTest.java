@@ -0,0 +1,60 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.movement;
+
+import baritone.pathing.movement.CostCalibration.Kind;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class CostCalibrationTest {
+
+    @Test
+    public void testMultipliers() {
+        CostCalibration calibration = new CostCalibration();
+        for (int i = 0; i < 40; i++) {
+            calibration.record(Kind.TRAVERSE, CostCalibration.SPRINT, 0, 3.5, 5); // ~1.43 times slower
+            calibration.record(Kind.PILLAR, CostCalibration.PLACE, 0, 20, 20);
+        }
+        calibration.record(Kind.ASCEND, 0, 0, 10, 20);
+        calibration.record(Kind.DESCEND, 0, 1, 5, 2000); // stuck, thrown away
+        double[] multipliers = calibration.multipliers(30);
+        assertEquals(1.45, multipliers[Kind.TRAVERSE.ordinal()], 1e-9);
+        assertEquals(1, multipliers[Kind.PILLAR.ordinal()], 1e-9);
+        assertEquals(1, multipliers[Kind.ASCEND.ordinal()], 1e-9); // not enough samples
+        assertEquals(81, calibration.size());
+    }
+
+    @Test
+    public void testNeverCheaper() {
+        CostCalibration calibration = new CostCalibration();
+        for (int i = 0; i < 40; i++) {
+            calibration.record(Kind.TRAVERSE, 0, 0, 10, 6); // faster than the cost said
+        }
+        assertEquals(1, calibration.multipliers(30)[Kind.TRAVERSE.ordinal()], 1e-9);
+    }
+
+    @Test
+    public void testOldSamplesRollOff() {
+        CostCalibration calibration = new CostCalibration();
+        for (int i = 0; i < 10000; i++) {
+            calibration.record(Kind.DIAGONAL, 0, 0, 10, i < 5000 ? 18 : 12);
+        }
+        assertEquals(1.2, calibration.multipliers(1)[Kind.DIAGONAL.ordinal()], 1e-9);
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.path;
+
+import net.minecraft.util.math.BlockPos;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MovementBlockSetTest {
+
+    @Test
+    public void testOverlappingMovements() {
+        BlockPos a = new BlockPos(1, 2, 3);
+        BlockPos b = new BlockPos(-4, 5, -6);
+        MovementBlockSet set = new MovementBlockSet(3);
+        set.set(0, Arrays.asList(a, b));
+        set.set(1, Collections.singletonList(a));
+        assertEquals(2, set.positions().size());
+
+        set.remove(0);
+        assertEquals(1, set.positions().size());
+        assertTrue(set.positions().contains(a.toLong())); // still wanted by movement 1
+
+        set.set(1, Collections.singletonList(b));
+        assertEquals(1, set.positions().size());
+        assertTrue(set.positions().contains(b.toLong()));
+
+        set.remove(1);
+        set.remove(2); // never counted
+        assertTrue(set.positions().isEmpty());
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.path;
+
+import net.minecraft.util.Tuple;
+import net.minecraft.util.math.BlockPos;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+
+public class PathPositionIndexTest {
+
+    @Test
+    public void testFirstMovementContaining() {
+        List<Set<BlockPos>> valid = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            valid.add(new HashSet<>(Arrays.asList(new BlockPos(i, 64, 0), new BlockPos(i + 1, 64, 0))));
+        }
+        valid.add(Collections.singleton(new BlockPos(3, 64, 0))); // path loops back on itself
+        PathPositionIndex index = new PathPositionIndex(valid);
+        BlockPos pos = new BlockPos(3, 64, 0);
+        assertEquals(2, index.firstMovementContaining(pos, 0, 11));
+        assertEquals(3, index.firstMovementContaining(pos, 3, 11));
+        assertEquals(10, index.firstMovementContaining(pos, 4, 11));
+        assertEquals(-1, index.firstMovementContaining(pos, 4, 10));
+        assertEquals(-1, index.firstMovementContaining(new BlockPos(3, 65, 0), 0, 11));
+    }
+
+    @Test
+    public void testClosestMatchesLinearScan() {
+        Random rand = new Random(38);
+        List<Set<BlockPos>> valid = new ArrayList<>();
+        BlockPos pos = new BlockPos(-20, 70, 13);
+        for (int i = 0; i < 2000; i++) {
+            BlockPos next = pos.add(rand.nextInt(3) - 1, rand.nextInt(3) - 1, rand.nextInt(3) - 1);
+            valid.add(new HashSet<>(Arrays.asList(pos, next)));
+            pos = next;
+        }
+        PathPositionIndex index = new PathPositionIndex(valid);
+        for (int i = 0; i < 1000; i++) {
+            // mostly near the path, sometimes nowhere near it
+            double spread = i % 10 == 0 ? 500 : 40;
+            double x = -20 + (rand.nextDouble() - 0.5) * spread;
+            double y = 70 + (rand.nextDouble() - 0.5) * spread;
+            double z = 13 + (rand.nextDouble() - 0.5) * spread;
+            double best = Double.MAX_VALUE;
+            for (Set<BlockPos> positions : valid) {
+                for (BlockPos p : positions) {
+                    best = Math.min(best, Math.sqrt(sq(p.getX() + 0.5 - x) + sq(p.getY() + 0.5 - y) + sq(p.getZ() + 0.5 - z)));
+                }
+            }
+            Tuple<Double, BlockPos> closest = index.closest(x, y, z);
+            assertEquals(best, closest.getFirst(), 1e-9);
+            BlockPos found = closest.getSecond();
+            assertEquals(best, Math.sqrt(sq(found.getX() + 0.5 - x) + sq(found.getY() + 0.5 - y) + sq(found.getZ() + 0.5 - z)), 1e-9);
+        }
+    }
+
+    private static double sq(double d) {
+        return d * d;
+    }
+}
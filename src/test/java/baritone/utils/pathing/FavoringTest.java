@@ -0,0 +1,81 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.utils.pathing;
+
+import baritone.api.utils.BetterBlockPos;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FavoringTest {
+
+    @Test
+    public void testMatchesBruteForce() {
+        Random random = new Random(5021);
+        List<Avoidance> avoidances = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            avoidances.add(new Avoidance(random.nextInt(100) - 50, 64 + random.nextInt(10), random.nextInt(100) - 50, 1.5 + i, 8));
+        }
+        List<BetterBlockPos> path = new ArrayList<>();
+        for (int x = -40; x < 40; x++) {
+            path.add(new BetterBlockPos(x, 64, x / 2));
+        }
+        check(new Favoring(path, 0.5, avoidances), path, 0.5, avoidances, random);
+    }
+
+    @Test
+    public void testFarApart() {
+        Random random = new Random(5021);
+        List<Avoidance> avoidances = new ArrayList<>();
+        avoidances.add(new Avoidance(-10000, 64, 0, 2, 16));
+        avoidances.add(new Avoidance(10000, 64, 0, 3, 16));
+        check(new Favoring(null, 0.5, avoidances), new ArrayList<>(), 0.5, avoidances, random);
+        assertEquals(2, new Favoring(null, 0.5, avoidances).calculate(-10000, 70, 5, BetterBlockPos.longHash(-10000, 70, 5)), 1e-9);
+    }
+
+    @Test
+    public void testEmpty() {
+        assertTrue(new Favoring(null, 0.5, new ArrayList<>()).isEmpty());
+        assertTrue(new Favoring(new ArrayList<>(), 1, new ArrayList<>()).isEmpty());
+    }
+
+    private static void check(Favoring favoring, List<BetterBlockPos> path, double backtrack, List<Avoidance> avoidances, Random random) {
+        for (int i = 0; i < 100000; i++) {
+            int x = random.nextInt(200) - 100;
+            int y = 54 + random.nextInt(30);
+            int z = random.nextInt(200) - 100;
+            check(favoring, path, backtrack, avoidances, x, y, z);
+        }
+        for (BetterBlockPos pos : path) {
+            check(favoring, path, backtrack, avoidances, pos.x, pos.y, pos.z);
+        }
+    }
+
+    private static void check(Favoring favoring, List<BetterBlockPos> path, double backtrack, List<Avoidance> avoidances, int x, int y, int z) {
+        double expected = path.contains(new BetterBlockPos(x, y, z)) ? backtrack : 1;
+        for (Avoidance avoid : avoidances) {
+            expected *= avoid.coefficient(x, y, z);
+        }
+        assertEquals(expected, favoring.calculate(x, y, z, BetterBlockPos.longHash(x, y, z)), 1e-9);
+    }
+}
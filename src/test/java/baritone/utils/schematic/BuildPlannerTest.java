@@ -0,0 +1,154 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.utils.schematic;
+
+import baritone.api.utils.BetterBlockPos;
+import it.unimi.dsi.fastutil.longs.*;
+import net.minecraft.util.math.ChunkPos;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class BuildPlannerTest {
+
+    @Test
+    public void testLine() {
+        LongArrayList chunks = new LongArrayList();
+        for (int x : new int[]{5, 2, 9, 0, 7, 1}) {
+            chunks.add(ChunkPos.asLong(x, 3));
+        }
+        long[] expected = {ChunkPos.asLong(0, 3), ChunkPos.asLong(1, 3), ChunkPos.asLong(2, 3), ChunkPos.asLong(5, 3), ChunkPos.asLong(7, 3), ChunkPos.asLong(9, 3)};
+        assertArrayEquals(expected, BuildPlanner.order(chunks, 0, 3));
+    }
+
+    @Test
+    public void testShorterThanScanOrder() {
+        Random rand = new Random(4);
+        LongArrayList chunks = new LongArrayList();
+        for (int i = 0; i < 300; i++) {
+            long chunk = ChunkPos.asLong(rand.nextInt(40), rand.nextInt(40));
+            if (!chunks.contains(chunk)) {
+                chunks.add(chunk);
+            }
+        }
+        long[] order = BuildPlanner.order(chunks, 0, 0);
+        long[] sorted = order.clone();
+        Arrays.sort(sorted);
+        long[] original = chunks.toLongArray();
+        Arrays.sort(original);
+        assertArrayEquals(original, sorted);
+        assertTrue(length(order) < length(chunks.toLongArray()));
+    }
+
+    @Test
+    public void testDependenciesFirst() {
+        LongArrayList chunks = new LongArrayList();
+        for (int x = 0; x < 4; x++) {
+            chunks.add(ChunkPos.asLong(x, 0));
+        }
+        // the nearest chunk hangs off the farthest one, which hangs off the one next to it
+        Long2ObjectMap<LongSet> after = new Long2ObjectOpenHashMap<>();
+        after.put(ChunkPos.asLong(0, 0), LongSets.singleton(ChunkPos.asLong(3, 0)));
+        after.put(ChunkPos.asLong(3, 0), LongSets.singleton(ChunkPos.asLong(2, 0)));
+        long[] expected = {ChunkPos.asLong(1, 0), ChunkPos.asLong(2, 0), ChunkPos.asLong(3, 0), ChunkPos.asLong(0, 0)};
+        assertArrayEquals(expected, BuildPlanner.order(chunks, after, 0, 0));
+    }
+
+    @Test
+    public void testCycle() {
+        LongArrayList chunks = new LongArrayList();
+        chunks.add(ChunkPos.asLong(0, 0));
+        chunks.add(ChunkPos.asLong(1, 0));
+        chunks.add(ChunkPos.asLong(2, 0));
+        Long2ObjectMap<LongSet> after = new Long2ObjectOpenHashMap<>();
+        after.put(ChunkPos.asLong(0, 0), LongSets.singleton(ChunkPos.asLong(1, 0)));
+        after.put(ChunkPos.asLong(1, 0), LongSets.singleton(ChunkPos.asLong(0, 0)));
+        long[] order = BuildPlanner.order(chunks, after, 0, 0);
+        assertEquals(3, order.length);
+        assertEquals(ChunkPos.asLong(2, 0), order[0]); // the only chunk that isn't waiting goes first
+    }
+
+    @Test
+    public void testDependenciesFromBorders() {
+        SchematicProgress progress = new SchematicProgress(0, 16);
+        progress.set(15, 0, 3, true); // on the border of chunk 0, 0
+        progress.set(16, 0, 3, true); // on the border of chunk 1, 0
+        progress.set(5, 0, 5, true); // inside chunk 0, 0, never asked about
+        LongArrayList chunks = new LongArrayList();
+        chunks.add(ChunkPos.asLong(0, 0));
+        chunks.add(ChunkPos.asLong(1, 0));
+        List<BetterBlockPos> asked = new ArrayList<>();
+        Long2ObjectMap<LongSet> after = BuildPlanner.dependencies(progress, (pos, into) -> {
+            asked.add(pos);
+            if (pos.x == 15) {
+                into.add(pos.east()); // hangs off the block in the next chunk
+            }
+        }, chunks, 0, 15);
+        assertEquals(2, asked.size());
+        assertEquals(1, after.size());
+        assertEquals(LongSets.singleton(ChunkPos.asLong(1, 0)), after.get(ChunkPos.asLong(0, 0)));
+    }
+
+    @Test
+    public void testSkipFirstBatch() {
+        SchematicProgress progress = new SchematicProgress(0, 16);
+        progress.set(1, 0, 1, true); // chunk 0, 0
+        progress.set(33, 0, 1, true); // chunk 2, 0
+        progress.set(65, 0, 1, true); // chunk 4, 0
+        BuildPlanner planner = new BuildPlanner();
+        Set<BetterBlockPos> batch = new HashSet<>();
+
+        assertTrue(planner.next(progress, (pos, into) -> {}, batch, 0, 15, 64, 0, 0));
+        assertEquals(Collections.singleton(new BetterBlockPos(1, 0, 1)), batch);
+
+        // the first batch can't be done, so move on to the next one even though it's still incorrect
+        batch.clear();
+        assertTrue(planner.skip(progress, batch, 0, 15, 64));
+        assertEquals(Collections.singleton(new BetterBlockPos(33, 0, 1)), batch);
+
+        // finishing that batch continues along the route rather than going back to the skipped one
+        progress.set(33, 0, 1, false);
+        batch.clear();
+        assertTrue(planner.next(progress, (pos, into) -> {}, batch, 0, 15, 64, 2, 0));
+        assertEquals(Collections.singleton(new BetterBlockPos(65, 0, 1)), batch);
+
+        batch.clear();
+        assertFalse(planner.skip(progress, batch, 0, 15, 64));
+        assertTrue(batch.isEmpty());
+
+        // the skipped batch comes back once the route is replanned
+        assertTrue(planner.next(progress, (pos, into) -> {}, batch, 0, 15, 64, 0, 0));
+        assertEquals(Collections.singleton(new BetterBlockPos(1, 0, 1)), batch);
+    }
+
+    private static double length(long[] route) {
+        double length = 0;
+        int x = 0;
+        int z = 0;
+        for (long chunk : route) {
+            int dx = (int) chunk - x;
+            int dz = (int) (chunk >> 32) - z;
+            length += Math.sqrt(dx * dx + dz * dz);
+            x = (int) chunk;
+            z = (int) (chunk >> 32);
+        }
+        return length;
+    }
+}
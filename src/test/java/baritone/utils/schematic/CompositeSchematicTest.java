@@ -0,0 +1,199 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.utils.schematic;
+
+import baritone.api.schematic.AbstractSchematic;
+import baritone.api.schematic.CompositeSchematic;
+import baritone.api.schematic.ISchematic;
+import net.minecraft.block.state.IBlockState;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CompositeSchematicTest {
+
+    @Test
+    public void testMatchesLinearScan() {
+        Random rand = new Random(8264);
+        CompositeSchematic composite = new CompositeSchematic(0, 0, 0);
+        List<int[]> boxes = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            int[] box = {rand.nextInt(500), rand.nextInt(50), rand.nextInt(500), 1 + rand.nextInt(60), 1 + rand.nextInt(20), 1 + rand.nextInt(60)};
+            boxes.add(box);
+            composite.put(new Checkerboard(box[3], box[4], box[5], i % 2 == 0), box[0], box[1], box[2]);
+        }
+        for (int i = 0; i < 100000; i++) {
+            int x = rand.nextInt(600) - 20;
+            int y = rand.nextInt(80) - 10;
+            int z = rand.nextInt(600) - 20;
+            assertEquals(linearScan(boxes, x, y, z), composite.inSchematic(x, y, z, null));
+        }
+    }
+
+    /**
+     * One fill spanning the whole area among many small entries shouldn't make every lookup check many entries, and
+     * the first entry added should still win where it overlaps the small ones.
+     */
+    @Test
+    public void testLargeEntryAmongSmallOnes() {
+        Random rand = new Random(5310);
+        int[] checks = new int[1];
+        CompositeSchematic composite = new CompositeSchematic(0, 0, 0);
+        List<int[]> boxes = new ArrayList<>();
+        for (int i = 0; i < 1001; i++) {
+            int[] box = i == 500
+                    ? new int[]{0, 0, 0, 2048, 4, 2048}
+                    : new int[]{rand.nextInt(2048), rand.nextInt(4), rand.nextInt(2048), 1 + rand.nextInt(3), 1 + rand.nextInt(3), 1 + rand.nextInt(3)};
+            boxes.add(box);
+            composite.put(new Checkerboard(box[3], box[4], box[5], i % 2 == 0) {
+                @Override
+                public boolean inSchematic(int x, int y, int z, IBlockState currentState) {
+                    checks[0]++;
+                    return super.inSchematic(x, y, z, currentState);
+                }
+            }, box[0], box[1], box[2]);
+        }
+        int maxChecks = 0;
+        for (int i = 0; i < 100000; i++) {
+            int x = rand.nextInt(2048);
+            int y = rand.nextInt(4);
+            int z = rand.nextInt(2048);
+            checks[0] = 0;
+            assertEquals(linearScan(boxes, x, y, z), composite.inSchematic(x, y, z, null));
+            maxChecks = Math.max(maxChecks, checks[0]);
+        }
+        // the large entry plus the few small ones in the cell, and a second check of the one that matched
+        assertTrue("a lookup checked " + maxChecks + " entries", maxChecks <= 10);
+    }
+
+    /**
+     * Entries laid out side by side, like a tiled fill or buildRepeat, should each only be checked for lookups in their
+     * own cell rather than for every lookup.
+     */
+    @Test
+    public void testLookupOnlyChecksItsCell() {
+        int side = 32;
+        int[] checks = new int[1];
+        CompositeSchematic composite = new CompositeSchematic(0, 0, 0);
+        for (int i = 0; i < side * side; i++) {
+            composite.put(new Checkerboard(16, 16, 16, true) {
+                @Override
+                public boolean inSchematic(int x, int y, int z, IBlockState currentState) {
+                    checks[0]++;
+                    return super.inSchematic(x, y, z, currentState);
+                }
+            }, (i % side) * 16, 0, (i / side) * 16);
+        }
+        Random rand = new Random(1);
+        for (int i = 0; i < 10000; i++) {
+            checks[0] = 0;
+            int x = rand.nextInt(side * 16);
+            int y = rand.nextInt(16);
+            int z = rand.nextInt(side * 16);
+            boolean expected = (x + y + z) % 2 == 0;
+            assertEquals(expected, composite.inSchematic(x, y, z, null));
+            // the one entry in this cell, checked again on a hit to confirm it
+            assertEquals(expected ? 2 : 1, checks[0]);
+        }
+    }
+
+    /**
+     * Reports the lookup cost as the number of entries grows, as entries checked and time per lookup. Only the number
+     * of entries checked is asserted on, since that doesn't depend on the machine: it should stay flat, where a linear
+     * scan checks about half of the entries.
+     */
+    @Test
+    public void testLookupCostByEntryCount() {
+        double firstChecks = -1;
+        for (int side = 4; side <= 64; side *= 4) {
+            int[] checks = new int[1];
+            CompositeSchematic composite = new CompositeSchematic(0, 0, 0);
+            for (int i = 0; i < side * side; i++) {
+                composite.put(new Checkerboard(16, 16, 16, true) {
+                    @Override
+                    public boolean inSchematic(int x, int y, int z, IBlockState currentState) {
+                        checks[0]++;
+                        return super.inSchematic(x, y, z, currentState);
+                    }
+                }, (i % side) * 16, 0, (i / side) * 16);
+            }
+            Random rand = new Random(side);
+            int lookups = 1000000;
+            int[] positions = new int[lookups * 3];
+            for (int i = 0; i < positions.length; i += 3) {
+                positions[i] = rand.nextInt(side * 16);
+                positions[i + 1] = rand.nextInt(16);
+                positions[i + 2] = rand.nextInt(side * 16);
+            }
+            int hits = 0;
+            for (int i = 0; i < positions.length; i += 3) { // warm up
+                hits += composite.inSchematic(positions[i], positions[i + 1], positions[i + 2], null) ? 1 : 0;
+            }
+            checks[0] = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < positions.length; i += 3) {
+                hits += composite.inSchematic(positions[i], positions[i + 1], positions[i + 2], null) ? 1 : 0;
+            }
+            long nanos = System.nanoTime() - start;
+            double checksPerLookup = (double) checks[0] / lookups;
+            System.out.printf("%d entries: %.2f entries checked, %.1f ns per lookup (%d hits)%n", side * side, checksPerLookup, (double) nanos / lookups, hits);
+            if (firstChecks < 0) {
+                firstChecks = checksPerLookup;
+            }
+            assertEquals(firstChecks, checksPerLookup, 0.05);
+        }
+    }
+
+    private static boolean linearScan(List<int[]> boxes, int x, int y, int z) {
+        for (int j = 0; j < boxes.size(); j++) {
+            int[] box = boxes.get(j);
+            int rx = x - box[0];
+            int ry = y - box[1];
+            int rz = z - box[2];
+            if (rx >= 0 && ry >= 0 && rz >= 0 && rx < box[3] && ry < box[4] && rz < box[5] && ((rx + ry + rz) % 2 == 0) == (j % 2 == 0)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class Checkerboard extends AbstractSchematic {
+
+        private final boolean even;
+
+        private Checkerboard(int x, int y, int z, boolean even) {
+            super(x, y, z);
+            this.even = even;
+        }
+
+        @Override
+        public boolean inSchematic(int x, int y, int z, IBlockState currentState) {
+            return super.inSchematic(x, y, z, currentState) && ((x + y + z) % 2 == 0) == even;
+        }
+
+        @Override
+        public IBlockState desiredState(int x, int y, int z, IBlockState current, List<IBlockState> approxPlaceable) {
+            return null;
+        }
+    }
+}
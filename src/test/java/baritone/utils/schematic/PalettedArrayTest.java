@@ -0,0 +1,97 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.utils.schematic;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PalettedArrayTest {
+
+    @Test
+    public void testGetAndSet() {
+        Random rand = new Random(5021);
+        Integer[] expected = new Integer[10000];
+        PalettedArray<Integer> array = new PalettedArray<>(expected.length, -1);
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = -1;
+        }
+        // enough distinct values that the palette has to grow a few times while values are already set
+        for (int i = 0; i < 50000; i++) {
+            int index = rand.nextInt(expected.length);
+            int value = rand.nextInt(300);
+            expected[index] = value;
+            array.set(index, value);
+        }
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], array.get(i));
+        }
+    }
+
+    @Test
+    public void testPackedLayout() {
+        int size = 64 * 64 * 64;
+        Object[] states = new Object[40];
+        for (int i = 0; i < states.length; i++) {
+            states[i] = new Object();
+        }
+        PalettedArray<Object> array = new PalettedArray<>(size, states[0]);
+        // a single value fits in one bit, so 64 values per long
+        assertEquals(1, array.paletteSize());
+        assertEquals(size / 64, array.backingLength());
+
+        Random rand = new Random(1);
+        for (int i = 0; i < size; i++) {
+            array.set(i, states[rand.nextInt(states.length)]);
+        }
+        // 40 values need 6 bits, 10 to a long, instead of a reference per position
+        assertEquals(states.length, array.paletteSize());
+        assertEquals((size + 9) / 10, array.backingLength());
+    }
+
+    /**
+     * Compares against the IBlockState[x][z][y] layout that StaticSchematic used before, for a 256x64x256 schematic with
+     * a few dozen distinct states. The old layout takes 8 bytes per reference (uncompressed oops), plus a header and
+     * length for every inner array.
+     */
+    @Test
+    public void testSmallerThanArrayOfArrays() {
+        int x = 256;
+        int y = 64;
+        int z = 256;
+        Object[] states = new Object[40];
+        for (int i = 0; i < states.length; i++) {
+            states[i] = new Object();
+        }
+        PalettedArray<Object> array = new PalettedArray<>(x * y * z, states[0]);
+        Random rand = new Random(1);
+        for (int i = 0; i < x * y * z; i++) {
+            array.set(i, states[rand.nextInt(states.length)]);
+        }
+        long arrayHeader = 16;
+        long arraysBytes = (long) x * z * (arrayHeader + y * 8L) + x * (arrayHeader + z * 8L) + arrayHeader + x * 8L;
+        long packedBytes = array.sizeInBytes();
+        // 40 states fit in 6 bits, 10 to a long, so a little over 0.8 bytes per position instead of 8
+        assertEquals((x * y * z + 9) / 10, array.backingLength());
+        double ratio = (double) arraysBytes / packedBytes;
+        assertTrue("only " + ratio + " times smaller", ratio > 9);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.utils.schematic;
+
+import baritone.api.utils.BetterBlockPos;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SchematicProgressTest {
+
+    @Test
+    public void testSetAndClear() {
+        SchematicProgress progress = new SchematicProgress(10, 20);
+        assertTrue(progress.isEmpty());
+        progress.set(-17, 12, 33, true);
+        assertTrue(progress.isIncorrect(-17, 12, 33));
+        assertFalse(progress.isIncorrect(-1, 12, 33));
+        assertFalse(progress.isIncorrect(-17, 13, 33));
+        progress.set(-17, 12, 33, false);
+        assertFalse(progress.isIncorrect(-17, 12, 33));
+        assertTrue(progress.isEmpty());
+        // outside the schematic's height, nothing is tracked
+        progress.set(0, 9, 0, true);
+        progress.set(0, 30, 0, true);
+        assertTrue(progress.isEmpty());
+    }
+
+    @Test
+    public void testCollectLowestFirst() {
+        SchematicProgress progress = new SchematicProgress(0, 256);
+        progress.set(5, 100, 5, true);
+        progress.set(20, 3, -40, true);
+        progress.set(-3, 50, 7, true);
+        List<BetterBlockPos> found = new ArrayList<>();
+        progress.collect(found, 0, 255, 2);
+        assertEquals(Arrays.asList(new BetterBlockPos(20, 3, -40), new BetterBlockPos(-3, 50, 7)), found);
+        found.clear();
+        progress.collect(found, 60, 255, 10);
+        assertEquals(Arrays.asList(new BetterBlockPos(5, 100, 5)), found);
+    }
+}